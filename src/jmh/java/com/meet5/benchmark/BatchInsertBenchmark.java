@@ -0,0 +1,137 @@
+package com.meet5.benchmark;
+
+import com.meet5.config.BatchInsertProperties;
+import com.meet5.dao.LikeLogDAO;
+import com.meet5.pojo.Like;
+import com.meet5.pojo.LikesLog;
+import com.meet5.service.impl.BatchInsertServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Partitioning, dispatch and bookkeeping overhead of {@link BatchInsertServiceImpl} against a DAO that only
+ * counts rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BatchInsertBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    @Param({"1", "4"})
+    private int concurrency;
+
+    @Param({"platform", "virtual"})
+    private String threading;
+
+    private final CountingLikeLogDAO likeLogDAO = new CountingLikeLogDAO();
+    private BatchInsertServiceImpl batchInsertService;
+    private ExecutorService executor;
+    private List<LikesLog> likesLogs;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        likesLogs = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            LikesLog log = new LikesLog();
+            log.setLikerId((long) i);
+            log.setTargetId((long) i + 1);
+            log.setStatus(0);
+            log.setCreatedTime(now);
+            likesLogs.add(log);
+        }
+
+        batchInsertService = new BatchInsertServiceImpl();
+        executor = "virtual".equals(threading)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(concurrency), new ThreadPoolExecutor.CallerRunsPolicy());
+        ReflectionTestUtils.setField(batchInsertService, "likeLogDAO", likeLogDAO);
+        ReflectionTestUtils.setField(batchInsertService, "batchInsertExecutor", executor);
+        ReflectionTestUtils.setField(batchInsertService, "batchInsertPermits", new Semaphore(concurrency));
+        ReflectionTestUtils.setField(batchInsertService, "batchInsertProperties", new BatchInsertProperties());
+        ReflectionTestUtils.setField(batchInsertService, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public long batchInsert() {
+        batchInsertService.batchInsert(likesLogs);
+        return likeLogDAO.rows.get();
+    }
+
+    private static final class CountingLikeLogDAO implements LikeLogDAO {
+        private final AtomicLong rows = new AtomicLong();
+
+        @Override
+        public void insert(Like like) {
+        }
+
+        @Override
+        public void batchInsertLikes(List<LikesLog> likesList) {
+            rows.addAndGet(likesList.size());
+        }
+
+        @Override
+        public void insertLikesLog(LikesLog likesLog) {
+            rows.incrementAndGet();
+        }
+
+        @Override
+        public long countTotalRecords() {
+            return rows.get();
+        }
+
+        @Override
+        public Long selectMaxId() {
+            return null;
+        }
+
+        @Override
+        public List<LikesLog> selectLikersAfter(long afterId, int limit) {
+            return List.of();
+        }
+
+        @Override
+        public List<LikesLog> selectRowsAfter(long afterId, int limit) {
+            return List.of();
+        }
+
+        @Override
+        public List<LikesLog> selectByLiker(long likerId, long afterId, LocalDateTime from, LocalDateTime to) {
+            return List.of();
+        }
+
+        @Override
+        public int deleteUpTo(long toId, int limit) {
+            return 0;
+        }
+
+        @Override
+        public long selectMaxAllowedPacket() {
+            return 64L * 1024 * 1024;
+        }
+    }
+}
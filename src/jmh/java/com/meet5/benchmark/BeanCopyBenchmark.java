@@ -0,0 +1,52 @@
+package com.meet5.benchmark;
+
+import com.meet5.common.enums.Gender;
+import com.meet5.common.enums.RelationshipStatus;
+import com.meet5.pojo.User;
+import com.meet5.pojo.dto.UserDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BeanUtils#copyProperties} from {@link User} to {@link UserDto}, as done once per visitor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BeanCopyBenchmark {
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        user = User.builder()
+                .id(1L)
+                .name("user")
+                .job("job")
+                .gender(Gender.MAN)
+                .birthday(LocalDate.of(1990, 1, 1))
+                .locationId(1)
+                .relationshipStatus(RelationshipStatus.values()[0])
+                .profilePictureId(1L)
+                .createdTime(now)
+                .createdBy("system")
+                .updatedTime(now)
+                .updatedBy("system")
+                .build();
+    }
+
+    @Benchmark
+    public UserDto copyProperties() {
+        UserDto dto = new UserDto();
+        BeanUtils.copyProperties(user, dto);
+        return dto;
+    }
+}
@@ -0,0 +1,131 @@
+package com.meet5.benchmark;
+
+import com.meet5.common.enums.LikeStatus;
+import com.meet5.handler.LikeStatusHandler;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of {@link com.meet5.handler.BaseEnumTypeHandler}. The JDBC objects are dynamic proxies;
+ * the {@code *Baseline} benchmarks measure the proxy calls alone so they can be subtracted. The
+ * {@code *Reflective} benchmarks run the former {@code Method.invoke} based handler for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EnumTypeHandlerBenchmark {
+
+    private final LikeStatusHandler handler = new LikeStatusHandler();
+    private final ReflectiveEnumTypeHandler<LikeStatus> reflectiveHandler = new ReflectiveEnumTypeHandler<>(LikeStatus.class);
+
+    private ResultSet resultSet;
+    private PreparedStatement preparedStatement;
+    private int code;
+
+    @Setup
+    public void setUp() {
+        resultSet = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getInt" -> code ^= 1;
+                    case "wasNull" -> false;
+                    default -> null;
+                });
+        preparedStatement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> null);
+    }
+
+    @Benchmark
+    public LikeStatus decode() throws SQLException {
+        return handler.getNullableResult(resultSet, "status");
+    }
+
+    @Benchmark
+    public int decodeBaseline() throws SQLException {
+        return resultSet.getInt("status");
+    }
+
+    @Benchmark
+    public void encode() throws SQLException {
+        handler.setNonNullParameter(preparedStatement, 1, LikeStatus.CANCELED, null);
+    }
+
+    @Benchmark
+    public void encodeBaseline() throws SQLException {
+        preparedStatement.setInt(1, LikeStatus.CANCELED.getCode());
+    }
+
+    @Benchmark
+    public LikeStatus decodeReflective() throws SQLException {
+        return reflectiveHandler.getNullableResult(resultSet, "status");
+    }
+
+    @Benchmark
+    public void encodeReflective() throws SQLException {
+        reflectiveHandler.setNonNullParameter(preparedStatement, 1, LikeStatus.CANCELED, null);
+    }
+
+    /**
+     * The handler as it was before codes were looked up through {@code CodeLookup}.
+     */
+    private static final class ReflectiveEnumTypeHandler<E extends Enum<E>> extends BaseTypeHandler<E> {
+
+        private final Method fromCodeMethod;
+
+        private ReflectiveEnumTypeHandler(Class<E> type) {
+            try {
+                this.fromCodeMethod = type.getMethod("fromCode", int.class);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private E convert(int code) {
+            try {
+                return (E) fromCodeMethod.invoke(null, code);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void setNonNullParameter(PreparedStatement ps, int i, E parameter, JdbcType jdbcType) throws SQLException {
+            try {
+                Method getCode = parameter.getClass().getMethod("getCode");
+                ps.setObject(i, getCode.invoke(parameter));
+            } catch (Exception e) {
+                throw new SQLException(e);
+            }
+        }
+
+        @Override
+        public E getNullableResult(ResultSet rs, String columnName) throws SQLException {
+            int code = rs.getInt(columnName);
+            return rs.wasNull() ? null : convert(code);
+        }
+
+        @Override
+        public E getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+            int code = rs.getInt(columnIndex);
+            return rs.wasNull() ? null : convert(code);
+        }
+
+        @Override
+        public E getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+            int code = cs.getInt(columnIndex);
+            return cs.wasNull() ? null : convert(code);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.meet5.benchmark;
+
+import com.meet5.config.BatchInsertProperties;
+import com.meet5.dao.LikeLogBulkLoader;
+import com.meet5.dao.LikeLogDAO;
+import com.meet5.pojo.LikesLog;
+import com.meet5.pojo.dto.BatchInsertResult;
+import com.meet5.service.impl.BatchInsertServiceImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.mybatis.spring.transaction.SpringManagedTransactionFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Rows/sec of the list-based multi-VALUES {@code batchInsert}, the streaming JDBC-batch {@code streamInsert} and the
+ * {@code LOAD DATA LOCAL INFILE} {@code bulkLoad}, all writing the same records into a real MySQL {@code likes_log} table. Each invocation inserts {@code rows} rows, so rows/sec is
+ * the score times {@code rows}; run with {@code -prof gc} to compare allocation rates. Connection settings come from system properties:
+ * {@code bench.jdbc.url} (should include {@code rewriteBatchedStatements=true&allowLoadLocalInfile=true}), {@code bench.jdbc.user},
+ * {@code bench.jdbc.password}. Inserted rows use liker ids from {@link #LIKER_ID_BASE} and are deleted after
+ * every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class StreamingInsertBenchmark {
+
+    private static final long LIKER_ID_BASE = 9_000_000_000L;
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private HikariDataSource dataSource;
+    private ThreadPoolExecutor executor;
+    private JdbcTemplate jdbcTemplate;
+    private BatchInsertServiceImpl batchInsertService;
+
+    @Setup
+    public void setUp() throws IOException {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(System.getProperty("bench.jdbc.url",
+                "jdbc:mysql://localhost:3306/forTest?useSSL=false&serverTimezone=UTC"
+                        + "&rewriteBatchedStatements=true&allowLoadLocalInfile=true"));
+        dataSource.setUsername(System.getProperty("bench.jdbc.user", "root"));
+        dataSource.setPassword(System.getProperty("bench.jdbc.password", "rootroot"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Configuration configuration = new Configuration(
+                new Environment("benchmark", new SpringManagedTransactionFactory(), dataSource));
+        configuration.getTypeHandlerRegistry().register("com.meet5.handler");
+        String resource = "mapper/LikeLogDAO.xml";
+        try (InputStream mapper = getClass().getClassLoader().getResourceAsStream(resource)) {
+            new XMLMapperBuilder(mapper, configuration, resource, configuration.getSqlFragments()).parse();
+        }
+        SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+
+        BatchInsertProperties properties = new BatchInsertProperties();
+        int concurrency = properties.resolveConcurrency(dataSource.getMaximumPoolSize());
+        executor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(concurrency), new ThreadPoolExecutor.CallerRunsPolicy());
+
+        batchInsertService = new BatchInsertServiceImpl();
+        ReflectionTestUtils.setField(batchInsertService, "likeLogDAO",
+                new SqlSessionTemplate(sqlSessionFactory).getMapper(LikeLogDAO.class));
+        ReflectionTestUtils.setField(batchInsertService, "sqlSessionFactory", sqlSessionFactory);
+        ReflectionTestUtils.setField(batchInsertService, "likeLogBulkLoader",
+                new LikeLogBulkLoader(dataSource));
+        ReflectionTestUtils.setField(batchInsertService, "batchInsertExecutor", executor);
+        ReflectionTestUtils.setField(batchInsertService, "batchInsertPermits", new Semaphore(concurrency));
+        ReflectionTestUtils.setField(batchInsertService, "batchInsertProperties", properties);
+        ReflectionTestUtils.setField(batchInsertService, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteInsertedRows() {
+        jdbcTemplate.update("DELETE FROM likes_log WHERE liker_id >= ?", LIKER_ID_BASE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+        dataSource.close();
+    }
+
+    /**
+     * The whole input is materialised first, as callers of {@code batchInsert} have to.
+     */
+    @Benchmark
+    public BatchInsertResult listBatchInsert() {
+        LocalDateTime now = LocalDateTime.now();
+        List<LikesLog> likesLogs = new ArrayList<>(rows);
+        for (long i = 0; i < rows; i++) {
+            likesLogs.add(likesLog(i, now));
+        }
+        return batchInsertService.batchInsert(likesLogs);
+    }
+
+    @Benchmark
+    public BatchInsertResult streamInsert() {
+        LocalDateTime now = LocalDateTime.now();
+        return batchInsertService.streamInsert(LongStream.range(0, rows).mapToObj(i -> likesLog(i, now)));
+    }
+
+    @Benchmark
+    public BatchInsertResult bulkLoad() {
+        LocalDateTime now = LocalDateTime.now();
+        return batchInsertService.bulkLoad(LongStream.range(0, rows).mapToObj(i -> likesLog(i, now)));
+    }
+
+    private static LikesLog likesLog(long i, LocalDateTime createdTime) {
+        LikesLog likesLog = new LikesLog();
+        likesLog.setLikerId(LIKER_ID_BASE + i);
+        likesLog.setTargetId(i);
+        likesLog.setStatus(0);
+        likesLog.setCreatedTime(createdTime);
+        return likesLog;
+    }
+}
@@ -0,0 +1,173 @@
+package com.meet5.benchmark;
+
+import com.meet5.common.enums.Gender;
+import com.meet5.common.enums.UserStatus;
+import com.meet5.common.enums.VisitorRanking;
+import com.meet5.dao.UserDAO;
+import com.meet5.dao.VisitDAO;
+import com.meet5.pojo.User;
+import com.meet5.pojo.Visit;
+import com.meet5.pojo.dto.UserDto;
+import com.meet5.service.impl.UserServiceImpl;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ranking and profile copy in {@link UserServiceImpl#getLastMonthVisitors}, with the DAOs replaced by in-memory
+ * stubs so only the Java side is measured. For {@code RECENCY} the visit stub streams the raw visits latest first
+ * until the scan stops it; for {@code FREQUENCY} it answers with the per-day groups MySQL would return.
+ * {@link VisitorQueryBenchmark} measures the queries themselves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VisitorPipelineBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int visits;
+
+    @Param({"50", "5000"})
+    private int distinctVisitors;
+
+    @Param({"RECENCY", "FREQUENCY"})
+    private VisitorRanking ranking;
+
+    private UserServiceImpl userService;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Visit> recentVisits = new ArrayList<>(visits);
+        for (int i = 0; i < visits; i++) {
+            long visitorId = 1 + random.nextInt(distinctVisitors);
+            LocalDateTime visitedTime = now.minusSeconds(random.nextInt(30 * 24 * 3600));
+            recentVisits.add(new Visit(visitorId, 1L, visitedTime));
+        }
+
+        Map<Long, User> users = new HashMap<>();
+        for (long id = 1; id <= distinctVisitors; id++) {
+            users.put(id, User.builder()
+                    .id(id)
+                    .name("user" + id)
+                    .job("job")
+                    .gender(Gender.WOMAN)
+                    .birthday(LocalDate.of(1990, 1, 1))
+                    .locationId(1)
+                    .createdTime(now)
+                    .build());
+        }
+
+        userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "visitDAO", new StubVisitDAO(latestFirst(recentVisits), latestVisitPerDay(recentVisits)));
+        ReflectionTestUtils.setField(userService, "userDAO", new StubUserDAO(users));
+    }
+
+    @Benchmark
+    public List<UserDto> getLastMonthVisitors() {
+        return userService.getLastMonthVisitors(1L, ranking);
+    }
+
+    private static final Comparator<Visit> LATEST_FIRST =
+            Comparator.comparing(Visit::getVisitedTime).thenComparing(Visit::getVisitorId).reversed();
+
+    private static List<Visit> latestFirst(List<Visit> visits) {
+        List<Visit> sorted = new ArrayList<>(visits);
+        sorted.sort(LATEST_FIRST);
+        return sorted;
+    }
+
+    /**
+     * What {@code findLatestVisitsPerDay} returns without a limit: each visitor's latest visit per day, latest first.
+     */
+    static List<Visit> latestVisitPerDay(List<Visit> visits) {
+        Map<String, Visit> latest = new HashMap<>();
+        for (Visit visit : visits) {
+            latest.merge(visit.getVisitorId() + "@" + visit.getVisitedTime().toLocalDate(), visit,
+                    (a, b) -> a.getVisitedTime().isAfter(b.getVisitedTime()) ? a : b);
+        }
+        return latestFirst(new ArrayList<>(latest.values()));
+    }
+
+    private record StubVisitDAO(List<Visit> latestFirst, List<Visit> latestVisitPerDay) implements VisitDAO {
+        @Override
+        public List<Visit> findLatestVisitsPerDay(long targetId, LocalDateTime since, Integer limit) {
+            return limit == null ? latestVisitPerDay
+                    : latestVisitPerDay.subList(0, Math.min(limit, latestVisitPerDay.size()));
+        }
+
+        @Override
+        public void scanVisits(long targetId, LocalDateTime since, LocalDateTime afterTime, Long afterVisitorId,
+                               int limit, ResultHandler<Visit> handler) {
+            int from = 0;
+            if (afterTime != null) {
+                int found = Collections.binarySearch(latestFirst, new Visit(afterVisitorId, targetId, afterTime),
+                        LATEST_FIRST);
+                from = found >= 0 ? found : -found - 1;
+                while (from < latestFirst.size() && LATEST_FIRST.compare(latestFirst.get(from),
+                        new Visit(afterVisitorId, targetId, afterTime)) <= 0) {
+                    from++;
+                }
+            }
+            DefaultResultContext<Visit> context = new DefaultResultContext<>();
+            for (int i = from; i < Math.min(from + limit, latestFirst.size()) && !context.isStopped(); i++) {
+                context.nextResultObject(latestFirst.get(i));
+                handler.handleResult(context);
+            }
+        }
+
+        @Override
+        public List<Long> selectVisitorIdsBetween(long targetId, LocalDateTime fromTime, long fromVisitorId,
+                                                  LocalDateTime until, int limit) {
+            return List.of();
+        }
+
+        @Override
+        public void recordVisit(Long visitorId, Long targetId) {
+        }
+
+        @Override
+        public void insert(Visit visit) {
+        }
+
+        @Override
+        public void batchInsertVisits(List<Visit> visits) {
+        }
+
+        @Override
+        public void insertVisit(Visit visit) {
+        }
+    }
+
+    private record StubUserDAO(Map<Long, User> users) implements UserDAO {
+        @Override
+        public void insert(User user) {
+        }
+
+        @Override
+        public void updateStatus(Long userId, UserStatus userStatus) {
+        }
+
+        @Override
+        public List<User> selectNormalUsersByIdList(List<Long> allUserIdList) {
+            List<User> found = new ArrayList<>(allUserIdList.size());
+            for (Long id : allUserIdList) {
+                User user = users.get(id);
+                if (user != null) {
+                    found.add(user);
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.meet5.benchmark;
+
+import com.meet5.dao.UserDAO;
+import com.meet5.dao.VisitDAO;
+import com.meet5.pojo.Visit;
+import com.meet5.pojo.dto.UserDto;
+import com.meet5.service.impl.UserServiceImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.mybatis.spring.transaction.SpringManagedTransactionFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the month-of-visitors read against a real MySQL {@code visits} table seeded with
+ * {@code bench.visits.total} visits (5 million by default): {@code rawRowsGroupedInJava} ships every visit of the
+ * month and keeps the latest per visitor and day in Java, as {@code getLastMonthVisitors} once did;
+ * {@code groupedInMySql} runs {@code findLatestVisitsPerDay} with the top-10 limit, and {@code allGroupsInMySql}
+ * without it, as a cache rebuild does; {@code scannedInIndexOrder} is the current recency read, which streams the
+ * visits in index order and stops at the tenth visitor (it also looks up those visitors' profiles). The profile
+ * read has {@code visitsPerTarget} visits.
+ *
+ * <p>Connection settings come from {@code bench.jdbc.url} (should include {@code rewriteBatchedStatements=true}),
+ * {@code bench.jdbc.user} and {@code bench.jdbc.password}; the schema needs migration 004. Seeded rows use target
+ * ids from {@link #TARGET_ID_BASE} and are kept between runs; they are re-seeded when their count changed or they
+ * no longer fall within the month. Remove them with {@code DELETE FROM visits WHERE target_id >= 9000000000}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VisitorQueryBenchmark {
+
+    private static final long TARGET_ID_BASE = 9_000_000_000L;
+    private static final int[] HOT_TARGET_VISITS = {1_000, 10_000, 100_000};
+    private static final int FILLER_VISITS_PER_TARGET = 500;
+    private static final int VISITORS_PER_TARGET = 2_000;
+    private static final int SEED_DAYS = 25;
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    @Param({"1000", "10000", "100000"})
+    private int visitsPerTarget;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private VisitDAO visitDAO;
+    private UserServiceImpl userService;
+    private long targetId;
+
+    @Setup
+    public void setUp() throws IOException {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(System.getProperty("bench.jdbc.url",
+                "jdbc:mysql://localhost:3306/forTest?useSSL=false&serverTimezone=UTC&rewriteBatchedStatements=true"));
+        dataSource.setUsername(System.getProperty("bench.jdbc.user", "root"));
+        dataSource.setPassword(System.getProperty("bench.jdbc.password", "rootroot"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Configuration configuration = new Configuration(
+                new Environment("benchmark", new SpringManagedTransactionFactory(), dataSource));
+        configuration.getTypeHandlerRegistry().register("com.meet5.handler");
+        for (String resource : List.of("mapper/VisitDAO.xml", "mapper/UserDAO.xml")) {
+            try (InputStream mapper = getClass().getClassLoader().getResourceAsStream(resource)) {
+                new XMLMapperBuilder(mapper, configuration, resource, configuration.getSqlFragments()).parse();
+            }
+        }
+        SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+        SqlSessionTemplate sqlSessionTemplate = new SqlSessionTemplate(sqlSessionFactory);
+        visitDAO = sqlSessionTemplate.getMapper(VisitDAO.class);
+        userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "visitDAO", visitDAO);
+        ReflectionTestUtils.setField(userService, "userDAO", sqlSessionTemplate.getMapper(UserDAO.class));
+
+        seedIfStale(Long.getLong("bench.visits.total", 5_000_000));
+        targetId = TARGET_ID_BASE + visitsPerTarget;
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public List<Visit> rawRowsGroupedInJava() {
+        List<Visit> visits = jdbcTemplate.query("""
+                        SELECT id, visitor_id, target_id, visited_time
+                        FROM visits
+                        WHERE target_id = ?
+                        AND visited_time >= ?
+                        ORDER BY visited_time DESC""",
+                (rs, rowNum) -> Visit.builder()
+                        .id(rs.getLong("id"))
+                        .visitorId(rs.getLong("visitor_id"))
+                        .targetId(rs.getLong("target_id"))
+                        .visitedTime(rs.getTimestamp("visited_time").toLocalDateTime())
+                        .build(),
+                targetId, Timestamp.valueOf(LocalDateTime.now().minusMonths(1)));
+        List<Visit> latestVisitPerDay = VisitorPipelineBenchmark.latestVisitPerDay(visits);
+        return latestVisitPerDay.subList(0, Math.min(UserServiceImpl.MAX_VISITORS, latestVisitPerDay.size()));
+    }
+
+    @Benchmark
+    public List<Visit> groupedInMySql() {
+        return visitDAO.findLatestVisitsPerDay(targetId, LocalDateTime.now().minusMonths(1), UserServiceImpl.MAX_VISITORS);
+    }
+
+    @Benchmark
+    public List<Visit> allGroupsInMySql() {
+        return visitDAO.findLatestVisitsPerDay(targetId, LocalDateTime.now().minusMonths(1), null);
+    }
+
+    @Benchmark
+    public List<UserDto> scannedInIndexOrder() {
+        return userService.getLastMonthVisitors(targetId);
+    }
+
+    private void seedIfStale(long total) {
+        long hotVisits = 0;
+        for (int visits : HOT_TARGET_VISITS) {
+            hotVisits += visits;
+        }
+        long fillerTargets = Math.max(0, (total - hotVisits) / FILLER_VISITS_PER_TARGET);
+        long expected = hotVisits + fillerTargets * FILLER_VISITS_PER_TARGET;
+
+        Long seeded = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM visits WHERE target_id >= ?", Long.class, TARGET_ID_BASE);
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(visited_time) FROM visits WHERE target_id >= ?", Timestamp.class, TARGET_ID_BASE);
+        if (seeded != null && seeded == expected && oldest != null
+                && oldest.toLocalDateTime().isAfter(LocalDateTime.now().minusDays(SEED_DAYS + 2))) {
+            return;
+        }
+
+        jdbcTemplate.update("DELETE FROM visits WHERE target_id >= ?", TARGET_ID_BASE);
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int visits : HOT_TARGET_VISITS) {
+            seedTarget(TARGET_ID_BASE + visits, visits, now, random, batch);
+        }
+        for (long i = 0; i < fillerTargets; i++) {
+            seedTarget(TARGET_ID_BASE + 1_000_000 + i, FILLER_VISITS_PER_TARGET, now, random, batch);
+        }
+        flush(batch);
+    }
+
+    private void seedTarget(long target, int visits, LocalDateTime now, Random random, List<Object[]> batch) {
+        for (int i = 0; i < visits; i++) {
+            long visitorId = 1 + random.nextInt(VISITORS_PER_TARGET);
+            LocalDateTime visitedTime = now.minusSeconds(random.nextInt(SEED_DAYS * 24 * 3600));
+            batch.add(new Object[]{visitorId, target, Timestamp.valueOf(visitedTime)});
+            if (batch.size() == SEED_BATCH_SIZE) {
+                flush(batch);
+            }
+        }
+    }
+
+    private void flush(List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO visits (visitor_id, target_id, visited_time) VALUES (?, ?, ?)", batch);
+            batch.clear();
+        }
+    }
+}
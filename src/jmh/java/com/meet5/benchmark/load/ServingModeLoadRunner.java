@@ -0,0 +1,171 @@
+package com.meet5.benchmark.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load against a running instance, used to compare the serving modes on the same hardware:
+ * {@code spring.threads.virtual.enabled} false and true, and the WebFlux variant built with
+ * {@code -Preactive} and run with the {@code reactive} profile.
+ *
+ * <p>For each concurrency level the given number of clients send a mix of 60% {@code POST /user/visit},
+ * 20% {@code POST /user/like} and 20% {@code GET /user/{id}/getVisitors} back to back for
+ * {@code load.durationSeconds}, and throughput and latency percentiles are printed. The last line is the
+ * highest throughput reached with p99 within {@code load.p99TargetMillis}: run once per serving mode and
+ * compare those lines.</p>
+ *
+ * <pre>
+ * java -jar target/social-network-1.0.0.jar --spring.threads.virtual.enabled=false
+ * mvn -Pbenchmark test-compile exec:exec@load -Dload.p99TargetMillis=100
+ * </pre>
+ *
+ * 4xx responses (e.g. a user flagged by the risk check) count as served; 5xx and I/O errors are reported
+ * separately and exclude a level from the p99 comparison.
+ */
+public class ServingModeLoadRunner {
+
+    private static final String URL = System.getProperty("load.url", "http://localhost:8080");
+    private static final long P99_TARGET_MILLIS = Long.getLong("load.p99TargetMillis", 100);
+    private static final long USERS = Long.getLong("load.users", 1000);
+    private static final long DURATION_SECONDS = Long.getLong("load.durationSeconds", 20);
+    private static final long WARMUP_SECONDS = Long.getLong("load.warmupSeconds", 5);
+    private static final int[] CONCURRENCY = Arrays.stream(
+                    System.getProperty("load.concurrency", "50,100,200,400,800,1600").split(","))
+            .map(String::trim)
+            .mapToInt(Integer::parseInt)
+            .toArray();
+
+    private record LevelResult(int concurrency, long requests, long errors, double throughput,
+                               long p50Micros, long p99Micros, long maxMicros) {
+    }
+
+    private final HttpClient client;
+
+    private ServingModeLoadRunner(ExecutorService clientExecutor) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ServingModeLoadRunner runner = new ServingModeLoadRunner(clientExecutor);
+
+            System.out.printf("Warming up %s for %ds%n", URL, WARMUP_SECONDS);
+            runner.runLevel(CONCURRENCY[0], WARMUP_SECONDS);
+
+            System.out.printf("%12s %10s %8s %12s %10s %10s %10s%n",
+                    "concurrency", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+            List<LevelResult> results = new ArrayList<>();
+            for (int concurrency : CONCURRENCY) {
+                LevelResult result = runner.runLevel(concurrency, DURATION_SECONDS);
+                results.add(result);
+                System.out.printf("%12d %10d %8d %12.0f %10.1f %10.1f %10.1f%n", result.concurrency(),
+                        result.requests(), result.errors(), result.throughput(), result.p50Micros() / 1000.0,
+                        result.p99Micros() / 1000.0, result.maxMicros() / 1000.0);
+            }
+
+            results.stream()
+                    .filter(result -> result.errors() == 0 && result.p99Micros() <= P99_TARGET_MILLIS * 1000)
+                    .max((a, b) -> Double.compare(a.throughput(), b.throughput()))
+                    .ifPresentOrElse(
+                            best -> System.out.printf("Best at p99 <= %d ms: %.0f req/s with %d clients%n",
+                                    P99_TARGET_MILLIS, best.throughput(), best.concurrency()),
+                            () -> System.out.printf("No level stayed within p99 <= %d ms without errors%n",
+                                    P99_TARGET_MILLIS));
+        }
+    }
+
+    private LevelResult runLevel(int concurrency, long durationSeconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        AtomicLong errors = new AtomicLong();
+        long[][] latencies = new long[concurrency][];
+
+        long started = System.nanoTime();
+        List<Thread> clients = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int client = i;
+            clients.add(Thread.ofVirtual().start(() -> latencies[client] = runClient(deadline, errors)));
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        if (all.length == 0) {
+            return new LevelResult(concurrency, 0, errors.get(), 0, 0, 0, 0);
+        }
+        return new LevelResult(concurrency, all.length, errors.get(), all.length / elapsedSeconds,
+                percentile(all, 0.50), percentile(all, 0.99), all[all.length - 1]);
+    }
+
+    /**
+     * Sends requests until the deadline and returns the latency of each one in microseconds.
+     */
+    private long[] runClient(long deadline, AtomicLong errors) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = nextRequest(ThreadLocalRandom.current());
+            long begin = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 500) {
+                    errors.incrementAndGet();
+                }
+            } catch (java.io.IOException e) {
+                errors.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - begin);
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static HttpRequest nextRequest(ThreadLocalRandom random) {
+        long userId = random.nextLong(1, USERS + 1);
+        long targetId = userId % USERS + 1;
+        int pick = random.nextInt(10);
+        if (pick < 6) {
+            return post("/user/visit", "{\"visitorId\":" + userId + ",\"targetId\":" + targetId + "}");
+        }
+        if (pick < 8) {
+            return post("/user/like", "{\"likerId\":" + userId + ",\"targetId\":" + targetId + "}");
+        }
+        return HttpRequest.newBuilder(URI.create(URL + "/user/" + userId + "/getVisitors"))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(URL + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,25 @@
+-- account_status / relationship_status move from strings to the integer codes of UserStatus / RelationshipStatus.
+ALTER TABLE users
+  ADD COLUMN account_status_code TINYINT NOT NULL DEFAULT 0 COMMENT '0-Active, 1-Fraud, 2-Deleted',
+  ADD COLUMN relationship_status_code TINYINT NOT NULL DEFAULT 3 COMMENT '0-Single, 1-Married, 2-AlreadyTaken, 3-NotSpecified';
+
+UPDATE users
+SET account_status_code = CASE account_status
+                            WHEN 'FRAUD' THEN 1
+                            WHEN 'DELETED' THEN 2
+                            ELSE 0
+                          END,
+    relationship_status_code = CASE relationship_status
+                                 WHEN 'Single' THEN 0
+                                 WHEN 'Married' THEN 1
+                                 WHEN 'AlreadyTaken' THEN 2
+                                 ELSE 3
+                               END;
+
+ALTER TABLE users
+  DROP COLUMN account_status,
+  DROP COLUMN relationship_status;
+
+ALTER TABLE users
+  RENAME COLUMN account_status_code TO account_status,
+  RENAME COLUMN relationship_status_code TO relationship_status;
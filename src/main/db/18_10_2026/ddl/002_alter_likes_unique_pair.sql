@@ -0,0 +1,6 @@
+-- One row per liker/target pair; a like toggles that row's status instead of adding rows.
+-- Run the like compaction job (likes.compaction.enabled=true) first, or this fails on the existing duplicates.
+-- The unique key leads with liker_id, so it replaces idx_likes_liker.
+ALTER TABLE likes
+  ADD UNIQUE KEY `uk_likes_liker_target` (liker_id, target_id),
+  DROP KEY `idx_likes_liker`;
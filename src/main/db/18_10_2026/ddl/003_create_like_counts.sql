@@ -0,0 +1,7 @@
+-- Maintained number of active likes per target, so a like count is a primary key lookup instead of COUNT(*) over likes.
+-- Populate it by starting the service once with likes.count.enabled=true and likes.count.repair-on-startup=true.
+CREATE TABLE like_counts (
+  target_id BIGINT PRIMARY KEY,
+  like_count BIGINT NOT NULL DEFAULT 0,
+  updated_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
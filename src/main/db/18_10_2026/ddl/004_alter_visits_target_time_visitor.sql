@@ -0,0 +1,5 @@
+-- Visitor pages are read in (visited_time, visitor_id) order per target. Extending idx_visits_target by visitor_id
+-- lets that order and the cursor seek come from the index alone; the old key is a prefix of the new one.
+ALTER TABLE visits
+  ADD KEY `idx_visits_target_time_visitor` (target_id, visited_time, visitor_id),
+  DROP KEY `idx_visits_target`;
@@ -0,0 +1,29 @@
+-- Monthly RANGE partitions on the event time, so expired months are removed with DROP PARTITION instead of DELETE.
+-- Partition pYYYYMM holds the rows of that month; the first one also holds everything older, and p_future holds rows
+-- past the last month until the partition maintenance job (partition.maintenance.enabled=true) splits it.
+-- MySQL requires the partitioning column in every unique key, so the primary keys become (id, time); ids stay
+-- AUTO_INCREMENT and unique. TIMESTAMP columns can only be range-partitioned through UNIX_TIMESTAMP().
+-- Both tables are rebuilt; run off-peak.
+ALTER TABLE visits
+  MODIFY visited_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, visited_time);
+
+ALTER TABLE visits PARTITION BY RANGE (UNIX_TIMESTAMP(visited_time)) (
+  PARTITION p202610 VALUES LESS THAN (UNIX_TIMESTAMP('2026-11-01 00:00:00')),
+  PARTITION p202611 VALUES LESS THAN (UNIX_TIMESTAMP('2026-12-01 00:00:00')),
+  PARTITION p202612 VALUES LESS THAN (UNIX_TIMESTAMP('2027-01-01 00:00:00')),
+  PARTITION p_future VALUES LESS THAN MAXVALUE
+);
+
+ALTER TABLE likes_log
+  MODIFY created_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, created_time);
+
+ALTER TABLE likes_log PARTITION BY RANGE (UNIX_TIMESTAMP(created_time)) (
+  PARTITION p202610 VALUES LESS THAN (UNIX_TIMESTAMP('2026-11-01 00:00:00')),
+  PARTITION p202611 VALUES LESS THAN (UNIX_TIMESTAMP('2026-12-01 00:00:00')),
+  PARTITION p202612 VALUES LESS THAN (UNIX_TIMESTAMP('2027-01-01 00:00:00')),
+  PARTITION p_future VALUES LESS THAN MAXVALUE
+);
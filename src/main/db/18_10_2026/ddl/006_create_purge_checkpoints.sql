@@ -0,0 +1,6 @@
+-- Position of the retention purger (purge.enabled=true) per table, so a restarted node resumes where it stopped.
+CREATE TABLE purge_checkpoints (
+  table_name VARCHAR(64) PRIMARY KEY,
+  last_id BIGINT NOT NULL DEFAULT 0,
+  updated_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
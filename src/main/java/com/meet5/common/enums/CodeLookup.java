@@ -0,0 +1,42 @@
+package com.meet5.common.enums;
+
+/**
+ * Code-to-constant table of a {@link CodedEnum}, built once so decoding is an array index instead of a scan.
+ * Codes are expected to be small non-negative integers.
+ */
+public final class CodeLookup<E extends Enum<E> & CodedEnum> {
+
+    private final E[] byCode;
+
+    private CodeLookup(E[] byCode) {
+        this.byCode = byCode;
+    }
+
+    public static <E extends Enum<E> & CodedEnum> CodeLookup<E> of(Class<E> type) {
+        E[] constants = type.getEnumConstants();
+        int maxCode = -1;
+        for (E constant : constants) {
+            if (constant.getCode() < 0) {
+                throw new IllegalArgumentException("Negative code in " + type.getName() + ": " + constant);
+            }
+            maxCode = Math.max(maxCode, constant.getCode());
+        }
+
+        @SuppressWarnings("unchecked")
+        E[] byCode = (E[]) java.lang.reflect.Array.newInstance(type, maxCode + 1);
+        for (E constant : constants) {
+            if (byCode[constant.getCode()] != null) {
+                throw new IllegalArgumentException("Duplicate code in " + type.getName() + ": " + constant.getCode());
+            }
+            byCode[constant.getCode()] = constant;
+        }
+        return new CodeLookup<>(byCode);
+    }
+
+    /**
+     * @return the constant with this code, or {@code null} if there is none
+     */
+    public E find(int code) {
+        return code >= 0 && code < byCode.length ? byCode[code] : null;
+    }
+}
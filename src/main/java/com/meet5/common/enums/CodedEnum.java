@@ -0,0 +1,9 @@
+package com.meet5.common.enums;
+
+/**
+ * Enum persisted as a compact integer code instead of its name or ordinal.
+ */
+public interface CodedEnum {
+
+    int getCode();
+}
@@ -3,7 +3,7 @@ package com.meet5.common.enums;
 import lombok.Getter;
 
 @Getter
-public enum Gender {
+public enum Gender implements CodedEnum {
     WOMAN(0),
     MAN(1);
 
@@ -13,12 +13,13 @@ public enum Gender {
         this.code = code;
     }
 
+    private static final CodeLookup<Gender> LOOKUP = CodeLookup.of(Gender.class);
+
     public static Gender fromCode(int code) {
-        for (Gender status : values()) {
-            if (status.code == code) {
-                return status;
-            }
+        Gender value = LOOKUP.find(code);
+        if (value == null) {
+            throw new IllegalArgumentException("Invalid Gender code: " + code);
         }
-        throw new IllegalArgumentException("Invalid Gender code: " + code);
+        return value;
     }
 }
@@ -3,7 +3,7 @@ package com.meet5.common.enums;
 import lombok.Getter;
 
 @Getter
-public enum LikeStatus {
+public enum LikeStatus implements CodedEnum {
     LIKED(0),
     CANCELED(1);
 
@@ -13,12 +13,13 @@ public enum LikeStatus {
         this.code = code;
     }
 
+    private static final CodeLookup<LikeStatus> LOOKUP = CodeLookup.of(LikeStatus.class);
+
     public static LikeStatus fromCode(int code) {
-        for (LikeStatus status : values()) {
-            if (status.code == code) {
-                return status;
-            }
+        LikeStatus value = LOOKUP.find(code);
+        if (value == null) {
+            throw new IllegalArgumentException("Invalid Like status code: " + code);
         }
-        throw new IllegalArgumentException("Invalid Like status code: " + code);
+        return value;
     }
 }
@@ -0,0 +1,15 @@
+package com.meet5.common.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum OperationType {
+    VISIT("visit"),
+    LIKE("like");
+
+    private final String key;
+
+    OperationType(String key) {
+        this.key = key;
+    }
+}
@@ -1,8 +1,27 @@
 package com.meet5.common.enums;
 
-public enum RelationshipStatus {
-    Single,
-    Married,
-    AlreadyTaken,
-    NotSpecified
+import lombok.Getter;
+
+@Getter
+public enum RelationshipStatus implements CodedEnum {
+    Single(0),
+    Married(1),
+    AlreadyTaken(2),
+    NotSpecified(3);
+
+    private final int code;
+
+    RelationshipStatus(int code) {
+        this.code = code;
+    }
+
+    private static final CodeLookup<RelationshipStatus> LOOKUP = CodeLookup.of(RelationshipStatus.class);
+
+    public static RelationshipStatus fromCode(int code) {
+        RelationshipStatus value = LOOKUP.find(code);
+        if (value == null) {
+            throw new IllegalArgumentException("Invalid Relationship status code: " + code);
+        }
+        return value;
+    }
 }
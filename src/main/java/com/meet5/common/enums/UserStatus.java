@@ -1,7 +1,26 @@
 package com.meet5.common.enums;
 
-public enum UserStatus {
-    ACTIVE,
-    FRAUD,
-    DELETED
+import lombok.Getter;
+
+@Getter
+public enum UserStatus implements CodedEnum {
+    ACTIVE(0),
+    FRAUD(1),
+    DELETED(2);
+
+    private final int code;
+
+    UserStatus(int code) {
+        this.code = code;
+    }
+
+    private static final CodeLookup<UserStatus> LOOKUP = CodeLookup.of(UserStatus.class);
+
+    public static UserStatus fromCode(int code) {
+        UserStatus value = LOOKUP.find(code);
+        if (value == null) {
+            throw new IllegalArgumentException("Invalid User status code: " + code);
+        }
+        return value;
+    }
 }
@@ -0,0 +1,16 @@
+package com.meet5.common.enums;
+
+/**
+ * Order of the visitors returned by {@code /user/{id}/getVisitors}.
+ */
+public enum VisitorRanking {
+    /**
+     * Latest visit first.
+     */
+    RECENCY,
+    /**
+     * Highest exponentially decayed count of visit days first, so a visitor who comes back often outranks a
+     * single recent visit.
+     */
+    FREQUENCY
+}
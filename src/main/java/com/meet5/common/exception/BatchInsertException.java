@@ -0,0 +1,20 @@
+package com.meet5.common.exception;
+
+import com.meet5.pojo.dto.BatchInsertResult;
+import lombok.Getter;
+
+/**
+ * Thrown after every batch was attempted when at least one of them still failed; the rows of the other
+ * batches are committed and {@link #getResult()} lists what is missing.
+ */
+@Getter
+public class BatchInsertException extends RuntimeException {
+
+    private final transient BatchInsertResult result;
+
+    public BatchInsertException(BatchInsertResult result) {
+        super(result.getBatchesFailed() + " of " + (result.getBatchesFailed() + result.getBatchesSucceeded())
+                + " batches failed, first error: " + result.getFailedBatches().get(0).getError());
+        this.result = result;
+    }
+}
@@ -0,0 +1,20 @@
+package com.meet5.common.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a streamed write fails; the first {@link #getRowsCommitted()} rows are committed, the
+ * {@link #getRowsPending()} rows of the chunk being written are not.
+ */
+@Getter
+public class StreamingWriteException extends RuntimeException {
+
+    private final long rowsCommitted;
+    private final int rowsPending;
+
+    public StreamingWriteException(long rowsCommitted, int rowsPending, RuntimeException cause) {
+        super("Streaming write failed after " + rowsCommitted + " committed rows: " + cause.getMessage(), cause);
+        this.rowsCommitted = rowsCommitted;
+        this.rowsPending = rowsPending;
+    }
+}
@@ -0,0 +1,68 @@
+package com.meet5.common.mybatis;
+
+import com.meet5.common.exception.StreamingWriteException;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+
+/**
+ * Writes an arbitrarily long sequence of rows through one {@link ExecutorType#BATCH} session.
+ *
+ * <p>Every row goes through the same single-row mapper statement, so MyBatis keeps reusing one
+ * {@code PreparedStatement} and only adds parameter sets to it. Every {@code flushSize} rows the batch is
+ * sent and committed and the session cache cleared, so at most {@code flushSize} rows are referenced at any
+ * time however long the input is. With {@code rewriteBatchedStatements=true} on the JDBC URL the driver sends
+ * each flushed batch as multi-row {@code INSERT}s.</p>
+ */
+public final class StreamingBatchWriter {
+
+    private StreamingBatchWriter() {
+    }
+
+    /**
+     * @return number of rows written
+     */
+    public static <T, M> long write(SqlSessionFactory sqlSessionFactory, Class<M> mapperType, Iterator<T> rows,
+                                    BiConsumer<M, T> insertOne, int flushSize) {
+        if (flushSize <= 0) {
+            throw new IllegalArgumentException("flushSize must be positive");
+        }
+        long committed = 0;
+        int pending = 0;
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+            M mapper = session.getMapper(mapperType);
+            try {
+                while (rows.hasNext()) {
+                    T row = rows.next();
+                    if (row == null) {
+                        continue;
+                    }
+                    insertOne.accept(mapper, row);
+                    if (++pending == flushSize) {
+                        flush(session);
+                        committed += pending;
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    flush(session);
+                    committed += pending;
+                    pending = 0;
+                }
+            } catch (RuntimeException e) {
+                session.rollback(true);
+                throw new StreamingWriteException(committed, pending, e);
+            }
+        }
+        return committed;
+    }
+
+    private static void flush(SqlSession session) {
+        session.flushStatements();
+        session.commit(true);
+        session.clearCache();
+    }
+}
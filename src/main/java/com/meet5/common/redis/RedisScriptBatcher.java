@@ -0,0 +1,174 @@
+package com.meet5.common.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Coalesces concurrent {@code EVALSHA} calls of one Lua script into Jedis pipelines.
+ *
+ * <p>A dispatcher takes the first queued call and keeps collecting until {@code maxBatchSize} calls are
+ * gathered or the first call has waited {@code maxWaitMicros}, then sends the whole batch as one pipeline
+ * and completes each caller's future with its own reply. A caller therefore waits at most one window plus
+ * one round trip. When the queue is full the call is evaluated inline instead of waiting behind it.</p>
+ *
+ * <p>If Redis lost the script ({@code NOSCRIPT}), the script is reloaded and only the affected calls are
+ * re-sent once.</p>
+ */
+@Slf4j
+public class RedisScriptBatcher implements AutoCloseable {
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5_000;
+
+    private final JedisPooled jedisPooled;
+    private final String script;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<PendingCall> queue;
+    private final List<Thread> dispatchers;
+
+    private volatile String scriptSha;
+    private volatile boolean running = true;
+
+    private record PendingCall(List<String> keys, List<String> args, long enqueuedNanos,
+                               CompletableFuture<Object> future) {
+    }
+
+    public RedisScriptBatcher(JedisPooled jedisPooled, String script, int maxBatchSize, long maxWaitMicros,
+                              int queueCapacity, int dispatcherThreads) {
+        if (maxBatchSize <= 0 || maxWaitMicros < 0 || queueCapacity <= 0 || dispatcherThreads <= 0) {
+            throw new IllegalArgumentException("Invalid script batcher configuration");
+        }
+        this.jedisPooled = jedisPooled;
+        this.script = script;
+        this.scriptSha = jedisPooled.scriptLoad(script);
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.dispatchers = new ArrayList<>(dispatcherThreads);
+        for (int i = 0; i < dispatcherThreads; i++) {
+            Thread dispatcher = new Thread(this::runDispatchLoop, "redis-script-batcher-" + i);
+            dispatcher.setDaemon(true);
+            dispatchers.add(dispatcher);
+            dispatcher.start();
+        }
+    }
+
+    /**
+     * Queues one script evaluation; the future completes with the script's reply.
+     */
+    public CompletableFuture<Object> submit(List<String> keys, List<String> args) {
+        PendingCall call = new PendingCall(keys, args, System.nanoTime(), new CompletableFuture<>());
+        if (!running || !queue.offer(call)) {
+            execute(new ArrayList<>(List.of(call)));
+        }
+        return call.future();
+    }
+
+    /**
+     * Stops the dispatchers after the queued calls have been sent.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MILLIS;
+        for (Thread dispatcher : dispatchers) {
+            dispatcher.join(Math.max(1, deadline - System.currentTimeMillis()));
+        }
+        List<PendingCall> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            execute(rest);
+        }
+    }
+
+    private void runDispatchLoop() {
+        List<PendingCall> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                execute(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collectBatch(List<PendingCall> batch) throws InterruptedException {
+        PendingCall first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = first.enqueuedNanos() + maxWaitNanos;
+
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingCall next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void execute(List<PendingCall> batch) {
+        List<PendingCall> pending = batch;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            List<Response<Object>> responses = new ArrayList<>(pending.size());
+            try (Pipeline pipeline = jedisPooled.pipelined()) {
+                for (PendingCall call : pending) {
+                    responses.add(pipeline.evalsha(scriptSha, call.keys(), call.args()));
+                }
+                pipeline.sync();
+            } catch (RuntimeException e) {
+                log.warn("Pipelined script evaluation of {} calls failed", pending.size(), e);
+                pending.forEach(call -> call.future().completeExceptionally(e));
+                return;
+            }
+
+            List<PendingCall> missingScript = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                PendingCall call = pending.get(i);
+                try {
+                    call.future().complete(responses.get(i).get());
+                } catch (JedisNoScriptException e) {
+                    if (attempt == 1) {
+                        missingScript.add(call);
+                    } else {
+                        call.future().completeExceptionally(e);
+                    }
+                } catch (RuntimeException e) {
+                    call.future().completeExceptionally(e);
+                }
+            }
+
+            if (!missingScript.isEmpty()) {
+                try {
+                    scriptSha = jedisPooled.scriptLoad(script);
+                } catch (RuntimeException e) {
+                    missingScript.forEach(call -> call.future().completeExceptionally(e));
+                    return;
+                }
+            }
+            pending = missingScript;
+        }
+    }
+}
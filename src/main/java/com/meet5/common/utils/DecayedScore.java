@@ -0,0 +1,36 @@
+package com.meet5.common.utils;
+
+/**
+ * Exponentially decayed event counts kept in the log domain.
+ *
+ * <p>Instead of decaying every stored score as time passes, each event gets the weight
+ * {@code 2^(t / halfLife)}, which grows with time; comparing two sums of such weights at any moment gives
+ * the same order as comparing the decayed counts. Scores are stored as {@code log2} of the sum, so they
+ * stay small numbers and never overflow.</p>
+ */
+public final class DecayedScore {
+
+    private static final double LN_2 = Math.log(2);
+
+    private DecayedScore() {
+    }
+
+    /**
+     * The score of a single event at {@code epochMillis}.
+     */
+    public static double of(long epochMillis, long halfLifeMillis) {
+        if (halfLifeMillis <= 0) {
+            throw new IllegalArgumentException("Half-life must be positive");
+        }
+        return (double) epochMillis / halfLifeMillis;
+    }
+
+    /**
+     * The score of the union of two event sets with the given scores, {@code log2(2^a + 2^b)}.
+     */
+    public static double add(double a, double b) {
+        double high = Math.max(a, b);
+        double low = Math.min(a, b);
+        return high + Math.log1p(Math.pow(2, low - high)) / LN_2;
+    }
+}
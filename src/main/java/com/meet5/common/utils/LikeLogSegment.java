@@ -0,0 +1,390 @@
+package com.meet5.common.utils;
+
+import com.meet5.pojo.LikesLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * An immutable, memory-mapped file of archived {@code likes_log} rows.
+ *
+ * <p>Rows are sorted by liker id, then id, and cut into blocks of up to {@code blockRows} rows. Each block
+ * stores its columns one after the other (liker id, id, target id, created time, status) as zigzag varint
+ * deltas and is deflated on its own. A fixed-width index after the header holds, per block, its liker id
+ * range, its time range and where its bytes are, so a lookup inflates only the blocks that can hold the
+ * liker's rows within the time range. Times are kept to the microsecond, MySQL's finest precision.</p>
+ *
+ * <p>Layout, big-endian: header {@code magic, rowCount, blockCount, minId, maxId, minTime, maxTime}, then
+ * {@code blockCount} index entries {@code firstLikerId, lastLikerId, minTime, maxTime, offset, rows,
+ * rawLength, length}, then the blocks.</p>
+ */
+public final class LikeLogSegment {
+
+    private static final int MAGIC = 0x4C4C5331; // "LLS1"
+    private static final int HEADER_BYTES = 3 * Integer.BYTES + 4 * Long.BYTES;
+    private static final int INDEX_ENTRY_BYTES = 5 * Long.BYTES + 3 * Integer.BYTES;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int rowCount;
+    private final long minId;
+    private final long maxId;
+    private final long minTime;
+    private final long maxTime;
+    private final long[] firstLikerIds;
+    private final long[] lastLikerIds;
+    private final long[] blockMinTimes;
+    private final long[] blockMaxTimes;
+    private final int[] blockRows;
+    private final int[] rawLengths;
+    private final long[] offsets;
+    private final int[] lengths;
+
+    private LikeLogSegment(Path file, MappedByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a likes_log segment: " + file);
+        }
+        rowCount = buffer.getInt(4);
+        int blockCount = buffer.getInt(8);
+        minId = buffer.getLong(12);
+        maxId = buffer.getLong(20);
+        minTime = buffer.getLong(28);
+        maxTime = buffer.getLong(36);
+        if (blockCount < 0 || HEADER_BYTES + (long) blockCount * INDEX_ENTRY_BYTES > buffer.capacity()) {
+            throw new IOException("Truncated likes_log segment: " + file);
+        }
+
+        firstLikerIds = new long[blockCount];
+        lastLikerIds = new long[blockCount];
+        blockMinTimes = new long[blockCount];
+        blockMaxTimes = new long[blockCount];
+        blockRows = new int[blockCount];
+        rawLengths = new int[blockCount];
+        offsets = new long[blockCount];
+        lengths = new int[blockCount];
+        int position = HEADER_BYTES;
+        for (int block = 0; block < blockCount; block++) {
+            firstLikerIds[block] = buffer.getLong(position);
+            lastLikerIds[block] = buffer.getLong(position + 8);
+            blockMinTimes[block] = buffer.getLong(position + 16);
+            blockMaxTimes[block] = buffer.getLong(position + 24);
+            offsets[block] = buffer.getLong(position + 32);
+            blockRows[block] = buffer.getInt(position + 40);
+            rawLengths[block] = buffer.getInt(position + 44);
+            lengths[block] = buffer.getInt(position + 48);
+            if (offsets[block] + lengths[block] > buffer.capacity()) {
+                throw new IOException("Truncated likes_log segment: " + file);
+            }
+            position += INDEX_ENTRY_BYTES;
+        }
+    }
+
+    /**
+     * Maps an existing segment file read-only.
+     */
+    public static LikeLogSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new LikeLogSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes {@code rows} as a new segment. The file is written under a temporary name, synced and then renamed,
+     * so {@code file} either does not exist or is complete. The directory is synced after the rename, so once this
+     * returns the segment survives a crash and the rows it holds may be deleted from MySQL.
+     */
+    public static void write(Path file, List<LikesLog> rows, int blockRows) throws IOException {
+        if (rows.isEmpty() || blockRows <= 0) {
+            throw new IllegalArgumentException("A segment needs rows and a positive block size");
+        }
+        List<LikesLog> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(LikesLog::getLikerId).thenComparing(LikesLog::getId));
+
+        int blockCount = (sorted.size() + blockRows - 1) / blockRows;
+        ByteArrayOutputStream index = new ByteArrayOutputStream(blockCount * INDEX_ENTRY_BYTES);
+        DataOutputStream indexOut = new DataOutputStream(index);
+        ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+        long offset = HEADER_BYTES + (long) blockCount * INDEX_ENTRY_BYTES;
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            for (int from = 0; from < sorted.size(); from += blockRows) {
+                List<LikesLog> block = sorted.subList(from, Math.min(from + blockRows, sorted.size()));
+                VarintWriter columns = new VarintWriter(block.size() * 16);
+                long previous = 0;
+                for (LikesLog row : block) {
+                    columns.zigzag(row.getLikerId() - previous);
+                    previous = row.getLikerId();
+                }
+                previous = 0;
+                for (LikesLog row : block) {
+                    columns.zigzag(row.getId() - previous);
+                    previous = row.getId();
+                    minId = Math.min(minId, row.getId());
+                    maxId = Math.max(maxId, row.getId());
+                }
+                previous = 0;
+                for (LikesLog row : block) {
+                    columns.zigzag(row.getTargetId() - previous);
+                    previous = row.getTargetId();
+                }
+                previous = 0;
+                long blockMinTime = Long.MAX_VALUE;
+                long blockMaxTime = Long.MIN_VALUE;
+                for (LikesLog row : block) {
+                    long time = toMicros(row.getCreatedTime());
+                    columns.zigzag(time - previous);
+                    previous = time;
+                    blockMinTime = Math.min(blockMinTime, time);
+                    blockMaxTime = Math.max(blockMaxTime, time);
+                }
+                for (LikesLog row : block) {
+                    columns.zigzag(row.getStatus());
+                }
+                minTime = Math.min(minTime, blockMinTime);
+                maxTime = Math.max(maxTime, blockMaxTime);
+
+                byte[] compressed = deflate(deflater, columns.bytes(), columns.size());
+                indexOut.writeLong(block.get(0).getLikerId());
+                indexOut.writeLong(block.get(block.size() - 1).getLikerId());
+                indexOut.writeLong(blockMinTime);
+                indexOut.writeLong(blockMaxTime);
+                indexOut.writeLong(offset);
+                indexOut.writeInt(block.size());
+                indexOut.writeInt(columns.size());
+                indexOut.writeInt(compressed.length);
+                blocks.write(compressed);
+                offset += compressed.length;
+            }
+        } finally {
+            deflater.end();
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(sorted.size())
+                .putInt(blockCount)
+                .putLong(minId)
+                .putLong(maxId)
+                .putLong(minTime)
+                .putLong(maxTime)
+                .flip();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header);
+            writeFully(channel, ByteBuffer.wrap(index.toByteArray()));
+            writeFully(channel, ByteBuffer.wrap(blocks.toByteArray()));
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel directory = FileChannel.open(file.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        }
+    }
+
+    /**
+     * Passes the liker's rows with {@code from <= createdTime < to} to {@code sink}, in liker id, then id order.
+     */
+    public void find(long likerId, LocalDateTime from, LocalDateTime to, Consumer<LikesLog> sink) {
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        if (maxTime < fromMicros || minTime >= toMicros) {
+            return;
+        }
+        for (int block = firstBlockEndingAtOrAfter(likerId);
+             block < firstLikerIds.length && firstLikerIds[block] <= likerId; block++) {
+            if (blockMaxTimes[block] < fromMicros || blockMinTimes[block] >= toMicros) {
+                continue;
+            }
+            findInBlock(block, likerId, fromMicros, toMicros, sink);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public long getMinId() {
+        return minId;
+    }
+
+    public long getMaxId() {
+        return maxId;
+    }
+
+    private int firstBlockEndingAtOrAfter(long likerId) {
+        int low = 0;
+        int high = lastLikerIds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (lastLikerIds[middle] < likerId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void findInBlock(int block, long likerId, long fromMicros, long toMicros, Consumer<LikesLog> sink) {
+        int rows = blockRows[block];
+        VarintReader columns = new VarintReader(inflate(block));
+        long[] likerIds = columns.deltas(rows);
+        long[] ids = columns.deltas(rows);
+        long[] targetIds = columns.deltas(rows);
+        long[] times = columns.deltas(rows);
+        long[] statuses = columns.values(rows);
+        for (int row = 0; row < rows; row++) {
+            if (likerIds[row] == likerId && times[row] >= fromMicros && times[row] < toMicros) {
+                LikesLog likesLog = new LikesLog();
+                likesLog.setId(ids[row]);
+                likesLog.setLikerId(likerIds[row]);
+                likesLog.setTargetId(targetIds[row]);
+                likesLog.setCreatedTime(fromMicros(times[row]));
+                likesLog.setStatus((int) statuses[row]);
+                sink.accept(likesLog);
+            }
+        }
+    }
+
+    private byte[] inflate(int block) {
+        byte[] raw = new byte[rawLengths[block]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.slice((int) offsets[block], lengths[block]));
+            int size = 0;
+            while (size < raw.length && !inflater.finished()) {
+                int read = inflater.inflate(raw, size, raw.length - size);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                size += read;
+            }
+            if (size != raw.length) {
+                throw new IllegalStateException("Corrupt block " + block + " in " + file);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt block " + block + " in " + file, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] input, int length) {
+        deflater.reset();
+        deflater.setInput(input, 0, length);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, length / 4));
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(chunk, 0, deflater.deflate(chunk));
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static final class VarintWriter {
+        private byte[] bytes;
+        private int size;
+
+        VarintWriter(int initialCapacity) {
+            bytes = new byte[Math.max(16, initialCapacity)];
+        }
+
+        void zigzag(long value) {
+            long encoded = (value << 1) ^ (value >> 63);
+            if (size + 10 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while ((encoded & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((encoded & 0x7F) | 0x80);
+                encoded >>>= 7;
+            }
+            bytes[size++] = (byte) encoded;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    private static final class VarintReader {
+        private final byte[] bytes;
+        private int position;
+
+        VarintReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long[] deltas(int count) {
+            long[] values = values(count);
+            for (int i = 1; i < count; i++) {
+                values[i] += values[i - 1];
+            }
+            return values;
+        }
+
+        long[] values(int count) {
+            long[] values = new long[count];
+            for (int i = 0; i < count; i++) {
+                long encoded = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = bytes[position++];
+                    encoded |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                values[i] = (encoded >>> 1) ^ -(encoded & 1);
+            }
+            return values;
+        }
+    }
+}
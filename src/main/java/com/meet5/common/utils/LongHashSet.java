@@ -0,0 +1,99 @@
+package com.meet5.common.utils;
+
+import java.util.Arrays;
+
+/**
+ * A set of {@code long} values with open addressing and linear probing, so membership checks neither box the
+ * value nor allocate an entry. Not thread-safe.
+ */
+public final class LongHashSet {
+
+    private static final long EMPTY = 0L;
+
+    private long[] slots;
+    private int mask;
+    private int size;
+    private boolean containsEmpty;
+
+    public LongHashSet(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        slots = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return {@code true} if the value was not in the set yet
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        int slot = slot(value);
+        while (slots[slot] != EMPTY) {
+            if (slots[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = value;
+        if (++size * 2 > slots.length) {
+            grow();
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+        int slot = slot(value);
+        while (slots[slot] != EMPTY) {
+            if (slots[slot] == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all values and keeps the capacity.
+     */
+    public void clear() {
+        Arrays.fill(slots, EMPTY);
+        containsEmpty = false;
+        size = 0;
+    }
+
+    private int slot(long value) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length << 1];
+        mask = slots.length - 1;
+        for (long value : old) {
+            if (value != EMPTY) {
+                int slot = slot(value);
+                while (slots[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.meet5.common.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Parses newline-delimited JSON lazily: a line is only read from the stream when the consumer asks for the
+ * next record, so a slow consumer stops the upload from being read. Lines that are not valid JSON or that
+ * the validator rejects are skipped and counted, keeping the first {@code maxErrors} messages.
+ */
+@Slf4j
+public class NdjsonIterator<T> implements Iterator<T> {
+
+    private static final long PROGRESS_EVERY_LINES = 100_000;
+
+    private final BufferedReader reader;
+    private final ObjectReader objectReader;
+    private final Function<T, String> validator;
+    private final int maxErrors;
+    private final String name;
+
+    @Getter
+    private long linesRead;
+    @Getter
+    private long accepted;
+    @Getter
+    private long rejected;
+    @Getter
+    private final List<String> errors = new ArrayList<>();
+
+    private T next;
+
+    /**
+     * @param validator returns {@code null} to accept a record (it may normalise it), otherwise the reason to reject it
+     */
+    public NdjsonIterator(InputStream body, ObjectReader objectReader, Function<T, String> validator,
+                          int maxErrors, String name) {
+        this.reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        this.objectReader = objectReader;
+        this.validator = validator;
+        this.maxErrors = maxErrors;
+        this.name = name;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            String line;
+            try {
+                line = reader.readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Reading " + name + " import failed at line " + (linesRead + 1), e);
+            }
+            if (line == null) {
+                return false;
+            }
+            linesRead++;
+            if (linesRead % PROGRESS_EVERY_LINES == 0) {
+                log.info("Importing {}: {} lines read, {} accepted, {} rejected", name, linesRead, accepted, rejected);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+
+            T record;
+            try {
+                record = objectReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                reject("malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            String error = record == null ? "empty record" : validator.apply(record);
+            if (error != null) {
+                reject(error);
+                continue;
+            }
+            accepted++;
+            next = record;
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T record = next;
+        next = null;
+        return record;
+    }
+
+    private void reject(String reason) {
+        rejected++;
+        if (errors.size() < maxErrors) {
+            errors.add("line " + linesRead + ": " + reason);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.meet5.common.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Builds UTF-8 tab-separated rows in a reusable in-memory buffer, in the default format of MySQL
+ * {@code LOAD DATA}: fields terminated by tab, lines by {@code \n}, {@code \} as escape character and
+ * {@code \N} for NULL.
+ */
+public final class TsvEncoder {
+
+    private static final byte TAB = '\t';
+    private static final byte NEWLINE = '\n';
+    private static final byte[] NULL = {'\\', 'N'};
+
+    private byte[] buffer;
+    private int size;
+    private int rows;
+    private boolean rowStarted;
+
+    public TsvEncoder(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public TsvEncoder value(Long value) {
+        separate();
+        if (value == null) {
+            write(NULL);
+        } else {
+            writeAscii(Long.toString(value));
+        }
+        return this;
+    }
+
+    public TsvEncoder value(Integer value) {
+        return value(value == null ? null : value.longValue());
+    }
+
+    /**
+     * Written as {@code yyyy-MM-dd HH:mm:ss.ffffff}, which MySQL reads as a local date-time without time zone conversion.
+     */
+    public TsvEncoder value(LocalDateTime value) {
+        separate();
+        if (value == null) {
+            write(NULL);
+            return this;
+        }
+        pad(value.getYear(), 4);
+        append((byte) '-');
+        pad(value.getMonthValue(), 2);
+        append((byte) '-');
+        pad(value.getDayOfMonth(), 2);
+        append((byte) ' ');
+        pad(value.getHour(), 2);
+        append((byte) ':');
+        pad(value.getMinute(), 2);
+        append((byte) ':');
+        pad(value.getSecond(), 2);
+        append((byte) '.');
+        pad(value.getNano() / 1000, 6);
+        return this;
+    }
+
+    public TsvEncoder value(String value) {
+        separate();
+        if (value == null) {
+            write(NULL);
+            return this;
+        }
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            switch (b) {
+                case '\\' -> write(new byte[]{'\\', '\\'});
+                case '\t' -> write(new byte[]{'\\', 't'});
+                case '\n' -> write(new byte[]{'\\', 'n'});
+                case '\r' -> write(new byte[]{'\\', 'r'});
+                case 0 -> write(new byte[]{'\\', '0'});
+                default -> append(b);
+            }
+        }
+        return this;
+    }
+
+    public TsvEncoder endRow() {
+        append(NEWLINE);
+        rowStarted = false;
+        rows++;
+        return this;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A stream over the rows written so far; it shares the buffer, so read it before the next {@link #reset()}.
+     */
+    public InputStream toInputStream() {
+        return new ByteArrayInputStream(buffer, 0, size);
+    }
+
+    public void reset() {
+        size = 0;
+        rows = 0;
+        rowStarted = false;
+    }
+
+    private void separate() {
+        if (rowStarted) {
+            append(TAB);
+        }
+        rowStarted = true;
+    }
+
+    private void pad(int value, int width) {
+        String digits = Integer.toString(value);
+        for (int i = digits.length(); i < width; i++) {
+            append((byte) '0');
+        }
+        writeAscii(digits);
+    }
+
+    private void writeAscii(String ascii) {
+        ensureCapacity(ascii.length());
+        for (int i = 0; i < ascii.length(); i++) {
+            buffer[size++] = (byte) ascii.charAt(i);
+        }
+    }
+
+    private void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    private void append(byte b) {
+        ensureCapacity(1);
+        buffer[size++] = b;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.meet5.common.utils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Wall-clock time for values stored in or compared with MySQL {@code DATETIME}/{@code TIMESTAMP} columns.
+ *
+ * <p>The JDBC URL pins the connection and the session to UTC ({@code serverTimezone=UTC},
+ * {@code forceConnectionTimeZoneToSession=true}), so {@code CURRENT_TIMESTAMP} defaults are UTC; times the
+ * application writes itself, and the cutoffs it reads with, have to be UTC as well whatever the JVM's zone.</p>
+ */
+public final class UtcClock {
+
+    private UtcClock() {
+    }
+
+    public static LocalDateTime now() {
+        return LocalDateTime.now(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,47 @@
+package com.meet5.common.utils;
+
+import com.meet5.pojo.Visit;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Per-visitor figures over visits already reduced to the latest visit per visitor per day, shared by the
+ * MySQL ranking and the Redis ranking so both score visitors the same way.
+ */
+public final class VisitFrequency {
+
+    private VisitFrequency() {
+    }
+
+    /**
+     * Each visitor's {@link DecayedScore} over the given visits.
+     */
+    public static Map<Long, Double> scores(Collection<Visit> latestVisitPerDay, long halfLifeMillis) {
+        ZoneId zoneId = ZoneOffset.UTC;
+        Map<Long, Double> scores = new HashMap<>();
+        for (Visit visit : latestVisitPerDay) {
+            double score = DecayedScore.of(visit.getVisitedTime().atZone(zoneId).toInstant().toEpochMilli(), halfLifeMillis);
+            scores.merge(visit.getVisitorId(), score, DecayedScore::add);
+        }
+        return scores;
+    }
+
+    /**
+     * Each visitor's latest visit time among the given visits.
+     */
+    public static Map<Long, LocalDateTime> lastVisitTimes(Collection<Visit> visits) {
+        return visits.stream()
+                .collect(Collectors.toMap(
+                        Visit::getVisitorId,
+                        Visit::getVisitedTime,
+                        BinaryOperator.maxBy(Comparator.naturalOrder())));
+    }
+}
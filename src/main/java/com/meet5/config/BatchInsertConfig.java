@@ -0,0 +1,68 @@
+package com.meet5.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class BatchInsertConfig {
+
+    public static final String BATCH_INSERT_EXECUTOR = "batchInsertExecutor";
+
+    public static final String BATCH_INSERT_PERMITS = "batchInsertPermits";
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Connections batch inserts may hold at once, shared by all callers. This, not the executor's thread
+     * count, is what keeps imports from starving requests of Hikari connections.
+     */
+    @Bean(name = BATCH_INSERT_PERMITS)
+    public Semaphore batchInsertPermits(BatchInsertProperties batchInsertProperties, DataSource dataSource) {
+        return new Semaphore(resolveConcurrency(batchInsertProperties, dataSource));
+    }
+
+    /**
+     * Dedicated pool for batch inserts so large imports do not run on the common ForkJoin pool. It has as
+     * many threads as there are permits; when both threads and queue are busy the submitting thread runs
+     * the batch itself.
+     */
+    @Bean(name = BATCH_INSERT_EXECUTOR, destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService batchInsertExecutor(BatchInsertProperties batchInsertProperties, DataSource dataSource) {
+        int concurrency = resolveConcurrency(batchInsertProperties, dataSource);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(concurrency),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "batch-insert-" + threadCount.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * With {@code spring.threads.virtual.enabled=true} every batch gets its own virtual thread; the number
+     * running at once is bounded by {@link #batchInsertPermits} alone.
+     */
+    @Bean(name = BATCH_INSERT_EXECUTOR, destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService virtualBatchInsertExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("batch-insert-", 0).factory());
+    }
+
+    private static int resolveConcurrency(BatchInsertProperties batchInsertProperties, DataSource dataSource) {
+        int poolSize = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+        return batchInsertProperties.resolveConcurrency(poolSize);
+    }
+}
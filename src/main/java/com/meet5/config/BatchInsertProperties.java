@@ -0,0 +1,48 @@
+package com.meet5.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "batch.insert")
+public class BatchInsertProperties {
+
+    /**
+     * Batches written at the same time; 0 = half of the Hikari pool, leaving the rest for requests.
+     */
+    private int maxConcurrency = 0;
+
+    private int maxBatchSize = 1000;
+
+    private int minBatchSize = 100;
+
+    /**
+     * Rows added to the batch size after each batch that finished within the target latency.
+     */
+    private int batchSizeStep = 100;
+
+    /**
+     * A batch slower than this halves the batch size.
+     */
+    private long targetBatchLatencyMs = 500;
+
+    private int maxAttempts = 3;
+
+    private long retryBackoffMs = 100;
+
+    /**
+     * Rows per JDBC batch (and commit) for streamed inserts.
+     */
+    private int streamFlushSize = 1000;
+
+    /**
+     * Rows per {@code LOAD DATA} chunk (and transaction) for bulk loads.
+     */
+    private int loadChunkRows = 50_000;
+
+    public int resolveConcurrency(int connectionPoolSize) {
+        return maxConcurrency > 0 ? maxConcurrency : Math.max(1, connectionPoolSize / 2);
+    }
+}
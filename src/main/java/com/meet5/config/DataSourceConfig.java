@@ -0,0 +1,65 @@
+package com.meet5.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * The serving pool built from {@code spring.datasource}, and two small pools on the same database whose URLs
+ * turn on what the serving pool must not allow: stacked statements for
+ * {@link com.meet5.dao.MultiStatementDAO}, and {@code LOAD DATA LOCAL INFILE} for
+ * {@link com.meet5.dao.LikeLogBulkLoader}. Mappers that interpolate with {@code ${}} only ever run on the
+ * serving pool, where a second statement is rejected by the driver.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    public static final String MULTI_STATEMENT_DATA_SOURCE = "multiStatementDataSource";
+
+    public static final String BULK_LOAD_DATA_SOURCE = "bulkLoadDataSource";
+
+    /**
+     * What Spring Boot would build on its own; declared because the pools below would otherwise replace it.
+     */
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(name = MULTI_STATEMENT_DATA_SOURCE)
+    public HikariDataSource multiStatementDataSource(DataSourceProperties dataSourceProperties,
+                                                     @Value("${datasource.multi-statement.max-pool-size:10}") int maxPoolSize) {
+        return pool(dataSourceProperties, "multi-statement", "allowMultiQueries=true", maxPoolSize);
+    }
+
+    /**
+     * Sized like the batch insert permits, since every bulk load holds one of them while it has a connection.
+     */
+    @Bean(name = BULK_LOAD_DATA_SOURCE)
+    public HikariDataSource bulkLoadDataSource(DataSourceProperties dataSourceProperties,
+                                               BatchInsertProperties batchInsertProperties,
+                                               @Qualifier("dataSource") HikariDataSource dataSource) {
+        return pool(dataSourceProperties, "bulk-load", "allowLoadLocalInfile=true",
+                batchInsertProperties.resolveConcurrency(dataSource.getMaximumPoolSize()));
+    }
+
+    private static HikariDataSource pool(DataSourceProperties dataSourceProperties, String name, String urlParameter,
+                                         int maxPoolSize) {
+        String url = dataSourceProperties.determineUrl();
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url + (url.contains("?") ? "&" : "?") + urlParameter)
+                .build();
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(maxPoolSize);
+        pool.setMinimumIdle(0);
+        return pool;
+    }
+}
@@ -0,0 +1,46 @@
+package com.meet5.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "purge")
+public class PurgeProperties {
+
+    /**
+     * Days rows are kept, by table ({@code visits}, {@code likes_log}, {@code likes}); tables not listed are not purged.
+     */
+    private Map<String, Integer> retentionDays = new LinkedHashMap<>();
+
+    private long intervalMinutes = 60;
+
+    private int maxChunkSize = 5000;
+
+    private int minChunkSize = 500;
+
+    /**
+     * Rows added to the chunk size after each chunk that finished within the target latency.
+     */
+    private int chunkSizeStep = 500;
+
+    /**
+     * A chunk slower than this halves the chunk size and doubles the pause.
+     */
+    private long targetChunkLatencyMs = 100;
+
+    /**
+     * Pause between chunks while they stay within the target latency.
+     */
+    private long pauseMs = 50;
+
+    private long maxPauseMs = 5000;
+
+    private int maxAttempts = 3;
+
+    private long retryBackoffMs = 100;
+}
@@ -4,15 +4,26 @@ package com.meet5.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import redis.clients.jedis.ConnectionPoolConfig;
 import redis.clients.jedis.JedisPooled;
 
+import java.time.Duration;
+
 @Configuration
 public class RedisConfig {
+    /**
+     * The pool size is the limit on concurrent Redis commands. On virtual threads there are no longer
+     * fewer request threads than connections, so callers beyond it wait here for up to {@code max-wait-millis}.
+     */
     @Bean
     public JedisPooled jedisPooled(@Value("${spring.redis.host}") String host,
-                                   @Value("${spring.redis.port}") int port) {
-
-        return new JedisPooled(host, port);
+                                   @Value("${spring.redis.port}") int port,
+                                   @Value("${spring.redis.max-connections:8}") int maxConnections,
+                                   @Value("${spring.redis.max-wait-millis:-1}") long maxWaitMillis) {
+        ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+        poolConfig.setMaxTotal(maxConnections);
+        poolConfig.setMaxIdle(maxConnections);
+        poolConfig.setMaxWait(Duration.ofMillis(maxWaitMillis));
+        return new JedisPooled(poolConfig, host, port);
     }
 }
-
@@ -0,0 +1,72 @@
+package com.meet5.config;
+
+import com.meet5.common.enums.OperationType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import static com.meet5.common.constants.Constants.EXPIRE_SECONDS;
+import static com.meet5.common.constants.Constants.LIMIT_COUNT;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "risk")
+public class RiskProperties {
+
+    /**
+     * Applies to the combined per-user counter that is not split by operation type.
+     */
+    private Limit defaults = new Limit();
+
+    private Limit visit = new Limit();
+
+    private Limit like = new Limit();
+
+    private Batching batching = new Batching();
+
+    private Hybrid hybrid = new Hybrid();
+
+    public Limit limitOf(OperationType operationType) {
+        return switch (operationType) {
+            case VISIT -> visit;
+            case LIKE -> like;
+        };
+    }
+
+    @Data
+    public static class Limit {
+        private long windowSeconds = EXPIRE_SECONDS;
+        private int limit = LIMIT_COUNT;
+        /**
+         * Number of buckets the window slides by; more buckets track the window more closely at the cost of hash fields.
+         */
+        private int subWindows = 10;
+
+        public long subWindowMillis() {
+            return Math.max(1, windowSeconds * 1000 / Math.max(1, subWindows));
+        }
+
+        public long windowMillis() {
+            return subWindowMillis() * Math.max(1, subWindows);
+        }
+    }
+
+    @Data
+    public static class Batching {
+        private boolean enabled = false;
+        private int maxBatchSize = 64;
+        private long maxWaitMicros = 1000;
+        private int queueCapacity = 4096;
+        private int dispatcherThreads = 2;
+    }
+
+    @Data
+    public static class Hybrid {
+        private boolean enabled = false;
+        private long flushIntervalMillis = 250;
+        /**
+         * Checks go to Redis once the local estimate is within this many operations of the limit.
+         */
+        private int margin = 10;
+    }
+}
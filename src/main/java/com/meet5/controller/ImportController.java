@@ -0,0 +1,50 @@
+package com.meet5.controller;
+
+import com.meet5.pojo.dto.ImportSummary;
+import com.meet5.service.ImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+
+@RestController
+@RequestMapping("/import")
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class ImportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final ImportService importService;
+
+
+    /**
+     * Imports like log records, one JSON object per line; the body is processed while it is uploaded.
+     */
+    @PostMapping(value = "/likesLogs", consumes = NDJSON)
+    public ResponseEntity<ImportSummary> importLikesLogs(InputStream body) {
+        return toResponse(importService.importLikesLogs(body));
+    }
+
+    /**
+     * Imports visit records, one JSON object per line; the body is processed while it is uploaded.
+     */
+    @PostMapping(value = "/visits", consumes = NDJSON)
+    public ResponseEntity<ImportSummary> importVisits(InputStream body) {
+        return toResponse(importService.importVisits(body));
+    }
+
+    /**
+     * Rejected lines alone still count as a successful import; rows that could not be written do not.
+     */
+    private static ResponseEntity<ImportSummary> toResponse(ImportSummary summary) {
+        HttpStatus status = summary.getRowsFailed() > 0 ? HttpStatus.INTERNAL_SERVER_ERROR : HttpStatus.OK;
+        return ResponseEntity.status(status).body(summary);
+    }
+}
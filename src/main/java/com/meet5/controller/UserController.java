@@ -1,22 +1,43 @@
 package com.meet5.controller;
 
+import com.meet5.common.enums.VisitorRanking;
+import com.meet5.pojo.LikesLog;
+import com.meet5.pojo.dto.BatchItemResult;
 import com.meet5.pojo.dto.UserDto;
+import com.meet5.pojo.dto.VisitorCursor;
+import com.meet5.pojo.dto.VisitorPage;
 import com.meet5.pojo.request.LikeRequest;
 import com.meet5.pojo.request.VisitRequest;
 import com.meet5.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 
 @RestController
 @RequestMapping("/user")
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class UserController {
 
+    /**
+     * Upper bound on the items of one batch call, keeping each multi-row statement and pipeline small.
+     */
+    private static final int MAX_BATCH_ITEMS = 500;
+
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_HISTORY_DAYS = 31;
+
     private final UserService userService;
 
 
@@ -39,12 +60,94 @@ public class UserController {
     }
 
     /**
-     * Retrieves visitors of a profile.
+     * Records up to {@value #MAX_BATCH_ITEMS} profile visits; the result at each index belongs to the request at that index.
+     */
+    @PostMapping("/visits:batch")
+    public ResponseEntity<List<BatchItemResult>> visits(@RequestBody List<VisitRequest> requests) {
+        if (requests.size() > MAX_BATCH_ITEMS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userService.recordVisits(requests));
+    }
+
+    /**
+     * Records up to {@value #MAX_BATCH_ITEMS} profile likes; the result at each index belongs to the request at that index.
+     */
+    @PostMapping("/likes:batch")
+    public ResponseEntity<List<BatchItemResult>> likes(@RequestBody List<LikeRequest> requests) {
+        if (requests.size() > MAX_BATCH_ITEMS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userService.recordLikes(requests));
+    }
+
+    /**
+     * Tells, for up to {@value #MAX_BATCH_ITEMS} profiles, whether the user currently likes each of them.
+     */
+    @GetMapping("/{id}/likes/state")
+    public ResponseEntity<Map<Long, Boolean>> getLikeStates(@PathVariable("id") long userId,
+                                                            @RequestParam("targets") List<Long> targetIds) {
+        if (targetIds.size() > MAX_BATCH_ITEMS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userService.getLikeStates(userId, targetIds));
+    }
+
+    /**
+     * Retrieves the number of users currently liking a profile.
+     */
+    @GetMapping("/{id}/likeCount")
+    public ResponseEntity<Long> getLikeCount(@PathVariable("id") long userId) {
+        return ResponseEntity.ok(userService.getLikeCount(userId));
+    }
+
+    /**
+     * Retrieves the like and unlike actions of a user in {@code [from, to)}, at most {@value #MAX_HISTORY_DAYS}
+     * days, oldest first; archived actions are included.
+     */
+    @GetMapping("/{id}/likes/history")
+    public ResponseEntity<List<LikesLog>> getLikeHistory(@PathVariable("id") long userId,
+                                                         @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                         @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to) || Duration.between(from, to).compareTo(Duration.ofDays(MAX_HISTORY_DAYS)) > 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userService.getLikeHistory(userId, from, to));
+    }
+
+    /**
+     * Retrieves visitors of a profile, latest first unless {@code ranking=FREQUENCY}.
+     *
+     * <p>With {@code limit} or {@code cursor} the latest-first list is paged: the response carries the cursor
+     * of the next page in {@value #NEXT_CURSOR_HEADER} until the list is exhausted.</p>
      */
     @GetMapping("/{id}/getVisitors")
-    public ResponseEntity<List<UserDto>> getLastMonthVisitors(@PathVariable("id") long userId) {
-        List<UserDto> visitors = userService.getLastMonthVisitors(userId);
-        return ResponseEntity.ok(visitors);
+    public ResponseEntity<List<UserDto>> getLastMonthVisitors(@PathVariable("id") long userId,
+                                                              @RequestParam(value = "ranking", defaultValue = "RECENCY") VisitorRanking ranking,
+                                                              @RequestParam(value = "cursor", required = false) String cursor,
+                                                              @RequestParam(value = "limit", required = false) Integer limit) {
+        if (cursor == null && limit == null) {
+            List<UserDto> visitors = userService.getLastMonthVisitors(userId, ranking);
+            return ResponseEntity.ok(visitors);
+        }
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (ranking != VisitorRanking.RECENCY || pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        VisitorCursor position = null;
+        if (cursor != null) {
+            position = VisitorCursor.decode(cursor);
+            if (position == null) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        VisitorPage page = userService.getLastMonthVisitors(userId, position, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getVisitors());
     }
 }
-
@@ -0,0 +1,18 @@
+package com.meet5.dao;
+
+import com.meet5.pojo.LikeCount;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface LikeCountDAO {
+
+    /**
+     * Adds each delta to its target's counter, creating missing counters.
+     */
+    void addLikeCounts(List<LikeCount> deltas);
+
+    Long selectLikeCount(@Param("targetId") long targetId);
+}
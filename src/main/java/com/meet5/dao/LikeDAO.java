@@ -5,15 +5,39 @@ import com.meet5.pojo.request.LikeRequest;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.List;
+
 @Mapper
 public interface LikeDAO {
-    Like selectLikeByLikeRequest(LikeRequest request);
-
     Like selectDataByLikeRequest(LikeRequest request);
 
-    void updateStatus(Like like);
+    /**
+     * Targets the liker currently likes, restricted to {@code targetIds} unless it is {@code null}, and
+     * capped at {@code limit} rows unless it is {@code null}.
+     */
+    List<Long> selectLikedTargetIds(@Param("likerId") long likerId,
+                                    @Param("targetIds") List<Long> targetIds,
+                                    @Param("limit") Integer limit);
+
+    /**
+     * Highest liker id in {@code likes}, or {@code null} when the table is empty.
+     */
+    Long selectMaxLikerId();
+
+    /**
+     * Highest target id in {@code likes}, or {@code null} when the table is empty.
+     */
+    Long selectMaxTargetId();
 
-    void recordLike(@Param("likerId") Long likerId, @Param("targetId") Long targetId);
+    /**
+     * Active likes of the target, counted over {@code idx_likes_target}.
+     */
+    long countLikes(@Param("targetId") long targetId);
 
-    void insert(Like like);
+    /**
+     * Deletes all but the newest row of every pair whose liker id is in {@code [fromLikerId, toLikerId)}.
+     *
+     * @return the number of rows deleted
+     */
+    int deleteDuplicateLikes(@Param("fromLikerId") long fromLikerId, @Param("toLikerId") long toLikerId);
 }
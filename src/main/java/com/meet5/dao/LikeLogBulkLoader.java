@@ -0,0 +1,53 @@
+package com.meet5.dao;
+
+import com.meet5.config.DataSourceConfig;
+import com.mysql.cj.jdbc.JdbcStatement;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementCallback;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+
+/**
+ * Feeds tab-separated {@code likes_log} rows to MySQL's native bulk loader. The data is streamed from memory
+ * through Connector/J's local-infile hook, so no file is written; the file name in the statement is ignored.
+ * Runs on the {@link DataSourceConfig#BULK_LOAD_DATA_SOURCE} pool, the only one with
+ * {@code allowLoadLocalInfile=true}; requires {@code local_infile=ON} on the server.
+ */
+@Repository
+public class LikeLogBulkLoader {
+
+    private static final String LOAD_LIKES_LOG =
+            "LOAD DATA LOCAL INFILE 'likes_log.tsv' INTO TABLE likes_log CHARACTER SET utf8mb4"
+                    + " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n'"
+                    + " (liker_id, target_id, created_time, status)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public LikeLogBulkLoader(@Qualifier(DataSourceConfig.BULK_LOAD_DATA_SOURCE) DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Loads one chunk in its own transaction.
+     *
+     * @param tsv rows in the column order {@code liker_id, target_id, created_time, status}
+     * @return number of rows MySQL inserted; rows it could not convert are skipped with a warning
+     */
+    public long load(InputStream tsv) {
+        Long loaded = transactionTemplate.execute(status ->
+                jdbcTemplate.execute((StatementCallback<Long>) statement -> {
+                    statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(tsv);
+                    return statement.executeLargeUpdate(LOAD_LIKES_LOG);
+                }));
+        return loaded == null ? 0 : loaded;
+    }
+}
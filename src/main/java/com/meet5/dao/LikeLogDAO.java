@@ -3,9 +3,11 @@ package com.meet5.dao;
 import com.meet5.pojo.Like;
 import com.meet5.pojo.LikesLog;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper
@@ -15,5 +17,40 @@ public interface LikeLogDAO {
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     void batchInsertLikes(List<LikesLog> likesList);
 
+    /**
+     * Single-row insert used by streamed writes, where the JDBC batch rather than the SQL text carries many rows.
+     */
+    void insertLikesLog(LikesLog likesLog);
+
     long countTotalRecords();
+
+    /**
+     * Highest id in {@code likes_log}, or {@code null} when the table is empty.
+     */
+    Long selectMaxId();
+
+    /**
+     * Id and liker id of up to {@code limit} rows with an id above {@code afterId}, in id order.
+     */
+    List<LikesLog> selectLikersAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * Up to {@code limit} full rows with an id above {@code afterId}, in id order.
+     */
+    List<LikesLog> selectRowsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * The liker's rows with an id above {@code afterId} and {@code from <= created_time < to}, in id order.
+     */
+    List<LikesLog> selectByLiker(@Param("likerId") long likerId,
+                                 @Param("afterId") long afterId,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
+
+    /**
+     * Deletes up to {@code limit} of the lowest ids not above {@code toId}.
+     */
+    int deleteUpTo(@Param("toId") long toId, @Param("limit") int limit);
+
+    long selectMaxAllowedPacket();
 }
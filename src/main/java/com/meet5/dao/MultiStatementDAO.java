@@ -0,0 +1,87 @@
+package com.meet5.dao;
+
+import com.meet5.common.enums.LikeStatus;
+import com.meet5.config.DataSourceConfig;
+import com.meet5.pojo.Like;
+import com.meet5.pojo.request.LikeRequest;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Statements sent as several SQL statements in one round trip. They run on the
+ * {@link DataSourceConfig#MULTI_STATEMENT_DATA_SOURCE} pool through a session factory of their own, loaded from
+ * {@code mapper/multi-statement}, so no other mapper runs on a connection that accepts stacked statements.
+ *
+ * <p>Each call is its own transaction, committed when all statements succeeded and rolled back otherwise.</p>
+ */
+@Repository
+public class MultiStatementDAO {
+
+    private static final String NAMESPACE = MultiStatementDAO.class.getName() + ".";
+
+    private final SqlSessionFactory sqlSessionFactory;
+
+    public MultiStatementDAO(@Qualifier(DataSourceConfig.MULTI_STATEMENT_DATA_SOURCE) DataSource dataSource) throws Exception {
+        SqlSessionFactoryBean factoryBean = new SqlSessionFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setTransactionFactory(new JdbcTransactionFactory());
+        factoryBean.setTypeAliasesPackage("com.meet5.pojo");
+        factoryBean.setTypeHandlersPackage("com.meet5.handler");
+        factoryBean.setMapperLocations(new PathMatchingResourcePatternResolver()
+                .getResources("classpath:mapper/multi-statement/*.xml"));
+        this.sqlSessionFactory = factoryBean.getObject();
+    }
+
+    /**
+     * Likes the pair, or flips its existing row between liked and cancelled, and appends the audit row, in
+     * one round trip. The transaction keeps the audit row and the returned status tied to this toggle.
+     *
+     * @return the pair's new status
+     */
+    public LikeStatus toggleLike(LikeRequest request) {
+        return inTransaction(session -> session.selectOne(NAMESPACE + "toggleLike", request));
+    }
+
+    /**
+     * {@link #toggleLike} for many distinct pairs in one round trip.
+     *
+     * @return the new row of every pair
+     */
+    public List<Like> toggleLikes(List<LikeRequest> requests) {
+        return inTransaction(session -> session.selectList(NAMESPACE + "toggleLikes", requests));
+    }
+
+    /**
+     * Recounts the active likes of the targets in {@code [fromTargetId, toTargetId)} from {@code likes}.
+     */
+    public void rebuildLikeCounts(long fromTargetId, long toTargetId) {
+        inTransaction(session -> session.update(NAMESPACE + "rebuildLikeCounts",
+                Map.of("fromTargetId", fromTargetId, "toTargetId", toTargetId)));
+    }
+
+    /**
+     * Toggles are selects, which MyBatis never marks dirty, so commit and rollback are forced.
+     */
+    private <T> T inTransaction(Function<SqlSession, T> statements) {
+        try (SqlSession session = sqlSessionFactory.openSession(false)) {
+            try {
+                T result = statements.apply(session);
+                session.commit(true);
+                return result;
+            } catch (RuntimeException e) {
+                session.rollback(true);
+                throw e;
+            }
+        }
+    }
+}
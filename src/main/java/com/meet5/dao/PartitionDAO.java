@@ -0,0 +1,28 @@
+package com.meet5.dao;
+
+import com.meet5.pojo.MonthlyPartition;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * Partition DDL for the monthly partitioned tables. Table and partition names are spliced into the statements,
+ * so callers pass only names they built themselves.
+ */
+@Mapper
+public interface PartitionDAO {
+
+    /**
+     * The table's partition names in range order; empty if it is not partitioned.
+     */
+    List<String> selectPartitionNames(@Param("table") String table);
+
+    /**
+     * Splits {@code p_future} into the given partitions followed by a new, empty {@code p_future}. Rows already in
+     * {@code p_future} are moved into the new partitions.
+     */
+    void splitFuturePartition(@Param("table") String table, @Param("partitions") List<MonthlyPartition> partitions);
+
+    void dropPartitions(@Param("table") String table, @Param("names") List<String> names);
+}
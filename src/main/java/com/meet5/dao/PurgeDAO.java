@@ -0,0 +1,40 @@
+package com.meet5.dao;
+
+import com.meet5.pojo.PurgeChunk;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+
+/**
+ * Statements of the retention purger. Table and column names are spliced into the statements, so callers pass
+ * only names they know.
+ */
+@Mapper
+public interface PurgeDAO {
+
+    Long selectMaxId(@Param("table") String table);
+
+    /**
+     * The next {@code limit} ids after {@code afterId}, up to {@code maxId}; read from the primary key only.
+     */
+    PurgeChunk selectChunk(@Param("table") String table,
+                           @Param("afterId") long afterId,
+                           @Param("maxId") long maxId,
+                           @Param("limit") int limit);
+
+    /**
+     * Deletes the rows with ids in {@code (afterId, toId]} older than {@code cutoff}, and with the given status
+     * unless it is {@code null}.
+     */
+    int deleteExpired(@Param("table") String table,
+                      @Param("timeColumn") String timeColumn,
+                      @Param("afterId") long afterId,
+                      @Param("toId") long toId,
+                      @Param("cutoff") LocalDateTime cutoff,
+                      @Param("status") Integer status);
+
+    Long selectCheckpoint(@Param("table") String table);
+
+    void saveCheckpoint(@Param("table") String table, @Param("lastId") long lastId);
+}
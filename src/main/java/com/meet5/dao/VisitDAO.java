@@ -3,6 +3,7 @@ package com.meet5.dao;
 import com.meet5.pojo.Visit;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -10,10 +11,46 @@ import java.util.List;
 @Mapper
 public interface VisitDAO {
 
-    List<Visit> findRecentVisits(@Param("userId") long userId, @Param("monthAgo") LocalDateTime monthAgo);
+    /**
+     * The latest visit (visitor id and time only) of each visitor per day to the target since {@code since},
+     * latest first, at most {@code limit} of them unless it is {@code null}.
+     */
+    List<Visit> findLatestVisitsPerDay(@Param("targetId") long targetId,
+                                       @Param("since") LocalDateTime since,
+                                       @Param("limit") Integer limit);
+
+    /**
+     * Hands up to {@code limit} visits (visitor id and time only) to the target since {@code since} to
+     * {@code handler} one at a time as they are read, ordered by visit time and visitor id descending, strictly
+     * after the given position unless {@code afterTime} is {@code null}. The handler may stop the scan early.
+     */
+    void scanVisits(@Param("targetId") long targetId,
+                    @Param("since") LocalDateTime since,
+                    @Param("afterTime") LocalDateTime afterTime,
+                    @Param("afterVisitorId") Long afterVisitorId,
+                    @Param("limit") int limit,
+                    ResultHandler<Visit> handler);
+
+    /**
+     * Visitors of the target from the given position, inclusive in (visit time, visitor id) order, up to
+     * {@code until} exclusive; i.e. the part of the list from {@code until} back to that position. At most
+     * {@code limit} visits are read, the ones closest to the position first; a visitor may repeat.
+     */
+    List<Long> selectVisitorIdsBetween(@Param("targetId") long targetId,
+                                    @Param("fromTime") LocalDateTime fromTime,
+                                    @Param("fromVisitorId") long fromVisitorId,
+                                    @Param("until") LocalDateTime until,
+                                    @Param("limit") int limit);
 
 
     void recordVisit(@Param("visitorId") Long visitorId, @Param("targetId") Long targetId);
 
     void insert(Visit visit);
+
+    void batchInsertVisits(List<Visit> visits);
+
+    /**
+     * Single-row insert without key retrieval, so a batch executor can keep reusing its statement.
+     */
+    void insertVisit(Visit visit);
 }
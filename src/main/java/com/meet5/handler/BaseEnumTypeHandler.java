@@ -1,45 +1,39 @@
 package com.meet5.handler;
+import com.meet5.common.enums.CodeLookup;
+import com.meet5.common.enums.CodedEnum;
 import org.apache.ibatis.type.BaseTypeHandler;
 import org.apache.ibatis.type.JdbcType;
 
-import java.lang.reflect.Method;
 import java.sql.*;
-public abstract class BaseEnumTypeHandler<E extends Enum<E>> extends BaseTypeHandler<E> {
+
+/**
+ * Maps a {@link CodedEnum} to its integer code. The code table is built once per handler, so reading a row
+ * is an array lookup and binding a parameter is a plain {@code getCode()} call.
+ */
+public abstract class BaseEnumTypeHandler<E extends Enum<E> & CodedEnum> extends BaseTypeHandler<E> {
 
     private final Class<E> type;
-    private final Method fromCodeMethod;
+    private final CodeLookup<E> lookup;
 
     public BaseEnumTypeHandler(Class<E> type) {
         if (type == null) {
             throw new IllegalArgumentException("Type argument cannot be null");
         }
         this.type = type;
-        try {
-            this.fromCodeMethod = type.getMethod("fromCode", int.class);
-        } catch (NoSuchMethodException e) {
-            throw new IllegalArgumentException(
-                    "Enum class " + type.getName() + " must have a static fromCode(int) method", e);
-        }
+        this.lookup = CodeLookup.of(type);
     }
 
-    @SuppressWarnings("unchecked")
     private E convert(int code) {
-        try {
-            return (E) fromCodeMethod.invoke(null, code);
-        } catch (Exception e) {
-            throw new RuntimeException("Cannot convert code " + code + " to " + type.getSimpleName(), e);
+        E value = lookup.find(code);
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot convert code " + code + " to " + type.getSimpleName());
         }
+        return value;
     }
 
     @Override
     public void setNonNullParameter(PreparedStatement ps, int i, E parameter, JdbcType jdbcType) throws SQLException {
-        try {
-            Method getCode = parameter.getClass().getMethod("getCode");
-            Object code = getCode.invoke(parameter);
-            ps.setObject(i, code);
-        } catch (Exception e) {
-            throw new SQLException("Cannot get code from enum " + parameter.getClass().getSimpleName(), e);
-        }
+        ps.setInt(i, parameter.getCode());
     }
 
     @Override
@@ -69,4 +63,3 @@ public abstract class BaseEnumTypeHandler<E extends Enum<E>> extends BaseTypeHan
         return convert(code);
     }
 }
-
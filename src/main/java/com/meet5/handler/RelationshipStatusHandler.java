@@ -0,0 +1,9 @@
+package com.meet5.handler;
+
+import com.meet5.common.enums.RelationshipStatus;
+
+public class RelationshipStatusHandler extends BaseEnumTypeHandler<RelationshipStatus> {
+    public RelationshipStatusHandler() {
+        super(RelationshipStatus.class);
+    }
+}
@@ -0,0 +1,9 @@
+package com.meet5.handler;
+
+import com.meet5.common.enums.UserStatus;
+
+public class UserStatusHandler extends BaseEnumTypeHandler<UserStatus> {
+    public UserStatusHandler() {
+        super(UserStatus.class);
+    }
+}
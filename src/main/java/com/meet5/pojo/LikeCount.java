@@ -0,0 +1,16 @@
+package com.meet5.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A row of {@code like_counts}; as a flush parameter, {@code likeCount} is the delta to add.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LikeCount {
+    private Long targetId;
+    private Long likeCount;
+}
@@ -0,0 +1,17 @@
+package com.meet5.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A monthly range partition to create: {@code name} is {@code pYYYYMM} and {@code lessThan} the start of the
+ * following month as {@code yyyy-MM-dd HH:mm:ss}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MonthlyPartition {
+    private String name;
+    private String lessThan;
+}
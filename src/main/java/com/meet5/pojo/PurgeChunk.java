@@ -0,0 +1,16 @@
+package com.meet5.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The next ids of a table to purge: {@code rowCount} rows up to and including {@code endId}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PurgeChunk {
+    private Long endId;
+    private int rowCount;
+}
@@ -2,6 +2,7 @@ package com.meet5.pojo;
 
 import com.meet5.common.enums.Gender;
 import com.meet5.common.enums.RelationshipStatus;
+import com.meet5.common.enums.UserStatus;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -31,7 +32,7 @@ public class User {
     @NotNull
     private Integer locationId;
     private Integer age;
-    private String accountStatus;
+    private UserStatus accountStatus;
     private RelationshipStatus relationshipStatus;
     private Long profilePictureId;
     private LocalDateTime createdTime;
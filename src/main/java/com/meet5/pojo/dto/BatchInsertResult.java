@@ -0,0 +1,36 @@
+package com.meet5.pojo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchInsertResult {
+    private long rowsInserted;
+    private long rowsFailed;
+    private int batchesSucceeded;
+    private int batchesFailed;
+    private long elapsedMillis;
+    @Builder.Default
+    private List<FailedBatch> failedBatches = new ArrayList<>();
+
+    /**
+     * Rows {@code [offset, offset + size)} of the submitted list (after null entries were removed)
+     * that could not be written after all retries.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class FailedBatch {
+        private int offset;
+        private int size;
+        private String error;
+    }
+}
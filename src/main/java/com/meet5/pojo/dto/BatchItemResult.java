@@ -0,0 +1,48 @@
+package com.meet5.pojo.dto;
+
+import com.meet5.common.enums.LikeStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of the request at {@code index} of a batch call.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchItemResult {
+
+    public enum Outcome {
+        RECORDED,
+        /**
+         * Valid but intentionally ignored, e.g. a user visiting their own profile.
+         */
+        SKIPPED,
+        REJECTED
+    }
+
+    private int index;
+    private Outcome outcome;
+    /**
+     * For likes: whether the request liked or cancelled the like.
+     */
+    private LikeStatus likeStatus;
+    private String message;
+
+    public static BatchItemResult recorded(int index) {
+        return new BatchItemResult(index, Outcome.RECORDED, null, null);
+    }
+
+    public static BatchItemResult recorded(int index, LikeStatus likeStatus) {
+        return new BatchItemResult(index, Outcome.RECORDED, likeStatus, null);
+    }
+
+    public static BatchItemResult skipped(int index, String message) {
+        return new BatchItemResult(index, Outcome.SKIPPED, null, message);
+    }
+
+    public static BatchItemResult rejected(int index, String message) {
+        return new BatchItemResult(index, Outcome.REJECTED, null, message);
+    }
+}
@@ -0,0 +1,33 @@
+package com.meet5.pojo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportSummary {
+    private long linesRead;
+    /**
+     * Records that parsed and passed validation.
+     */
+    private long rowsAccepted;
+    private long rowsRejected;
+    private long rowsInserted;
+    /**
+     * Accepted records that could not be written.
+     */
+    private long rowsFailed;
+    private long elapsedMillis;
+    /**
+     * The first rejection and write errors, prefixed with their line number where known.
+     */
+    @Builder.Default
+    private List<String> errors = new ArrayList<>();
+}
@@ -2,6 +2,7 @@ package com.meet5.pojo.dto;
 
 import com.meet5.common.enums.Gender;
 import com.meet5.common.enums.RelationshipStatus;
+import com.meet5.common.enums.UserStatus;
 
 import lombok.*;
 
@@ -24,7 +25,7 @@ public class UserDto {
     private LocalDate birthday;
     private Integer locationId;
     private Integer age;
-    private String accountStatus;
+    private UserStatus accountStatus;
     private RelationshipStatus relationshipStatus;
     private Long profilePictureId;
     private LocalDateTime createdTime;
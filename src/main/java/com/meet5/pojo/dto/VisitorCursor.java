@@ -0,0 +1,35 @@
+package com.meet5.pojo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a target's visitor list, which is ordered by visit time and then visitor id, both descending.
+ * Clients only see it as the opaque token of {@link #encode()}.
+ */
+public record VisitorCursor(LocalDateTime visitedTime, long visitorId) {
+
+    public String encode() {
+        String position = visitedTime + "," + visitorId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the cursor, or {@code null} if {@code token} was not produced by {@link #encode()}
+     */
+    public static VisitorCursor decode(String token) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = position.indexOf(',');
+            if (separator < 0) {
+                return null;
+            }
+            return new VisitorCursor(LocalDateTime.parse(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            return null;
+        }
+    }
+}
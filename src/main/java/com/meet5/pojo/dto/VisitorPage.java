@@ -0,0 +1,18 @@
+package com.meet5.pojo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a visitor list; {@code nextCursor} is {@code null} once the list is exhausted.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VisitorPage {
+    private List<UserDto> visitors;
+    private String nextCursor;
+}
@@ -1,9 +1,42 @@
 package com.meet5.service;
 
 import com.meet5.pojo.LikesLog;
+import com.meet5.pojo.Visit;
+import com.meet5.pojo.dto.BatchInsertResult;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BatchInsertService {
-     void batchInsert(List<LikesLog> likesLogs);
+     /**
+      * Inserts the logs in batches; throws {@link com.meet5.common.exception.BatchInsertException}
+      * carrying the same report if any batch still failed after its retries.
+      */
+     BatchInsertResult batchInsert(List<LikesLog> likesLogs);
+
+     /**
+      * Inserts the logs as they are pulled from the iterator through one JDBC batch statement, committing
+      * every {@code batch.insert.stream-flush-size} rows; memory use does not depend on the input size.
+      */
+     BatchInsertResult streamInsert(Iterator<LikesLog> likesLogs);
+
+     default BatchInsertResult streamInsert(Stream<LikesLog> likesLogs) {
+          return streamInsert(likesLogs.iterator());
+     }
+
+     /**
+      * {@link #streamInsert} for visits, holding the same permit while the rows are pulled.
+      */
+     BatchInsertResult streamInsertVisits(Iterator<Visit> visits);
+
+     /**
+      * Loads the logs through {@code LOAD DATA LOCAL INFILE}, encoded as tab-separated chunks of
+      * {@code batch.insert.load-chunk-rows} rows, each loaded in its own transaction.
+      */
+     BatchInsertResult bulkLoad(Iterator<LikesLog> likesLogs);
+
+     default BatchInsertResult bulkLoad(Stream<LikesLog> likesLogs) {
+          return bulkLoad(likesLogs.iterator());
+     }
 }
@@ -0,0 +1,18 @@
+package com.meet5.service;
+
+import com.meet5.pojo.dto.ImportSummary;
+
+import java.io.InputStream;
+
+public interface ImportService {
+
+    /**
+     * Imports like log records from newline-delimited JSON, writing them while the body is still being read.
+     */
+    ImportSummary importLikesLogs(InputStream body);
+
+    /**
+     * Imports visit records from newline-delimited JSON, writing them while the body is still being read.
+     */
+    ImportSummary importVisits(InputStream body);
+}
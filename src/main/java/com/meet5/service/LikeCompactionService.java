@@ -0,0 +1,11 @@
+package com.meet5.service;
+
+public interface LikeCompactionService {
+
+    /**
+     * Collapses every liker/target pair in {@code likes} to its newest row.
+     *
+     * @return the number of rows deleted
+     */
+    long compact();
+}
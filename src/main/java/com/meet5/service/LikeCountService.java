@@ -0,0 +1,21 @@
+package com.meet5.service;
+
+import com.meet5.common.enums.LikeStatus;
+
+public interface LikeCountService {
+
+    /**
+     * Counts a committed toggle towards the target's like count; the change is written with the next flush.
+     */
+    void recordToggle(long targetId, LikeStatus status);
+
+    /**
+     * The target's like count, including this node's changes that are not flushed yet.
+     */
+    long getLikeCount(long targetId);
+
+    /**
+     * Recounts every counter from {@code likes}.
+     */
+    void rebuild();
+}
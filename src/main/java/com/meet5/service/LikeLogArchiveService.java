@@ -0,0 +1,23 @@
+package com.meet5.service;
+
+import com.meet5.pojo.LikesLog;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface LikeLogArchiveService {
+
+    /**
+     * Moves the {@code likes_log} rows older than the archive age into a new segment file and deletes them
+     * from MySQL.
+     *
+     * @return rows archived
+     * @throws IllegalStateException on a read-only node
+     */
+    long archive();
+
+    /**
+     * The liker's {@code likes_log} rows with {@code from <= createdTime < to}, archived or not, in id order.
+     */
+    List<LikesLog> findHistory(long likerId, LocalDateTime from, LocalDateTime to);
+}
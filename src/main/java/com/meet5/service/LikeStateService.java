@@ -0,0 +1,21 @@
+package com.meet5.service;
+
+import com.meet5.common.enums.LikeStatus;
+
+import java.util.List;
+import java.util.Map;
+
+public interface LikeStateService {
+
+    /**
+     * Applies a committed toggle to the liker's index if the index has already been built.
+     */
+    void recordToggle(long likerId, long targetId, LikeStatus status);
+
+    /**
+     * Tells which of {@code targetIds} the liker currently likes, building the liker's index from MySQL on a miss.
+     *
+     * @return one entry per distinct target id, in request order
+     */
+    Map<Long, Boolean> findLikeStates(long likerId, List<Long> targetIds);
+}
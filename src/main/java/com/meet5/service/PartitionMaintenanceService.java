@@ -0,0 +1,9 @@
+package com.meet5.service;
+
+public interface PartitionMaintenanceService {
+
+    /**
+     * Creates the monthly partitions of the coming months and drops those past retention.
+     */
+    void maintain();
+}
@@ -0,0 +1,11 @@
+package com.meet5.service;
+
+public interface PurgeService {
+
+    /**
+     * Deletes the rows past retention of every configured table, continuing from the saved checkpoints.
+     *
+     * @return rows deleted
+     */
+    long purge();
+}
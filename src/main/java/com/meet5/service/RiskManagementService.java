@@ -1,7 +1,27 @@
 package com.meet5.service;
 
+import com.meet5.common.enums.OperationType;
+
+import java.util.Map;
+import java.util.Set;
+
 public interface RiskManagementService {
 
+    /**
+     * Counts one operation of any type against the user's combined counter.
+     */
     boolean checkSensitiveBehavior(Long userId);
 
+    /**
+     * Counts one operation against the user's counter for that operation type, using the type's window and limit.
+     */
+    boolean checkSensitiveBehavior(Long userId, OperationType operationType);
+
+    /**
+     * Counts the given number of operations per user against their counters for that type in one round trip.
+     *
+     * @return the users whose counter reached the limit
+     */
+    Set<Long> checkSensitiveBehavior(Map<Long, Integer> operationsByUser, OperationType operationType);
+
 }
@@ -0,0 +1,18 @@
+package com.meet5.service;
+
+import com.meet5.pojo.User;
+
+import java.util.List;
+
+public interface UserCacheService {
+
+    /**
+     * Cached variant of {@code UserDAO.selectNormalUsersByIdList}; only ids not held locally are queried.
+     */
+    List<User> selectNormalUsersByIdList(List<Long> userIds);
+
+    /**
+     * Evicts the user locally and on every other node.
+     */
+    void invalidate(Long userId);
+}
@@ -1,10 +1,17 @@
 package com.meet5.service;
 
+import com.meet5.common.enums.VisitorRanking;
+import com.meet5.pojo.LikesLog;
+import com.meet5.pojo.dto.BatchItemResult;
 import com.meet5.pojo.dto.UserDto;
+import com.meet5.pojo.dto.VisitorCursor;
+import com.meet5.pojo.dto.VisitorPage;
 import com.meet5.pojo.request.LikeRequest;
 import com.meet5.pojo.request.VisitRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public interface UserService {
     void recordVisit(VisitRequest request);
@@ -12,4 +19,40 @@ public interface UserService {
     void recordLike(LikeRequest request);
 
     List<UserDto> getLastMonthVisitors(long userId);
+
+    /**
+     * Visitors of the last month, ordered by the given ranking.
+     */
+    List<UserDto> getLastMonthVisitors(long userId, VisitorRanking ranking);
+
+    /**
+     * One page of the last month's visitors, latest first, starting after {@code cursor} (from the top when
+     * it is {@code null}).
+     */
+    VisitorPage getLastMonthVisitors(long userId, VisitorCursor cursor, int limit);
+
+    /**
+     * Records many visits with one insert and one risk evaluation; the result list is parallel to the requests.
+     */
+    List<BatchItemResult> recordVisits(List<VisitRequest> requests);
+
+    /**
+     * Toggles many likes in one round trip with one risk evaluation; the result list is parallel to the requests.
+     */
+    List<BatchItemResult> recordLikes(List<LikeRequest> requests);
+
+    /**
+     * Tells which of {@code targetIds} the liker currently likes, one entry per distinct target in request order.
+     */
+    Map<Long, Boolean> getLikeStates(long likerId, List<Long> targetIds);
+
+    /**
+     * Number of users currently liking the target.
+     */
+    long getLikeCount(long targetId);
+
+    /**
+     * The liker's like and unlike actions with {@code from <= createdTime < to}, in the order they happened.
+     */
+    List<LikesLog> getLikeHistory(long likerId, LocalDateTime from, LocalDateTime to);
 }
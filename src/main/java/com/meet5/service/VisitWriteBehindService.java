@@ -0,0 +1,10 @@
+package com.meet5.service;
+
+public interface VisitWriteBehindService {
+
+    /**
+     * Buffers a visit for asynchronous, batched persistence, or writes it synchronously when the buffer is full,
+     * in which case a failed write is thrown.
+     */
+    void submit(Long visitorId, Long targetId);
+}
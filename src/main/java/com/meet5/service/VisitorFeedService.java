@@ -0,0 +1,40 @@
+package com.meet5.service;
+
+import com.meet5.pojo.Visit;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface VisitorFeedService {
+
+    /**
+     * Adds a visit to the target's feed if the feed has already been built or is being rebuilt.
+     */
+    void recordVisit(Long visitorId, Long targetId, LocalDateTime visitedTime);
+
+    /**
+     * Returns the latest visit per visitor per day since {@code since}, newest first.
+     *
+     * @return the visits, or an empty {@code Optional} if the target has no feed yet
+     */
+    Optional<List<Visit>> findLatestVisits(long targetId, LocalDateTime since, int limit);
+
+    /**
+     * Marks the target's feed as being rebuilt, so visits recorded from now on are kept; call it before reading
+     * the visits passed to {@link #rebuild}.
+     */
+    void prepareRebuild(long targetId);
+
+    /**
+     * Merges visits that are already reduced to the latest visit per visitor per day into the target's feed and
+     * marks the feed as complete.
+     */
+    void rebuild(long targetId, Collection<Visit> latestVisitPerDay);
+
+    /**
+     * Drops the target's feed, so the next read rebuilds it from MySQL.
+     */
+    void invalidate(long targetId);
+}
@@ -0,0 +1,41 @@
+package com.meet5.service;
+
+import com.meet5.pojo.Visit;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface VisitorRankingService {
+
+    /**
+     * Adds a visit to the target's ranking if the ranking has already been built or is being rebuilt; each visit
+     * day of a visitor counts once, at its latest visit.
+     */
+    void recordVisit(Long visitorId, Long targetId, LocalDateTime visitedTime);
+
+    /**
+     * Returns the highest ranked visitors whose last visit is not before {@code since}, each with its last visit.
+     *
+     * @return the visits, or an empty {@code Optional} if the target has no ranking yet
+     */
+    Optional<List<Visit>> findTopVisitors(long targetId, LocalDateTime since, int limit);
+
+    /**
+     * Marks the target's ranking as being rebuilt, so visits recorded from now on are kept; call it before reading
+     * the visits passed to {@link #rebuild}.
+     */
+    void prepareRebuild(long targetId);
+
+    /**
+     * Merges visits that are already reduced to the latest visit per visitor per day into the target's ranking and
+     * marks the ranking as complete.
+     */
+    void rebuild(long targetId, Collection<Visit> latestVisitPerDay);
+
+    /**
+     * Drops the target's ranking, so the next read rebuilds it from MySQL.
+     */
+    void invalidate(long targetId);
+}
@@ -1,29 +1,99 @@
 package com.meet5.service.impl;
 
+import com.meet5.common.exception.BatchInsertException;
+import com.meet5.common.exception.StreamingWriteException;
+import com.meet5.common.mybatis.StreamingBatchWriter;
+import com.meet5.common.utils.TsvEncoder;
+import com.meet5.config.BatchInsertConfig;
+import com.meet5.config.BatchInsertProperties;
+import com.meet5.dao.LikeLogBulkLoader;
 import com.meet5.dao.LikeLogDAO;
+import com.meet5.dao.VisitDAO;
 import com.meet5.pojo.LikesLog;
+import com.meet5.pojo.Visit;
+import com.meet5.pojo.dto.BatchInsertResult;
 import com.meet5.service.BatchInsertService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.IntStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
+/**
+ * Splits large likes log imports into multi-row inserts written in parallel on a dedicated executor.
+ *
+ * <p>A batch is only submitted once it holds one of the shared connection permits, so across all calls at
+ * most {@code max-concurrency} batches are in flight whether they run on platform or virtual threads. The
+ * next batch is cut only when one finishes, so its size already reflects the latest latency. The batch size follows AIMD: it
+ * grows by {@code batch-size-step} after each batch within {@code target-batch-latency-ms} and halves
+ * after a slow or failed one, between {@code min-batch-size} and {@code max-batch-size}, and never beyond
+ * what fits in the server's {@code max_allowed_packet}.</p>
+ *
+ * <p>A failed batch is retried up to {@code max-attempts} times without affecting the others.</p>
+ *
+ * <p>{@link #streamInsert} is the constant-memory alternative for inputs that should not be materialised:
+ * rows are written sequentially through a JDBC batch on one connection instead. {@link #bulkLoad} goes through
+ * MySQL's {@code LOAD DATA} loader for backfills, one chunk and transaction at a time.</p>
+ */
+@Slf4j
 @Service
 public class BatchInsertServiceImpl implements BatchInsertService {
 
     @Autowired
     private LikeLogDAO likeLogDAO;
 
-    private static final int BATCH_SIZE = 1000;
+    @Autowired
+    @Qualifier(BatchInsertConfig.BATCH_INSERT_EXECUTOR)
+    private ExecutorService batchInsertExecutor;
+
+    @Autowired
+    @Qualifier(BatchInsertConfig.BATCH_INSERT_PERMITS)
+    private Semaphore batchInsertPermits;
+
+    @Autowired
+    private BatchInsertProperties batchInsertProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private LikeLogBulkLoader likeLogBulkLoader;
+
+    /**
+     * Generous size of one row in the generated multi-row {@code INSERT} statement.
+     */
+    private static final int ESTIMATED_ROW_BYTES = 128;
+
+    private final AtomicInteger adaptiveBatchSize = new AtomicInteger();
+
+    /**
+     * Rows that fit in {@code max_allowed_packet}; 0 until queried, {@link Integer#MAX_VALUE} if unknown.
+     */
+    private volatile int packetRowLimit;
+
+    private record BatchOutcome(int offset, int size, RuntimeException error) {
+    }
 
     @Override
-    public void batchInsert(@NonNull List<LikesLog> likesLogs) {
+    public BatchInsertResult batchInsert(@NonNull List<LikesLog> likesLogs) {
         if (likesLogs.isEmpty()) {
-            return;
+            return new BatchInsertResult();
         }
 
         // Filter out any null entries
@@ -31,18 +101,247 @@ public class BatchInsertServiceImpl implements BatchInsertService {
                 .filter(Objects::nonNull)
                 .toList();
         if (validLogs.isEmpty()) {
-            return;
+            return new BatchInsertResult();
         }
 
+        long started = System.nanoTime();
         int total = validLogs.size();
-        List<CompletableFuture<Void>> futures = IntStream.iterate(0, i -> i < total, i -> i + BATCH_SIZE)
-                .mapToObj(start -> {
-                    int end = Math.min(start + BATCH_SIZE, total);
-                    List<LikesLog> batch = validLogs.subList(start, end);
-                    return CompletableFuture.runAsync(() -> likeLogDAO.batchInsertLikes(batch));
-                })
-                .toList();
+        List<CompletableFuture<BatchOutcome>> futures = new ArrayList<>();
+
+        for (int start = 0; start < total; ) {
+            batchInsertPermits.acquireUninterruptibly();
+            int end = Math.min(start + currentBatchSize(), total);
+            int offset = start;
+            List<LikesLog> batch = validLogs.subList(start, end);
+            try {
+                futures.add(CompletableFuture
+                        .supplyAsync(() -> insertWithRetry(offset, batch), batchInsertExecutor)
+                        .whenComplete((outcome, e) -> batchInsertPermits.release()));
+            } catch (RuntimeException e) {
+                batchInsertPermits.release();
+                futures.add(CompletableFuture.completedFuture(new BatchOutcome(offset, batch.size(), e)));
+            }
+            start = end;
+        }
 
         CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        BatchInsertResult result = summarize(futures, System.nanoTime() - started);
+        if (result.getBatchesFailed() > 0) {
+            throw new BatchInsertException(result);
+        }
+        return result;
+    }
+
+    @Override
+    public BatchInsertResult streamInsert(@NonNull Iterator<LikesLog> likesLogs) {
+        return stream("likes log", LikeLogDAO.class, likesLogs, LikeLogDAO::insertLikesLog);
+    }
+
+    @Override
+    public BatchInsertResult streamInsertVisits(@NonNull Iterator<Visit> visits) {
+        return stream("visit", VisitDAO.class, visits, VisitDAO::insertVisit);
+    }
+
+    /**
+     * Writes the rows through {@link StreamingBatchWriter} on one connection, holding one of the permits shared
+     * with {@link #batchInsert} for as long as the rows keep coming.
+     */
+    private <T, M> BatchInsertResult stream(String rowName, Class<M> mapperType, Iterator<T> rows,
+                                            BiConsumer<M, T> insertOne) {
+        long started = System.nanoTime();
+        BatchInsertResult result = new BatchInsertResult();
+        batchInsertPermits.acquireUninterruptibly();
+        try {
+            result.setRowsInserted(StreamingBatchWriter.write(sqlSessionFactory, mapperType, rows, insertOne,
+                    batchInsertProperties.getStreamFlushSize()));
+        } catch (StreamingWriteException e) {
+            log.warn("Streaming {} insert failed after {} rows", rowName, e.getRowsCommitted(), e);
+            result.setRowsInserted(e.getRowsCommitted());
+            result.setRowsFailed(e.getRowsPending());
+            result.setBatchesFailed(1);
+            result.getFailedBatches().add(new BatchInsertResult.FailedBatch(
+                    (int) Math.min(Integer.MAX_VALUE, e.getRowsCommitted()), e.getRowsPending(),
+                    String.valueOf(e.getCause().getMessage())));
+        } finally {
+            batchInsertPermits.release();
+        }
+        result.setBatchesSucceeded((int) ((result.getRowsInserted() + batchInsertProperties.getStreamFlushSize() - 1)
+                / batchInsertProperties.getStreamFlushSize()));
+        long elapsedNanos = System.nanoTime() - started;
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        recordTotals(result, elapsedNanos);
+
+        if (result.getBatchesFailed() > 0) {
+            throw new BatchInsertException(result);
+        }
+        return result;
+    }
+
+    @Override
+    public BatchInsertResult bulkLoad(@NonNull Iterator<LikesLog> likesLogs) {
+        long started = System.nanoTime();
+        int chunkRows = batchInsertProperties.getLoadChunkRows();
+        TsvEncoder encoder = new TsvEncoder(chunkRows * 48);
+        BatchInsertResult result = new BatchInsertResult();
+        long offset = 0;
+
+        while (likesLogs.hasNext()) {
+            LikesLog likesLog = likesLogs.next();
+            if (likesLog == null) {
+                continue;
+            }
+            encoder.value(likesLog.getLikerId())
+                    .value(likesLog.getTargetId())
+                    .value(likesLog.getCreatedTime())
+                    .value(likesLog.getStatus())
+                    .endRow();
+            if (encoder.rows() == chunkRows) {
+                loadChunk(encoder, offset, result);
+                offset += encoder.rows();
+                encoder.reset();
+            }
+        }
+        if (encoder.rows() > 0) {
+            loadChunk(encoder, offset, result);
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        recordTotals(result, elapsedNanos);
+
+        if (result.getBatchesFailed() > 0) {
+            throw new BatchInsertException(result);
+        }
+        return result;
+    }
+
+    private void loadChunk(TsvEncoder chunk, long offset, BatchInsertResult result) {
+        int rows = chunk.rows();
+        RuntimeException lastError = null;
+        for (int attempt = 1; attempt <= batchInsertProperties.getMaxAttempts(); attempt++) {
+            batchInsertPermits.acquireUninterruptibly();
+            try {
+                long loaded = likeLogBulkLoader.load(chunk.toInputStream());
+                if (loaded < rows) {
+                    log.warn("LOAD DATA skipped {} of {} likes log rows at offset {}", rows - loaded, rows, offset);
+                }
+                result.setRowsInserted(result.getRowsInserted() + loaded);
+                result.setRowsFailed(result.getRowsFailed() + Math.max(0, rows - loaded));
+                result.setBatchesSucceeded(result.getBatchesSucceeded() + 1);
+                return;
+            } catch (RuntimeException e) {
+                lastError = e;
+                log.warn("Loading likes log chunk at offset {} ({} rows) failed, attempt {}/{}",
+                        offset, rows, attempt, batchInsertProperties.getMaxAttempts(), e);
+            } finally {
+                batchInsertPermits.release();
+            }
+            // Back off without holding the permit.
+            if (attempt < batchInsertProperties.getMaxAttempts() && !backOff(attempt)) {
+                break;
+            }
+        }
+        result.setRowsFailed(result.getRowsFailed() + rows);
+        result.setBatchesFailed(result.getBatchesFailed() + 1);
+        result.getFailedBatches().add(new BatchInsertResult.FailedBatch(
+                (int) Math.min(Integer.MAX_VALUE, offset), rows, String.valueOf(lastError.getMessage())));
+    }
+
+    private BatchOutcome insertWithRetry(int offset, List<LikesLog> batch) {
+        RuntimeException lastError = null;
+        for (int attempt = 1; attempt <= batchInsertProperties.getMaxAttempts(); attempt++) {
+            long begin = System.nanoTime();
+            try {
+                likeLogDAO.batchInsertLikes(batch);
+                long elapsed = System.nanoTime() - begin;
+                meterRegistry.timer("batch.insert.batch.latency").record(elapsed, TimeUnit.NANOSECONDS);
+                meterRegistry.summary("batch.insert.batch.size").record(batch.size());
+                adapt(TimeUnit.NANOSECONDS.toMillis(elapsed) <= batchInsertProperties.getTargetBatchLatencyMs());
+                return new BatchOutcome(offset, batch.size(), null);
+            } catch (RuntimeException e) {
+                lastError = e;
+                adapt(false);
+                log.warn("Inserting likes log batch at offset {} ({} rows) failed, attempt {}/{}",
+                        offset, batch.size(), attempt, batchInsertProperties.getMaxAttempts(), e);
+                if (attempt < batchInsertProperties.getMaxAttempts() && !backOff(attempt)) {
+                    break;
+                }
+            }
+        }
+        return new BatchOutcome(offset, batch.size(), lastError);
+    }
+
+    private boolean backOff(int attempt) {
+        try {
+            Thread.sleep(batchInsertProperties.getRetryBackoffMs() * attempt);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void adapt(boolean withinTarget) {
+        int min = batchInsertProperties.getMinBatchSize();
+        int max = batchInsertProperties.getMaxBatchSize();
+        adaptiveBatchSize.updateAndGet(size -> {
+            int current = size == 0 ? max : size;
+            int next = withinTarget ? current + batchInsertProperties.getBatchSizeStep() : current / 2;
+            return Math.max(min, Math.min(max, next));
+        });
+    }
+
+    private int currentBatchSize() {
+        int size = adaptiveBatchSize.get();
+        if (size == 0) {
+            size = batchInsertProperties.getMaxBatchSize();
+        }
+        return Math.max(1, Math.min(size, packetRowLimit()));
+    }
+
+    private int packetRowLimit() {
+        int limit = packetRowLimit;
+        if (limit == 0) {
+            long maxAllowedPacket = 0;
+            try {
+                maxAllowedPacket = likeLogDAO.selectMaxAllowedPacket();
+            } catch (RuntimeException e) {
+                log.warn("Could not read max_allowed_packet, batch size is not capped by it", e);
+            }
+            limit = maxAllowedPacket > 0
+                    ? (int) Math.min(Integer.MAX_VALUE, maxAllowedPacket / ESTIMATED_ROW_BYTES)
+                    : Integer.MAX_VALUE;
+            packetRowLimit = limit;
+        }
+        return limit;
+    }
+
+    private BatchInsertResult summarize(List<CompletableFuture<BatchOutcome>> futures, long elapsedNanos) {
+        BatchInsertResult result = new BatchInsertResult();
+        for (CompletableFuture<BatchOutcome> future : futures) {
+            BatchOutcome outcome = future.join();
+            if (outcome.error() == null) {
+                result.setRowsInserted(result.getRowsInserted() + outcome.size());
+                result.setBatchesSucceeded(result.getBatchesSucceeded() + 1);
+            } else {
+                result.setRowsFailed(result.getRowsFailed() + outcome.size());
+                result.setBatchesFailed(result.getBatchesFailed() + 1);
+                result.getFailedBatches().add(new BatchInsertResult.FailedBatch(
+                        outcome.offset(), outcome.size(), String.valueOf(outcome.error().getMessage())));
+            }
+        }
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        recordTotals(result, elapsedNanos);
+        return result;
+    }
+
+    private void recordTotals(BatchInsertResult result, long elapsedNanos) {
+        meterRegistry.counter("batch.insert.rows", "outcome", "inserted").increment(result.getRowsInserted());
+        meterRegistry.counter("batch.insert.rows", "outcome", "failed").increment(result.getRowsFailed());
+        if (elapsedNanos > 0) {
+            meterRegistry.summary("batch.insert.throughput")
+                    .record(result.getRowsInserted() * 1e9 / elapsedNanos);
+        }
     }
 }
@@ -0,0 +1,167 @@
+package com.meet5.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meet5.common.enums.LikeStatus;
+import com.meet5.common.exception.BatchInsertException;
+import com.meet5.common.utils.NdjsonIterator;
+import com.meet5.common.utils.UtcClock;
+import com.meet5.pojo.LikesLog;
+import com.meet5.pojo.Visit;
+import com.meet5.pojo.dto.BatchInsertResult;
+import com.meet5.pojo.dto.ImportSummary;
+import com.meet5.service.BatchInsertService;
+import com.meet5.service.ImportService;
+import com.meet5.service.VisitorFeedService;
+import com.meet5.service.VisitorRankingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams uploaded interaction logs into MySQL.
+ *
+ * <p>Records are parsed one line at a time and pulled by the streaming writer, which holds at most
+ * {@code batch.insert.stream-flush-size} rows before writing them. While a chunk is being written nothing
+ * more is read from the request, so the TCP window closes and the client is slowed down to the database's
+ * pace instead of the upload being buffered. Each upload holds one of the batch insert permits while it is
+ * written, so slow or concurrent uploads cannot take more connections than the batch inserts may.</p>
+ *
+ * <p>Imported visits bypass the visitor feed and ranking, so the feeds and rankings of the targets of the
+ * imported visits from the last month are invalidated afterwards and rebuilt from MySQL on their next read.
+ * Progress is only logged, every {@code 100000} lines; the caller gets the summary at the end.</p>
+ */
+@Slf4j
+@Service
+public class ImportServiceImpl implements ImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    @Autowired
+    private BatchInsertService batchInsertService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Present only when {@code visit.feed.enabled=true}.
+     */
+    @Autowired(required = false)
+    private VisitorFeedService visitorFeedService;
+
+    /**
+     * Present only when {@code visit.ranking.enabled=true}.
+     */
+    @Autowired(required = false)
+    private VisitorRankingService visitorRankingService;
+
+    @Override
+    public ImportSummary importLikesLogs(InputStream body) {
+        long started = System.nanoTime();
+        NdjsonIterator<LikesLog> records = new NdjsonIterator<>(body, objectMapper.readerFor(LikesLog.class),
+                this::validateLikesLog, MAX_REPORTED_ERRORS, "likes log");
+
+        BatchInsertResult result;
+        try {
+            result = batchInsertService.streamInsert(records);
+        } catch (BatchInsertException e) {
+            result = e.getResult();
+        }
+        return summarize("likes_log", records, result, started);
+    }
+
+    @Override
+    public ImportSummary importVisits(InputStream body) {
+        long started = System.nanoTime();
+        boolean cached = visitorFeedService != null || visitorRankingService != null;
+        LocalDateTime monthAgo = UtcClock.now().minusMonths(1);
+        Set<Long> recentTargets = new HashSet<>();
+        NdjsonIterator<Visit> records = new NdjsonIterator<>(body, objectMapper.readerFor(Visit.class), visit -> {
+            String error = validateVisit(visit);
+            if (error == null && cached && visit.getVisitedTime().isAfter(monthAgo)) {
+                recentTargets.add(visit.getTargetId());
+            }
+            return error;
+        }, MAX_REPORTED_ERRORS, "visits");
+
+        BatchInsertResult result;
+        try {
+            result = batchInsertService.streamInsertVisits(records);
+        } catch (BatchInsertException e) {
+            result = e.getResult();
+        }
+        if (result.getRowsInserted() > 0) {
+            recentTargets.forEach(this::invalidateVisitCaches);
+        }
+        return summarize("visits", records, result, started);
+    }
+
+    private void invalidateVisitCaches(long targetId) {
+        if (visitorFeedService != null) {
+            visitorFeedService.invalidate(targetId);
+        }
+        if (visitorRankingService != null) {
+            visitorRankingService.invalidate(targetId);
+        }
+    }
+
+    private String validateLikesLog(LikesLog likesLog) {
+        if (likesLog.getLikerId() == null || likesLog.getTargetId() == null) {
+            return "likerId and targetId are required";
+        }
+        if (likesLog.getStatus() == null) {
+            likesLog.setStatus(LikeStatus.LIKED.getCode());
+        } else if (likesLog.getStatus() != LikeStatus.LIKED.getCode()
+                && likesLog.getStatus() != LikeStatus.CANCELED.getCode()) {
+            return "invalid status " + likesLog.getStatus();
+        }
+        if (likesLog.getCreatedTime() == null) {
+            likesLog.setCreatedTime(UtcClock.now());
+        }
+        return null;
+    }
+
+    private String validateVisit(Visit visit) {
+        if (visit.getVisitorId() == null || visit.getTargetId() == null) {
+            return "visitorId and targetId are required";
+        }
+        if (Objects.equals(visit.getVisitorId(), visit.getTargetId())) {
+            return "visitorId and targetId must differ";
+        }
+        if (visit.getVisitedTime() == null) {
+            visit.setVisitedTime(UtcClock.now());
+        }
+        return null;
+    }
+
+    private ImportSummary summarize(String table, NdjsonIterator<?> records, BatchInsertResult result, long started) {
+        ImportSummary summary = ImportSummary.builder()
+                .linesRead(records.getLinesRead())
+                .rowsAccepted(records.getAccepted())
+                .rowsRejected(records.getRejected())
+                .rowsInserted(result.getRowsInserted())
+                .rowsFailed(result.getRowsFailed())
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started))
+                .build();
+        summary.getErrors().addAll(records.getErrors());
+        result.getFailedBatches().forEach(failed -> summary.getErrors().add(
+                "rows " + failed.getOffset() + "-" + (failed.getOffset() + failed.getSize() - 1) + ": " + failed.getError()));
+
+        meterRegistry.counter("import.rows", "table", table, "outcome", "inserted").increment(summary.getRowsInserted());
+        meterRegistry.counter("import.rows", "table", table, "outcome", "rejected").increment(summary.getRowsRejected());
+        meterRegistry.counter("import.rows", "table", table, "outcome", "failed").increment(summary.getRowsFailed());
+        log.info("Imported {}: {} lines, {} inserted, {} rejected, {} failed in {} ms", table, summary.getLinesRead(),
+                summary.getRowsInserted(), summary.getRowsRejected(), summary.getRowsFailed(), summary.getElapsedMillis());
+        return summary;
+    }
+}
@@ -0,0 +1,65 @@
+package com.meet5.service.impl;
+
+import com.meet5.dao.LikeDAO;
+import com.meet5.service.LikeCompactionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * One-off clean-up before {@code uk_likes_liker_target} is added.
+ *
+ * <p>Before likes toggled a single row, cancelling and liking again inserted a new row, so a pair can have
+ * many. The newest row holds the pair's current state; the older ones are deleted, one range of
+ * {@code chunk-size} liker ids per statement so no statement locks a large part of the table. Their
+ * history stays in {@code likes_log}.</p>
+ *
+ * <p>Runs once at startup when {@code likes.compaction.enabled=true} and is safe to run again.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "likes.compaction", name = "enabled", havingValue = "true")
+public class LikeCompactionServiceImpl implements LikeCompactionService, ApplicationRunner {
+
+    private final LikeDAO likeDAO;
+    private final long chunkSize;
+
+    @Autowired
+    public LikeCompactionServiceImpl(LikeDAO likeDAO,
+                                     @Value("${likes.compaction.chunk-size:10000}") long chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Like compaction chunk size must be positive");
+        }
+        this.likeDAO = likeDAO;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        compact();
+    }
+
+    @Override
+    public long compact() {
+        Long maxLikerId = likeDAO.selectMaxLikerId();
+        if (maxLikerId == null) {
+            return 0;
+        }
+
+        long deleted = 0;
+        for (long from = 0; from <= maxLikerId; from += chunkSize) {
+            long to = Math.min(from + chunkSize, maxLikerId + 1);
+            int rows = likeDAO.deleteDuplicateLikes(from, to);
+            if (rows > 0) {
+                log.info("Deleted {} duplicate likes of likers [{}, {})", rows, from, to);
+            }
+            deleted += rows;
+        }
+        log.info("Like compaction finished, {} duplicate rows deleted", deleted);
+        return deleted;
+    }
+}
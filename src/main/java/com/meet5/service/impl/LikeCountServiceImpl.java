@@ -0,0 +1,212 @@
+package com.meet5.service.impl;
+
+import com.meet5.common.enums.LikeStatus;
+import com.meet5.dao.LikeCountDAO;
+import com.meet5.dao.LikeDAO;
+import com.meet5.dao.MultiStatementDAO;
+import com.meet5.pojo.LikeCount;
+import com.meet5.service.LikeCountService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Per-target like counters in {@code like_counts}, written behind.
+ *
+ * <p>Toggles only add +1 or -1 to an in-memory delta per target. Every {@code flush-interval-ms} the
+ * non-zero deltas are written as multi-row upserts in target id order, so a hot target costs one row
+ * update per node and interval however many toggles it receives, and concurrent flushes lock rows in the
+ * same order. A failed flush keeps its deltas and retries them with the next one.</p>
+ *
+ * <p>Deltas not yet flushed are lost if the node dies. A count that drifts below zero is served as zero, logged
+ * and counted in {@code likes.count.negative}, so drift shows up before anyone reports it. {@link #rebuild()}
+ * recounts from {@code likes} in ranges of {@code rebuild-chunk-size} target ids; it runs at startup when
+ * {@code repair-on-startup=true}.</p>
+ *
+ * <p>A recount already includes the toggles whose deltas are still pending, so this node's pending deltas of
+ * the range, taken just before the recount, are subtracted from the recounted rows; flushing waits for the
+ * range. Pending deltas of other nodes are not visible here and are still counted twice, as is a toggle
+ * recorded while its range is being recounted; run the repair while the other nodes are stopped, or rebuild
+ * again once they are idle, when that matters.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "likes.count", name = "enabled", havingValue = "true")
+public class LikeCountServiceImpl implements LikeCountService, ApplicationRunner {
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final LikeCountDAO likeCountDAO;
+    private final LikeDAO likeDAO;
+    private final MultiStatementDAO multiStatementDAO;
+    private final ConcurrentMap<Long, Long> pendingDeltas = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long rebuildChunkSize;
+    private final boolean repairOnStartup;
+
+    private final Counter flushedRows;
+    private final Counter failedFlushes;
+    private final Counter negativeCounts;
+
+    private ScheduledExecutorService flushScheduler;
+
+    @Autowired
+    public LikeCountServiceImpl(LikeCountDAO likeCountDAO,
+                                LikeDAO likeDAO,
+                                MultiStatementDAO multiStatementDAO,
+                                MeterRegistry meterRegistry,
+                                @Value("${likes.count.batch-size:500}") int batchSize,
+                                @Value("${likes.count.flush-interval-ms:1000}") long flushIntervalMillis,
+                                @Value("${likes.count.rebuild-chunk-size:10000}") long rebuildChunkSize,
+                                @Value("${likes.count.repair-on-startup:false}") boolean repairOnStartup) {
+        if (batchSize <= 0 || flushIntervalMillis <= 0 || rebuildChunkSize <= 0) {
+            throw new IllegalArgumentException("Like count batch size, flush interval and rebuild chunk size must be positive");
+        }
+        this.likeCountDAO = likeCountDAO;
+        this.likeDAO = likeDAO;
+        this.multiStatementDAO = multiStatementDAO;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.rebuildChunkSize = rebuildChunkSize;
+        this.repairOnStartup = repairOnStartup;
+        this.flushedRows = meterRegistry.counter("likes.count.flushed");
+        this.failedFlushes = meterRegistry.counter("likes.count.flush.failed");
+        this.negativeCounts = meterRegistry.counter("likes.count.negative");
+    }
+
+    @PostConstruct
+    public void start() {
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "like-count-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flushScheduler != null) {
+            flushScheduler.shutdown();
+            flushScheduler.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        flushQuietly();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (repairOnStartup) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void recordToggle(long targetId, LikeStatus status) {
+        pendingDeltas.merge(targetId, status == LikeStatus.LIKED ? 1L : -1L, Long::sum);
+    }
+
+    @Override
+    public long getLikeCount(long targetId) {
+        Long stored = likeCountDAO.selectLikeCount(targetId);
+        long count = (stored == null ? 0 : stored) + pendingDeltas.getOrDefault(targetId, 0L);
+        if (count < 0) {
+            negativeCounts.increment();
+            log.warn("Like count of target {} drifted to {}, serving 0 until the counts are rebuilt", targetId, count);
+            return 0;
+        }
+        return count;
+    }
+
+    @Override
+    public void rebuild() {
+        Long maxTargetId = likeDAO.selectMaxTargetId();
+        if (maxTargetId == null) {
+            return;
+        }
+        for (long from = 0; from <= maxTargetId; from += rebuildChunkSize) {
+            rebuildRange(from, Math.min(from + rebuildChunkSize, maxTargetId + 1));
+        }
+        log.info("Like counts rebuilt for target ids up to {}", maxTargetId);
+    }
+
+    /**
+     * Recounts the range and takes back this node's pending deltas of it, which the recount already includes.
+     */
+    private void rebuildRange(long fromTargetId, long toTargetId) {
+        synchronized (flushLock) {
+            List<LikeCount> counted = new ArrayList<>();
+            pendingDeltas.forEach((targetId, delta) -> {
+                if (targetId >= fromTargetId && targetId < toTargetId && delta != 0) {
+                    counted.add(new LikeCount(targetId, -delta));
+                }
+            });
+            counted.sort((a, b) -> Long.compare(a.getTargetId(), b.getTargetId()));
+
+            multiStatementDAO.rebuildLikeCounts(fromTargetId, toTargetId);
+            for (int from = 0; from < counted.size(); from += batchSize) {
+                likeCountDAO.addLikeCounts(counted.subList(from, Math.min(from + batchSize, counted.size())));
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Like count flush failed, retrying next interval", e);
+        }
+    }
+
+    /**
+     * Writes and clears all pending deltas; deltas of a failed batch are put back.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            flushPending();
+        }
+    }
+
+    private void flushPending() {
+        List<LikeCount> deltas = new ArrayList<>();
+        for (Long targetId : pendingDeltas.keySet()) {
+            Long delta = pendingDeltas.remove(targetId);
+            if (delta != null && delta != 0) {
+                deltas.add(new LikeCount(targetId, delta));
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        deltas.sort((a, b) -> Long.compare(a.getTargetId(), b.getTargetId()));
+
+        RuntimeException failure = null;
+        for (int from = 0; from < deltas.size(); from += batchSize) {
+            List<LikeCount> batch = deltas.subList(from, Math.min(from + batchSize, deltas.size()));
+            try {
+                likeCountDAO.addLikeCounts(batch);
+                flushedRows.increment(batch.size());
+            } catch (RuntimeException e) {
+                failedFlushes.increment();
+                batch.forEach(delta -> pendingDeltas.merge(delta.getTargetId(), delta.getLikeCount(), Long::sum));
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.meet5.service.impl;
+
+import com.meet5.common.utils.LikeLogSegment;
+import com.meet5.common.utils.UtcClock;
+import com.meet5.dao.LikeLogDAO;
+import com.meet5.pojo.LikesLog;
+import com.meet5.service.LikeLogArchiveService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves aged {@code likes_log} rows out of MySQL into {@link LikeLogSegment} files under {@code directory}.
+ *
+ * <p>Every {@code interval-hours} the rows after the last archived id are read in id order, {@code fetch-size}
+ * at a time, up to the first row younger than {@code age-days}; {@code likes_log} only gets rows appended, so
+ * its ids follow time. Every {@code segment-rows} rows, and for the rest at the end, a segment is written and
+ * synced, and only then are its rows deleted from MySQL, {@code delete-chunk-size} per statement. Rows left in
+ * MySQL by a run that failed after writing their segment are deleted first thing in the next run.</p>
+ *
+ * <p>Segment file names carry their id range, and the highest archived id splits the history: reads take the
+ * ids up to it from the memory-mapped segments and the later ones from MySQL, so they return what the live
+ * table would have returned. The id is also written to {@code max-id} in the directory before any row is
+ * deleted, and a read whose archive changed while MySQL was queried is repeated, so a read never misses rows
+ * that were archived meanwhile.</p>
+ *
+ * <p>Run the job on one node, with any {@code likes_log} purge or partition retention longer than
+ * {@code age-days}. Every other node that serves history needs {@code read-only=true} and the same directory on
+ * shared storage: it never archives, and picks up new segments when {@code max-id} moves past the ones it
+ * has.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "likes.archive", name = "enabled", havingValue = "true")
+public class LikeLogArchiveServiceImpl implements LikeLogArchiveService {
+
+    private static final String SEGMENT_PREFIX = "likes_log-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String MAX_ID_FILE = "max-id";
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * The published segments and the highest id they hold, swapped as one so a read never sees a segment
+     * without its id bound or the other way round.
+     */
+    private record Archive(List<LikeLogSegment> segments, long maxId) {
+    }
+
+    private final LikeLogDAO likeLogDAO;
+    private final Path directory;
+    private final int ageDays;
+    private final int segmentRows;
+    private final int blockRows;
+    private final int fetchSize;
+    private final int deleteChunkSize;
+    private final long intervalHours;
+    private final boolean readOnly;
+
+    private volatile Archive archive = new Archive(List.of(), 0);
+    private ScheduledExecutorService archiveScheduler;
+
+    @Autowired
+    public LikeLogArchiveServiceImpl(LikeLogDAO likeLogDAO,
+                                     @Value("${likes.archive.directory:archive/likes_log}") String directory,
+                                     @Value("${likes.archive.age-days:30}") int ageDays,
+                                     @Value("${likes.archive.segment-rows:100000}") int segmentRows,
+                                     @Value("${likes.archive.block-rows:4096}") int blockRows,
+                                     @Value("${likes.archive.fetch-size:5000}") int fetchSize,
+                                     @Value("${likes.archive.delete-chunk-size:5000}") int deleteChunkSize,
+                                     @Value("${likes.archive.interval-hours:24}") long intervalHours,
+                                     @Value("${likes.archive.read-only:false}") boolean readOnly) {
+        if (ageDays <= 0 || segmentRows <= 0 || blockRows <= 0 || fetchSize <= 0 || deleteChunkSize <= 0
+                || intervalHours <= 0) {
+            throw new IllegalArgumentException("Like log archive age, sizes and interval must be positive");
+        }
+        this.likeLogDAO = likeLogDAO;
+        this.directory = Paths.get(directory);
+        this.ageDays = ageDays;
+        this.segmentRows = segmentRows;
+        this.blockRows = blockRows;
+        this.fetchSize = fetchSize;
+        this.deleteChunkSize = deleteChunkSize;
+        this.intervalHours = intervalHours;
+        this.readOnly = readOnly;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        loadSegments();
+        if (readOnly) {
+            return;
+        }
+        publishMaxId(archive.maxId());
+        archiveScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "likes-log-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        archiveScheduler.scheduleWithFixedDelay(this::archiveQuietly, intervalHours, intervalHours, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (archiveScheduler != null) {
+            archiveScheduler.shutdown();
+            archiveScheduler.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Opens the segments after the ones already loaded and publishes them.
+     */
+    private synchronized void loadSegments() throws IOException {
+        Files.createDirectories(directory);
+        Archive previous = archive;
+        List<LikeLogSegment> segments = new ArrayList<>(previous.segments());
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long minId = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), SEGMENT_PREFIX.length() + 20));
+                if (minId > previous.maxId()) {
+                    segments.add(LikeLogSegment.open(file));
+                }
+            }
+        }
+        segments.sort(Comparator.comparingLong(LikeLogSegment::getMinId));
+        long maxId = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).getMaxId();
+        archive = new Archive(List.copyOf(segments), maxId);
+        log.info("Loaded {} likes_log segments up to id {}", segments.size() - previous.segments().size(), maxId);
+    }
+
+    @Override
+    public synchronized long archive() {
+        if (readOnly) {
+            throw new IllegalStateException("likes_log is archived by another node");
+        }
+        long afterId = archive.maxId();
+        publishMaxId(afterId);
+        deleteArchived(afterId);
+
+        LocalDateTime cutoff = UtcClock.now().minusDays(ageDays);
+        List<LikesLog> pending = new ArrayList<>();
+        long archived = 0;
+        boolean reachedCutoff = false;
+        while (!reachedCutoff) {
+            List<LikesLog> rows = likeLogDAO.selectRowsAfter(afterId, fetchSize);
+            for (LikesLog row : rows) {
+                if (!row.getCreatedTime().isBefore(cutoff)) {
+                    reachedCutoff = true;
+                    break;
+                }
+                pending.add(row);
+                afterId = row.getId();
+                if (pending.size() == segmentRows) {
+                    archived += flush(pending);
+                }
+            }
+            if (rows.size() < fetchSize) {
+                break;
+            }
+        }
+        if (!pending.isEmpty()) {
+            archived += flush(pending);
+        }
+        return archived;
+    }
+
+    @Override
+    public List<LikesLog> findHistory(long likerId, LocalDateTime from, LocalDateTime to) {
+        while (true) {
+            Archive current = currentArchive();
+            List<LikesLog> history = new ArrayList<>();
+            for (LikeLogSegment segment : current.segments()) {
+                segment.find(likerId, from, to, history::add);
+            }
+            history.sort(Comparator.comparing(LikesLog::getId));
+            history.addAll(likeLogDAO.selectByLiker(likerId, current.maxId(), from, to));
+            // Rows are deleted only after their segment is published, so if the archive is unchanged none of
+            // the rows after its id were deleted before MySQL returned them.
+            if (currentArchive() == current) {
+                return history;
+            }
+        }
+    }
+
+    /**
+     * The published archive, after loading the segments another node has added if this one is read-only.
+     */
+    private Archive currentArchive() {
+        if (readOnly && readMaxId() > archive.maxId()) {
+            try {
+                loadSegments();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot load likes_log segments from " + directory, e);
+            }
+        }
+        return archive;
+    }
+
+    private long readMaxId() {
+        try {
+            return Long.parseLong(Files.readString(directory.resolve(MAX_ID_FILE)).trim());
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the archived likes_log id from " + directory, e);
+        }
+    }
+
+    /**
+     * Replaces {@code max-id} in one rename, so readers see either the old or the new id.
+     */
+    private void publishMaxId(long maxId) {
+        Path file = directory.resolve(MAX_ID_FILE);
+        Path temp = directory.resolve(MAX_ID_FILE + ".tmp");
+        try {
+            Files.writeString(temp, String.valueOf(maxId));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot publish the archived likes_log id to " + directory, e);
+        }
+    }
+
+    private void archiveQuietly() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            log.warn("Archiving likes_log failed, retrying next interval", e);
+        }
+    }
+
+    private long flush(List<LikesLog> pending) {
+        long minId = pending.get(0).getId();
+        long maxId = pending.get(pending.size() - 1).getId();
+        Path file = directory.resolve(String.format("%s%020d-%020d%s", SEGMENT_PREFIX, minId, maxId, SEGMENT_SUFFIX));
+        try {
+            LikeLogSegment.write(file, pending, blockRows);
+            LikeLogSegment segment = LikeLogSegment.open(file);
+            Archive previous = archive;
+            List<LikeLogSegment> segments = new ArrayList<>(previous.segments());
+            segments.add(segment);
+            archive = new Archive(List.copyOf(segments), maxId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write likes_log segment " + file, e);
+        }
+        publishMaxId(maxId);
+
+        int rows = pending.size();
+        pending.clear();
+        long deleted = deleteArchived(maxId);
+        log.info("Archived {} likes_log rows up to id {} into {}, deleted {}", rows, maxId, file.getFileName(), deleted);
+        return rows;
+    }
+
+    private long deleteArchived(long toId) {
+        if (toId <= 0) {
+            return 0;
+        }
+        long deleted = 0;
+        int rows;
+        do {
+            rows = likeLogDAO.deleteUpTo(toId, deleteChunkSize);
+            deleted += rows;
+        } while (rows == deleteChunkSize);
+        return deleted;
+    }
+}
@@ -0,0 +1,265 @@
+package com.meet5.service.impl;
+
+import com.meet5.common.enums.LikeStatus;
+import com.meet5.dao.LikeDAO;
+import com.meet5.dao.LikeLogDAO;
+import com.meet5.pojo.LikesLog;
+import com.meet5.service.LikeStateService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-liker like-state index: one Redis set per liker holding the ids of the profiles it currently likes.
+ *
+ * <p>Toggles only update sets that already exist; a missing set is built from {@code likes} on the next
+ * read, so a set never looks complete while it is only partly populated. A marker member tells a built set
+ * of a liker without likes apart from a missing one. Likers with more than {@code max-entries} likes are
+ * not indexed and are answered from MySQL; their set holds only a not-indexed marker, so reads go straight
+ * to MySQL until it expires instead of counting their likes again on every call.</p>
+ *
+ * <p>A toggle that races with a build, or that happened on a node without the index, can leave a set
+ * stale. Every {@code reconcile-interval-ms} the likers that appear in new {@code likes_log} rows have their
+ * sets rebuilt. Each run re-reads the rows of the previous interval too, so a toggle whose transaction
+ * committed after a later one is still picked up.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "likes.state", name = "enabled", havingValue = "true")
+public class LikeStateServiceImpl implements LikeStateService {
+
+    private static final String LIKE_STATE_PREFIX = "like:state:";
+
+    /**
+     * Never a valid target id.
+     */
+    private static final String BUILT_MARKER = "-";
+
+    /**
+     * Never a valid target id either; the liker has too many likes to be indexed.
+     */
+    private static final String UNINDEXED_MARKER = "+";
+
+    private static final int RECONCILE_PAGE_SIZE = 1000;
+
+    private static final String LUA_RECORD_TOGGLE =
+            //    KEYS[1]=index   ARGV[1]=targetId   ARGV[2]=1 liked, 0 cancelled   ARGV[3]=not-indexed marker
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end;"
+                    +
+                    "if redis.call('SISMEMBER', KEYS[1], ARGV[3]) == 1 then return 0 end;"
+                    +
+                    "if ARGV[2] == '1' then redis.call('SADD', KEYS[1], ARGV[1]);"
+                    +
+                    "else redis.call('SREM', KEYS[1], ARGV[1]); end;"
+                    +
+                    "return 1;";
+
+    private final JedisPooled jedisPooled;
+    private final LikeDAO likeDAO;
+    private final LikeLogDAO likeLogDAO;
+    private final int maxEntries;
+    private final long ttlSeconds;
+    private final long reconcileIntervalMillis;
+
+    private volatile String scriptSha;
+
+    private ScheduledExecutorService reconcileScheduler;
+
+    /**
+     * {@code likes_log} ids up to which the run before the last one read; the next run starts here.
+     */
+    private long reconcileFromId;
+    private long lastReconciledId;
+
+    @Autowired
+    public LikeStateServiceImpl(JedisPooled jedisPooled,
+                                LikeDAO likeDAO,
+                                LikeLogDAO likeLogDAO,
+                                @Value("${likes.state.max-entries:10000}") int maxEntries,
+                                @Value("${likes.state.ttl-seconds:86400}") long ttlSeconds,
+                                @Value("${likes.state.reconcile-interval-ms:60000}") long reconcileIntervalMillis) {
+        if (maxEntries <= 0 || ttlSeconds <= 0 || reconcileIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Like state max entries, TTL and reconcile interval must be positive");
+        }
+        this.jedisPooled = jedisPooled;
+        this.likeDAO = likeDAO;
+        this.likeLogDAO = likeLogDAO;
+        this.maxEntries = maxEntries;
+        this.ttlSeconds = ttlSeconds;
+        this.reconcileIntervalMillis = reconcileIntervalMillis;
+        this.scriptSha = jedisPooled.scriptLoad(LUA_RECORD_TOGGLE);
+    }
+
+    @PostConstruct
+    public void start() {
+        Long maxId = likeLogDAO.selectMaxId();
+        reconcileFromId = maxId == null ? 0 : maxId;
+        lastReconciledId = reconcileFromId;
+        reconcileScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "like-state-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconcileScheduler.scheduleWithFixedDelay(this::reconcileQuietly,
+                reconcileIntervalMillis, reconcileIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reconcileScheduler != null) {
+            reconcileScheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public void recordToggle(long likerId, long targetId, LikeStatus status) {
+        List<String> keys = Collections.singletonList(stateKey(likerId));
+        List<String> args = Arrays.asList(String.valueOf(targetId), status == LikeStatus.LIKED ? "1" : "0",
+                UNINDEXED_MARKER);
+        try {
+            try {
+                jedisPooled.evalsha(scriptSha, keys, args);
+            } catch (JedisNoScriptException e) {
+                scriptSha = jedisPooled.scriptLoad(LUA_RECORD_TOGGLE);
+                jedisPooled.evalsha(scriptSha, keys, args);
+            }
+        } catch (JedisException e) {
+            // MySQL stays the source of truth; dropping the index forces a rebuild instead of serving a stale state.
+            log.warn("Failed to update like state of user {}, invalidating it", likerId, e);
+            invalidate(likerId);
+        }
+    }
+
+    @Override
+    public Map<Long, Boolean> findLikeStates(long likerId, List<Long> targetIds) {
+        if (targetIds.isEmpty()) {
+            return Map.of();
+        }
+
+        String[] members = new String[targetIds.size() + 2];
+        members[0] = BUILT_MARKER;
+        members[1] = UNINDEXED_MARKER;
+        for (int i = 0; i < targetIds.size(); i++) {
+            members[i + 2] = String.valueOf(targetIds.get(i));
+        }
+
+        List<Boolean> found;
+        try {
+            found = jedisPooled.smismember(stateKey(likerId), members);
+        } catch (JedisException e) {
+            log.warn("Failed to read like state of user {}, falling back to MySQL", likerId, e);
+            return toStates(targetIds, new HashSet<>(likeDAO.selectLikedTargetIds(likerId, targetIds, null)));
+        }
+
+        if (found.get(1)) {
+            return toStates(targetIds, new HashSet<>(likeDAO.selectLikedTargetIds(likerId, targetIds, null)));
+        }
+        if (found.get(0)) {
+            Map<Long, Boolean> states = new LinkedHashMap<>();
+            for (int i = 0; i < targetIds.size(); i++) {
+                states.putIfAbsent(targetIds.get(i), found.get(i + 2));
+            }
+            return states;
+        }
+
+        List<Long> likedTargets = rebuild(likerId);
+        if (likedTargets == null) {
+            return toStates(targetIds, new HashSet<>(likeDAO.selectLikedTargetIds(likerId, targetIds, null)));
+        }
+        return toStates(targetIds, new HashSet<>(likedTargets));
+    }
+
+    /**
+     * Replaces the liker's set with the likes in MySQL, or with the not-indexed marker if there are too many.
+     *
+     * @return the liked target ids, or {@code null} if the liker has too many likes to be indexed
+     */
+    private List<Long> rebuild(long likerId) {
+        List<Long> likedTargets = likeDAO.selectLikedTargetIds(likerId, null, maxEntries + 1);
+        String[] members;
+        if (likedTargets.size() > maxEntries) {
+            members = new String[]{UNINDEXED_MARKER};
+        } else {
+            members = new String[likedTargets.size() + 1];
+            members[0] = BUILT_MARKER;
+            for (int i = 0; i < likedTargets.size(); i++) {
+                members[i + 1] = String.valueOf(likedTargets.get(i));
+            }
+        }
+        String key = stateKey(likerId);
+        try (Pipeline pipeline = jedisPooled.pipelined()) {
+            pipeline.del(key);
+            pipeline.sadd(key, members);
+            pipeline.expire(key, ttlSeconds);
+        } catch (JedisException e) {
+            log.warn("Failed to rebuild like state of user {}", likerId, e);
+        }
+        return likedTargets.size() > maxEntries ? null : likedTargets;
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Like state reconciliation failed, retrying next interval", e);
+        }
+    }
+
+    /**
+     * Rebuilds the existing sets of the likers that toggled since the run before the last one. A not-indexed
+     * liker is counted again too, so one that dropped below {@code max-entries} is indexed again.
+     */
+    public void reconcile() {
+        Set<Long> likerIds = new HashSet<>();
+        long afterId = reconcileFromId;
+        List<LikesLog> page;
+        do {
+            page = likeLogDAO.selectLikersAfter(afterId, RECONCILE_PAGE_SIZE);
+            for (LikesLog likesLog : page) {
+                likerIds.add(likesLog.getLikerId());
+                afterId = likesLog.getId();
+            }
+        } while (page.size() == RECONCILE_PAGE_SIZE);
+
+        for (Long likerId : likerIds) {
+            if (jedisPooled.exists(stateKey(likerId))) {
+                rebuild(likerId);
+            }
+        }
+        reconcileFromId = lastReconciledId;
+        lastReconciledId = afterId;
+    }
+
+    private void invalidate(long likerId) {
+        try {
+            jedisPooled.del(stateKey(likerId));
+        } catch (JedisException e) {
+            log.warn("Failed to invalidate like state of user {}", likerId, e);
+        }
+    }
+
+    private static Map<Long, Boolean> toStates(List<Long> targetIds, Set<Long> likedTargets) {
+        Map<Long, Boolean> states = new LinkedHashMap<>();
+        for (Long targetId : targetIds) {
+            states.putIfAbsent(targetId, likedTargets.contains(targetId));
+        }
+        return states;
+    }
+
+    private static String stateKey(long likerId) {
+        return LIKE_STATE_PREFIX + likerId;
+    }
+}
@@ -0,0 +1,141 @@
+package com.meet5.service.impl;
+
+import com.meet5.dao.PartitionDAO;
+import com.meet5.pojo.MonthlyPartition;
+import com.meet5.service.PartitionMaintenanceService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rotates the monthly partitions of {@code visits} and {@code likes_log} (migration 005).
+ *
+ * <p>At startup and then every {@code interval-hours}, each table gets a partition for every month up to
+ * {@code months-ahead} months from now, split off the empty {@code p_future}, and loses the partitions of months
+ * before the last {@code retention-months} full months. Dropping a partition is a metadata change, unlike a
+ * {@code DELETE} of the same rows. Partition names encode their month ({@code pYYYYMM}), so the job does not depend
+ * on the time zone the bounds were computed in.</p>
+ *
+ * <p>Enable it on one node; a concurrent run on another node fails its DDL, logs it and catches up next time.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "partition.maintenance", name = "enabled", havingValue = "true")
+public class PartitionMaintenanceServiceImpl implements PartitionMaintenanceService {
+
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final DateTimeFormatter MONTH_START = DateTimeFormatter.ofPattern("yyyy-MM-'01 00:00:00'");
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final PartitionDAO partitionDAO;
+    private final Map<String, Integer> retentionMonths = new LinkedHashMap<>();
+    private final int monthsAhead;
+    private final long intervalHours;
+
+    private ScheduledExecutorService maintenanceScheduler;
+
+    @Autowired
+    public PartitionMaintenanceServiceImpl(PartitionDAO partitionDAO,
+                                           @Value("${partition.maintenance.months-ahead:3}") int monthsAhead,
+                                           @Value("${partition.maintenance.visits-retention-months:3}") int visitsRetentionMonths,
+                                           @Value("${partition.maintenance.likes-log-retention-months:12}") int likesLogRetentionMonths,
+                                           @Value("${partition.maintenance.interval-hours:24}") long intervalHours) {
+        if (monthsAhead <= 0 || visitsRetentionMonths <= 0 || likesLogRetentionMonths <= 0 || intervalHours <= 0) {
+            throw new IllegalArgumentException("Partition months ahead, retention and interval must be positive");
+        }
+        this.partitionDAO = partitionDAO;
+        this.monthsAhead = monthsAhead;
+        this.intervalHours = intervalHours;
+        retentionMonths.put("visits", visitsRetentionMonths);
+        retentionMonths.put("likes_log", likesLogRetentionMonths);
+    }
+
+    @PostConstruct
+    public void start() {
+        maintenanceScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "partition-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenanceScheduler.scheduleWithFixedDelay(this::maintainQuietly, 0, intervalHours, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (maintenanceScheduler != null) {
+            maintenanceScheduler.shutdown();
+            maintenanceScheduler.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void maintain() {
+        YearMonth currentMonth = YearMonth.now();
+        retentionMonths.forEach((table, retention) -> maintain(table, retention, currentMonth));
+    }
+
+    private void maintainQuietly() {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            log.warn("Partition maintenance failed, retrying next interval", e);
+        }
+    }
+
+    private void maintain(String table, int retention, YearMonth currentMonth) {
+        List<String> names = partitionDAO.selectPartitionNames(table);
+        List<YearMonth> months = new ArrayList<>(names.size());
+        for (String name : names) {
+            if (FUTURE_PARTITION.equals(name)) {
+                continue;
+            }
+            try {
+                months.add(YearMonth.parse(name, PARTITION_NAME));
+            } catch (DateTimeParseException e) {
+                log.warn("Table {} has partition {} outside the monthly scheme, skipping it", table, name);
+                return;
+            }
+        }
+        if (months.isEmpty() || !names.contains(FUTURE_PARTITION)) {
+            log.warn("Table {} is not partitioned by month, skipping it; see migration 005", table);
+            return;
+        }
+
+        YearMonth lastMonth = months.get(months.size() - 1);
+        List<MonthlyPartition> created = new ArrayList<>();
+        for (YearMonth month = lastMonth.plusMonths(1); !month.isAfter(currentMonth.plusMonths(monthsAhead));
+             month = month.plusMonths(1)) {
+            created.add(new MonthlyPartition(month.format(PARTITION_NAME), month.plusMonths(1).format(MONTH_START)));
+        }
+        if (!created.isEmpty()) {
+            partitionDAO.splitFuturePartition(table, created);
+            log.info("Created partitions {} of {}", created.stream().map(MonthlyPartition::getName).toList(), table);
+        }
+
+        YearMonth oldestKept = currentMonth.minusMonths(retention);
+        List<String> expired = months.stream()
+                .filter(month -> month.isBefore(oldestKept))
+                .map(month -> month.format(PARTITION_NAME))
+                .toList();
+        if (!expired.isEmpty()) {
+            partitionDAO.dropPartitions(table, expired);
+            log.info("Dropped partitions {} of {}", expired, table);
+        }
+    }
+}
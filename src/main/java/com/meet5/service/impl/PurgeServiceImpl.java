@@ -0,0 +1,309 @@
+package com.meet5.service.impl;
+
+import com.meet5.common.enums.LikeStatus;
+import com.meet5.common.utils.UtcClock;
+import com.meet5.config.BatchInsertConfig;
+import com.meet5.config.PurgeProperties;
+import com.meet5.dao.PurgeDAO;
+import com.meet5.pojo.PurgeChunk;
+import com.meet5.service.PurgeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes interaction rows past retention in small primary-key ranges, for tables that are not partitioned
+ * (migration 005 makes {@code visits} and {@code likes_log} cheaper to rotate) and for canceled {@code likes},
+ * which cannot be partitioned by time.
+ *
+ * <p>Every {@code interval-minutes} each table in {@code retention-days} is walked in id order from its checkpoint
+ * up to the largest id seen at the start of the run. Each chunk deletes the expired rows of the next ids and
+ * saves the checkpoint in one transaction, so a restart resumes after the last committed chunk. Chunks take one
+ * of the batch insert connection permits, so purges and imports together never hold more connections than
+ * those permits allow.</p>
+ *
+ * <p>Like {@link BatchInsertServiceImpl}, the chunk size follows AIMD on the statement latency: it grows by
+ * {@code chunk-size-step} after a chunk within {@code target-chunk-latency-ms} and halves after a slow or failed
+ * one. The pause between chunks doubles after a slow chunk, up to {@code max-pause-ms}, and halves back to
+ * {@code pause-ms} after fast ones, so the purge backs off while the database is busy serving requests.</p>
+ *
+ * <p>{@code visits} and {@code likes_log} only get rows appended, so their ids follow time: a run stops at the
+ * first chunk that still holds rows within retention and the checkpoint stays before it. {@code likes} rows are
+ * updated in place, so every run walks the whole table and the checkpoint returns to the start after it.</p>
+ *
+ * <p>It may be enabled on every node: a run first takes the MySQL named lock {@code meet5.purge} without waiting
+ * and is skipped when another node holds it, so two nodes never walk the same ids. The lock belongs to a
+ * connection held for the whole run, outside the permits, and is released with it if the node dies.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "purge", name = "enabled", havingValue = "true")
+public class PurgeServiceImpl implements PurgeService {
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private static final String PURGE_LOCK = "meet5.purge";
+
+    private enum PurgeTable {
+        VISITS("visits", "visited_time", null, true),
+        LIKES_LOG("likes_log", "created_time", null, true),
+        LIKES("likes", "updated_time", LikeStatus.CANCELED.getCode(), false);
+
+        private final String table;
+        private final String timeColumn;
+        private final Integer status;
+        private final boolean appendOnly;
+
+        PurgeTable(String table, String timeColumn, Integer status, boolean appendOnly) {
+            this.table = table;
+            this.timeColumn = timeColumn;
+            this.status = status;
+            this.appendOnly = appendOnly;
+        }
+    }
+
+    private final PurgeDAO purgeDAO;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore purgePermits;
+    private final PurgeProperties purgeProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<PurgeTable, Integer> retentionDays = new EnumMap<>(PurgeTable.class);
+    private final Map<PurgeTable, AtomicLong> rowsPerSecond = new EnumMap<>(PurgeTable.class);
+    private final AtomicLong currentPauseMillis = new AtomicLong();
+
+    private int chunkSize;
+    private volatile boolean running = true;
+    private ScheduledExecutorService purgeScheduler;
+
+    @Autowired
+    public PurgeServiceImpl(PurgeDAO purgeDAO,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Qualifier(BatchInsertConfig.BATCH_INSERT_PERMITS) Semaphore purgePermits,
+                            PurgeProperties purgeProperties,
+                            MeterRegistry meterRegistry) {
+        if (purgeProperties.getMinChunkSize() <= 0 || purgeProperties.getMaxChunkSize() < purgeProperties.getMinChunkSize()
+                || purgeProperties.getIntervalMinutes() <= 0 || purgeProperties.getMaxAttempts() <= 0) {
+            throw new IllegalArgumentException("Invalid purge chunk size, interval or attempts");
+        }
+        this.purgeDAO = purgeDAO;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.purgePermits = purgePermits;
+        this.purgeProperties = purgeProperties;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = purgeProperties.getMaxChunkSize();
+        this.currentPauseMillis.set(purgeProperties.getPauseMs());
+
+        for (Map.Entry<String, Integer> retention : purgeProperties.getRetentionDays().entrySet()) {
+            PurgeTable table = Arrays.stream(PurgeTable.values())
+                    .filter(t -> t.table.equals(retention.getKey()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Cannot purge table " + retention.getKey()));
+            if (retention.getValue() == null || retention.getValue() <= 0) {
+                throw new IllegalArgumentException("Retention of " + retention.getKey() + " must be positive");
+            }
+            retentionDays.put(table, retention.getValue());
+            rowsPerSecond.put(table, meterRegistry.gauge("purge.rows.per.second", Tags.of("table", table.table),
+                    new AtomicLong(), AtomicLong::get));
+        }
+        meterRegistry.gauge("purge.pause.ms", currentPauseMillis, AtomicLong::get);
+    }
+
+    @PostConstruct
+    public void start() {
+        purgeScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "retention-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = purgeProperties.getIntervalMinutes();
+        purgeScheduler.scheduleWithFixedDelay(this::purgeQuietly, interval, interval, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (purgeScheduler != null) {
+            purgeScheduler.shutdownNow();
+            purgeScheduler.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public long purge() {
+        Long deleted = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            if (!namedLock(connection, "SELECT GET_LOCK(?, 0)")) {
+                log.info("Retention purge is running on another node, skipping this interval");
+                return 0L;
+            }
+            try {
+                return purgeTables();
+            } finally {
+                namedLock(connection, "SELECT RELEASE_LOCK(?)");
+            }
+        });
+        return deleted == null ? 0 : deleted;
+    }
+
+    private static boolean namedLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, PURGE_LOCK);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getInt(1) == 1;
+            }
+        }
+    }
+
+    private long purgeTables() {
+        long deleted = 0;
+        for (Map.Entry<PurgeTable, Integer> retention : retentionDays.entrySet()) {
+            if (!running) {
+                break;
+            }
+            deleted += purge(retention.getKey(), UtcClock.now().minusDays(retention.getValue()));
+        }
+        return deleted;
+    }
+
+    private void purgeQuietly() {
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            log.warn("Retention purge failed, resuming from the checkpoint next interval", e);
+        }
+    }
+
+    private long purge(PurgeTable table, LocalDateTime cutoff) {
+        Long maxId = purgeDAO.selectMaxId(table.table);
+        Long checkpoint = purgeDAO.selectCheckpoint(table.table);
+        long afterId = checkpoint == null ? 0 : checkpoint;
+        if (maxId == null) {
+            return 0;
+        }
+
+        long started = System.nanoTime();
+        long deleted = 0;
+        boolean completed = true;
+        while (running) {
+            PurgeChunk chunk = purgeDAO.selectChunk(table.table, afterId, maxId, chunkSize);
+            if (chunk == null || chunk.getRowCount() == 0) {
+                break;
+            }
+            int rows = deleteWithRetry(table, cutoff, afterId, chunk);
+            deleted += rows;
+            if (table.appendOnly && rows < chunk.getRowCount()) {
+                completed = false;
+                break;
+            }
+            afterId = chunk.getEndId();
+            if (!pause()) {
+                completed = false;
+                break;
+            }
+        }
+
+        if (!running) {
+            completed = false;
+        }
+        if (completed && !table.appendOnly) {
+            purgeDAO.saveCheckpoint(table.table, 0);
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        if (elapsedNanos > 0) {
+            rowsPerSecond.get(table).set(Math.round(deleted * 1e9 / elapsedNanos));
+        }
+        if (deleted > 0) {
+            log.info("Purged {} rows of {} older than {}", deleted, table.table, cutoff);
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes the chunk's expired rows and moves the checkpoint past it in one transaction; for an append-only
+     * table the checkpoint only moves when every row of the chunk was expired.
+     */
+    private int deleteWithRetry(PurgeTable table, LocalDateTime cutoff, long afterId, PurgeChunk chunk) {
+        RuntimeException lastError = null;
+        for (int attempt = 1; attempt <= purgeProperties.getMaxAttempts(); attempt++) {
+            purgePermits.acquireUninterruptibly();
+            long begin = System.nanoTime();
+            try {
+                Integer rows = transactionTemplate.execute(status -> {
+                    int deleted = purgeDAO.deleteExpired(table.table, table.timeColumn, afterId, chunk.getEndId(),
+                            cutoff, table.status);
+                    if (!table.appendOnly || deleted == chunk.getRowCount()) {
+                        purgeDAO.saveCheckpoint(table.table, chunk.getEndId());
+                    }
+                    return deleted;
+                });
+                long elapsed = System.nanoTime() - begin;
+                meterRegistry.timer("purge.chunk.latency", "table", table.table).record(elapsed, TimeUnit.NANOSECONDS);
+                meterRegistry.counter("purge.rows.deleted", "table", table.table).increment(rows == null ? 0 : rows);
+                adapt(TimeUnit.NANOSECONDS.toMillis(elapsed) <= purgeProperties.getTargetChunkLatencyMs());
+                return rows == null ? 0 : rows;
+            } catch (RuntimeException e) {
+                lastError = e;
+                adapt(false);
+                log.warn("Purging {} ids ({}, {}] failed, attempt {}/{}", table.table, afterId, chunk.getEndId(),
+                        attempt, purgeProperties.getMaxAttempts(), e);
+            } finally {
+                purgePermits.release();
+            }
+            // Back off without holding the permit.
+            if (attempt < purgeProperties.getMaxAttempts() && !sleep(purgeProperties.getRetryBackoffMs() * attempt)) {
+                break;
+            }
+        }
+        throw lastError;
+    }
+
+    private void adapt(boolean withinTarget) {
+        int next = withinTarget ? chunkSize + purgeProperties.getChunkSizeStep() : chunkSize / 2;
+        chunkSize = Math.max(purgeProperties.getMinChunkSize(), Math.min(purgeProperties.getMaxChunkSize(), next));
+
+        long pause = currentPauseMillis.get();
+        long nextPause = withinTarget ? pause / 2 : Math.max(1, pause * 2);
+        currentPauseMillis.set(Math.max(purgeProperties.getPauseMs(), Math.min(purgeProperties.getMaxPauseMs(), nextPause)));
+    }
+
+    private boolean pause() {
+        return sleep(currentPauseMillis.get());
+    }
+
+    private boolean sleep(long millis) {
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
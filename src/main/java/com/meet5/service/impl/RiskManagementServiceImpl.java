@@ -1,60 +1,390 @@
 package com.meet5.service.impl;
 
+import com.meet5.common.enums.OperationType;
+import com.meet5.common.redis.RedisScriptBatcher;
+import com.meet5.config.RiskProperties;
 import com.meet5.service.RiskManagementService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.exceptions.JedisNoScriptException;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-
-import static com.meet5.common.constants.Constants.EXPIRE_SECONDS;
-import static com.meet5.common.constants.Constants.LIMIT_COUNT;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
 
 
+/**
+ * Per-user operation counters in Redis.
+ *
+ * <p>With {@code risk.hybrid.enabled=true} operations are first counted in memory and flushed to Redis in
+ * one pipeline every {@code risk.hybrid.flush-interval-millis}. A check only goes to Redis once the last
+ * total Redis reported plus the unflushed local count reaches {@code limit - margin}; from then on every
+ * operation of that user is checked exactly until its window drains again.</p>
+ *
+ * <p>Accuracy: on a single node the estimate equals the exact count (it can only over-estimate, since
+ * buckets that slid out are noticed at the next flush), so detection is exact. With several nodes an
+ * operation is missed only if the other nodes together hold more than {@code margin} unflushed operations
+ * of the same user, i.e. detection is late by at most the operations other nodes accepted within one
+ * flush interval beyond the margin. A failed flush keeps its counts locally and retries them next time.</p>
+ */
+@Slf4j
 @Service
 public class RiskManagementServiceImpl implements RiskManagementService {
 
     private final JedisPooled jedisPooled;
 
+    private final RiskProperties riskProperties;
+
+    /**
+     * Present only when {@code risk.batching.enabled=true}; coalesces concurrent checks into pipelines.
+     */
+    private final RedisScriptBatcher scriptBatcher;
+
+    /**
+     * Present only when {@code risk.hybrid.enabled=true}; unflushed operations per Redis key.
+     */
+    private final ConcurrentMap<String, LocalCount> localCounts;
+
+    private final Counter localChecks;
+    private final Counter redisChecks;
+
+    private ScheduledExecutorService flushScheduler;
+
+    private static final class LocalCount {
+        private final RiskProperties.Limit limit;
+        private final LongAdder pending = new LongAdder();
+        private volatile long lastKnownTotal;
+        private volatile long lastTouchedMillis = System.currentTimeMillis();
+
+        private LocalCount(RiskProperties.Limit limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * Takes the unflushed operations without losing increments that race with it.
+         */
+        private long drain() {
+            long delta = pending.sum();
+            if (delta != 0) {
+                pending.add(-delta);
+            }
+            return delta;
+        }
+    }
+
     @Autowired
-    public RiskManagementServiceImpl(JedisPooled jedisPooled) {
+    public RiskManagementServiceImpl(JedisPooled jedisPooled, RiskProperties riskProperties, MeterRegistry meterRegistry) {
         this.jedisPooled = jedisPooled;
-        this.scriptSha = jedisPooled.scriptLoad(LUA_COUNTER);
+        this.riskProperties = riskProperties;
+        this.scriptSha = jedisPooled.scriptLoad(LUA_SLIDING_WINDOW_COUNTER);
+        RiskProperties.Batching batching = riskProperties.getBatching();
+        this.scriptBatcher = batching.isEnabled()
+                ? new RedisScriptBatcher(jedisPooled, LUA_SLIDING_WINDOW_COUNTER, batching.getMaxBatchSize(),
+                batching.getMaxWaitMicros(), batching.getQueueCapacity(), batching.getDispatcherThreads())
+                : null;
+        this.localCounts = riskProperties.getHybrid().isEnabled() ? new ConcurrentHashMap<>() : null;
+        this.localChecks = meterRegistry.counter("risk.checks", "mode", "local");
+        this.redisChecks = meterRegistry.counter("risk.checks", "mode", "redis");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (localCounts == null) {
+            return;
+        }
+        long interval = riskProperties.getHybrid().getFlushIntervalMillis();
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "risk-counter-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler.scheduleWithFixedDelay(this::flushLocalCountsQuietly, interval, interval, TimeUnit.MILLISECONDS);
     }
 
     private static final String USER_OPERATION_PREFIX = "user:operation:";
 
 
-    private static final String LUA_COUNTER =
-            //          KEYS[1]            ARGV[1]=expireSec      ARGV[2]=limit
-            "local cnt = redis.call('INCR', KEYS[1]);"
+    /**
+     * Sliding window approximated by sub-window buckets kept as fields of one hash, so the memory per user
+     * is bounded by the number of buckets rather than the number of operations. Bucket ids come from the
+     * Redis clock so all nodes agree on the window boundaries. Keys left over from the former fixed-window
+     * counter are plain strings and are reset on first touch.
+     */
+    static final String LUA_SLIDING_WINDOW_COUNTER =
+            //          KEYS[1]            ARGV[1]=windowMs      ARGV[2]=bucketMs      ARGV[3]=increment
+            "local windowMs = tonumber(ARGV[1]);"
+                    +
+                    "local bucketMs = tonumber(ARGV[2]);"
+                    +
+                    "local increment = tonumber(ARGV[3]);"
+                    +
+                    "if redis.call('TYPE', KEYS[1]).ok == 'string' then redis.call('DEL', KEYS[1]); end;"
+                    +
+                    "local now = redis.call('TIME');"
+                    +
+                    "local nowMs = tonumber(now[1]) * 1000 + math.floor(tonumber(now[2]) / 1000);"
+                    +
+                    "local bucket = math.floor(nowMs / bucketMs);"
                     +
-                    "if cnt == 1 then redis.call('EXPIRE', KEYS[1], tonumber(ARGV[1])); end;"
+                    "local oldest = bucket - math.floor(windowMs / bucketMs) + 1;"
                     +
-                    "if cnt >= tonumber(ARGV[2]) then return 1 else return 0 end;";
+                    "if increment > 0 then redis.call('HINCRBY', KEYS[1], bucket, increment); end;"
+                    +
+                    "local fields = redis.call('HGETALL', KEYS[1]);"
+                    +
+                    "local total = 0;"
+                    +
+                    "for i = 1, #fields, 2 do"
+                    + "  if tonumber(fields[i]) < oldest then redis.call('HDEL', KEYS[1], fields[i]);"
+                    + "  else total = total + tonumber(fields[i + 1]); end;"
+                    + "end;"
+                    +
+                    "if total > 0 then redis.call('PEXPIRE', KEYS[1], windowMs); end;"
+                    +
+                    "return total;";
 
     private volatile String scriptSha;
 
 
     @Override
     public boolean checkSensitiveBehavior(Long userId) {
-        String key = USER_OPERATION_PREFIX + userId;
+        return check(USER_OPERATION_PREFIX + userId, riskProperties.getDefaults());
+    }
+
+    @Override
+    public boolean checkSensitiveBehavior(Long userId, OperationType operationType) {
+        return check(operationKey(userId, operationType), riskProperties.limitOf(operationType));
+    }
+
+    @Override
+    public Set<Long> checkSensitiveBehavior(Map<Long, Integer> operationsByUser, OperationType operationType) {
+        RiskProperties.Limit limit = riskProperties.limitOf(operationType);
+        Set<Long> sensitive = new HashSet<>();
+        if (localCounts != null) {
+            operationsByUser.forEach((userId, operations) -> {
+                if (check(operationKey(userId, operationType), limit, operations)) {
+                    sensitive.add(userId);
+                }
+            });
+            return sensitive;
+        }
+
+        List<Long> userIds = new ArrayList<>(operationsByUser.keySet());
+        List<String> keys = new ArrayList<>(userIds.size());
+        List<List<String>> args = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            keys.add(operationKey(userId, operationType));
+            args.add(scriptArgs(limit, operationsByUser.get(userId)));
+        }
+        List<Object> totals = evaluatePipelined(keys, args);
+        for (int i = 0; i < userIds.size(); i++) {
+            if (totals.get(i) instanceof Long total && total >= limit.getLimit()) {
+                sensitive.add(userIds.get(i));
+            }
+        }
+        return sensitive;
+    }
+
+    static String operationKey(Long userId, OperationType operationType) {
+        return USER_OPERATION_PREFIX + operationType.getKey() + ":" + userId;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (flushScheduler != null) {
+            flushScheduler.shutdown();
+            flushScheduler.awaitTermination(5, TimeUnit.SECONDS);
+            flushLocalCountsQuietly();
+        }
+        if (scriptBatcher != null) {
+            scriptBatcher.close();
+        }
+    }
+
+    /**
+     * Sends every key's unflushed operations to Redis in one pipeline and refreshes the known totals.
+     * Keys that saw no operation for a whole window are dropped.
+     */
+    public void flushLocalCounts() {
+        if (localCounts == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<String> keys = new ArrayList<>();
+        List<LocalCount> counts = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+
+        for (Map.Entry<String, LocalCount> entry : localCounts.entrySet()) {
+            LocalCount count = entry.getValue();
+            long delta = count.drain();
+            if (delta > 0) {
+                keys.add(entry.getKey());
+                counts.add(count);
+                deltas.add(delta);
+            } else if (now - count.lastTouchedMillis > count.limit.windowMillis()
+                    && localCounts.remove(entry.getKey(), count)) {
+                long late = count.drain();
+                if (late > 0) {
+                    localCounts.computeIfAbsent(entry.getKey(), k -> new LocalCount(count.limit)).pending.add(late);
+                }
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        List<Response<Object>> responses = new ArrayList<>(keys.size());
+        try (Pipeline pipeline = jedisPooled.pipelined()) {
+            for (int i = 0; i < keys.size(); i++) {
+                responses.add(pipeline.evalsha(scriptSha, Collections.singletonList(keys.get(i)),
+                        scriptArgs(counts.get(i).limit, deltas.get(i))));
+            }
+            pipeline.sync();
+        } catch (RuntimeException e) {
+            for (int i = 0; i < counts.size(); i++) {
+                counts.get(i).pending.add(deltas.get(i));
+            }
+            throw e;
+        }
+
+        boolean scriptMissing = false;
+        for (int i = 0; i < responses.size(); i++) {
+            try {
+                if (responses.get(i).get() instanceof Long total) {
+                    counts.get(i).lastKnownTotal = total;
+                }
+            } catch (RuntimeException e) {
+                scriptMissing |= e instanceof JedisNoScriptException;
+                counts.get(i).pending.add(deltas.get(i));
+            }
+        }
+        if (scriptMissing) {
+            scriptSha = jedisPooled.scriptLoad(LUA_SLIDING_WINDOW_COUNTER);
+        }
+    }
+
+    private void flushLocalCountsQuietly() {
+        try {
+            flushLocalCounts();
+        } catch (RuntimeException e) {
+            log.warn("Flushing local risk counters failed, keeping them for the next attempt", e);
+        }
+    }
+
+    private boolean check(String key, RiskProperties.Limit limit) {
+        return check(key, limit, 1);
+    }
+
+    private boolean check(String key, RiskProperties.Limit limit, int operations) {
+        if (localCounts == null) {
+            return evaluate(key, limit, operations) >= limit.getLimit();
+        }
+
+        LocalCount count = localCounts.computeIfAbsent(key, k -> new LocalCount(limit));
+        count.pending.add(operations);
+        count.lastTouchedMillis = System.currentTimeMillis();
+        if (count.lastKnownTotal + count.pending.sum() < limit.getLimit() - riskProperties.getHybrid().getMargin()) {
+            localChecks.increment();
+            return false;
+        }
+
+        // Near the limit: hand everything counted so far to Redis and use the exact total.
+        long delta = count.drain();
+        long total;
+        try {
+            total = evaluate(key, limit, delta);
+        } catch (RuntimeException e) {
+            count.pending.add(delta);
+            throw e;
+        }
+        count.lastKnownTotal = total;
+        return total >= limit.getLimit();
+    }
+
+    private long evaluate(String key, RiskProperties.Limit limit, long increment) {
+        redisChecks.increment();
         List<String> keys = Collections.singletonList(key);
-        List<String> args = Arrays.asList(
-                String.valueOf(EXPIRE_SECONDS),
-                String.valueOf(LIMIT_COUNT));
+        List<String> args = scriptArgs(limit, increment);
+
+        Object result = scriptBatcher != null
+                ? evalBatched(keys, args)
+                : eval(keys, args);
+
+        return result instanceof Long total ? total : 0;
+    }
+
+    static List<String> scriptArgs(RiskProperties.Limit limit, long increment) {
+        return Arrays.asList(
+                String.valueOf(limit.windowMillis()),
+                String.valueOf(limit.subWindowMillis()),
+                String.valueOf(increment));
+    }
+
+    /**
+     * Evaluates the script once per key in a single pipeline; calls that hit {@code NOSCRIPT} are re-sent
+     * once after reloading the script.
+     */
+    private List<Object> evaluatePipelined(List<String> keys, List<List<String>> args) {
+        redisChecks.increment(keys.size());
+        List<Object> results = new ArrayList<>(Collections.nCopies(keys.size(), null));
+        List<Integer> pending = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            pending.add(i);
+        }
+
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            List<Response<Object>> responses = new ArrayList<>(pending.size());
+            try (Pipeline pipeline = jedisPooled.pipelined()) {
+                for (int i : pending) {
+                    responses.add(pipeline.evalsha(scriptSha, Collections.singletonList(keys.get(i)), args.get(i)));
+                }
+                pipeline.sync();
+            }
+
+            List<Integer> missingScript = new ArrayList<>();
+            for (int j = 0; j < pending.size(); j++) {
+                try {
+                    results.set(pending.get(j), responses.get(j).get());
+                } catch (JedisNoScriptException e) {
+                    if (attempt > 1) {
+                        throw e;
+                    }
+                    missingScript.add(pending.get(j));
+                }
+            }
+            if (!missingScript.isEmpty()) {
+                scriptSha = jedisPooled.scriptLoad(LUA_SLIDING_WINDOW_COUNTER);
+            }
+            pending = missingScript;
+        }
+        return results;
+    }
 
-        Object result;
+    private Object eval(List<String> keys, List<String> args) {
         try {
-            result = jedisPooled.evalsha(scriptSha, keys, args);
+            return jedisPooled.evalsha(scriptSha, keys, args);
         } catch (JedisNoScriptException e) {
-            scriptSha = jedisPooled.scriptLoad(LUA_COUNTER);
-            result = jedisPooled.evalsha(scriptSha, keys, args);
+            scriptSha = jedisPooled.scriptLoad(LUA_SLIDING_WINDOW_COUNTER);
+            return jedisPooled.evalsha(scriptSha, keys, args);
         }
+    }
 
-        return Long.valueOf(1).equals(result);
+    private Object evalBatched(List<String> keys, List<String> args) {
+        try {
+            return scriptBatcher.submit(keys, args).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 }
@@ -0,0 +1,180 @@
+package com.meet5.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.meet5.dao.UserDAO;
+import com.meet5.pojo.User;
+import com.meet5.service.UserCacheService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.exceptions.JedisException;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded in-JVM cache of active user profiles in front of {@link UserDAO#selectNormalUsersByIdList}.
+ *
+ * <p>Ids that are not active (or do not exist) are cached as empty entries so they are not re-queried
+ * on every request. Status changes are broadcast on a Redis pub/sub channel so every node evicts the
+ * user right away instead of waiting for the entry to expire.</p>
+ *
+ * <p>Hit, miss and eviction counts are published through Micrometer under the {@code user.profile} cache name.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "user.cache", name = "enabled", havingValue = "true")
+public class UserCacheServiceImpl implements UserCacheService {
+
+    private static final String INVALIDATION_CHANNEL = "user:cache:invalidate";
+    private static final long RESUBSCRIBE_DELAY_MILLIS = 1000;
+
+    private final UserDAO userDAO;
+    private final JedisPooled jedisPooled;
+    private final Cache<Long, Optional<User>> cache;
+
+    /**
+     * Bumped on every eviction; a load that overlaps an eviction is not cached because it may have read the old row.
+     */
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    private final JedisPubSub invalidationSubscriber = new JedisPubSub() {
+        @Override
+        public void onMessage(String channel, String message) {
+            try {
+                evictLocally(Long.valueOf(message));
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed user cache invalidation message: {}", message);
+            }
+        }
+    };
+
+    private volatile boolean running;
+    private Thread subscriberThread;
+
+    @Autowired
+    public UserCacheServiceImpl(UserDAO userDAO,
+                                JedisPooled jedisPooled,
+                                MeterRegistry meterRegistry,
+                                @Value("${user.cache.maximum-size:100000}") long maximumSize,
+                                @Value("${user.cache.expire-after-write-seconds:300}") long expireAfterWriteSeconds) {
+        this.userDAO = userDAO;
+        this.jedisPooled = jedisPooled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user.profile");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        subscriberThread = new Thread(this::runSubscriber, "user-cache-invalidation");
+        subscriberThread.setDaemon(true);
+        subscriberThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (invalidationSubscriber.isSubscribed()) {
+            invalidationSubscriber.unsubscribe();
+        }
+        if (subscriberThread != null) {
+            subscriberThread.interrupt();
+        }
+    }
+
+    @Override
+    public List<User> selectNormalUsersByIdList(List<Long> userIds) {
+        List<Long> distinctIds = userIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<Long, Optional<User>> cached = cache.getAllPresent(distinctIds);
+        List<Long> missingIds = distinctIds.stream()
+                .filter(id -> !cached.containsKey(id))
+                .toList();
+
+        Map<Long, Optional<User>> loaded = missingIds.isEmpty() ? Map.of() : load(missingIds);
+
+        List<User> users = new ArrayList<>(distinctIds.size());
+        for (Long id : distinctIds) {
+            Optional<User> user = cached.containsKey(id) ? cached.get(id) : loaded.get(id);
+            user.ifPresent(users::add);
+        }
+        return users;
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        evictLocally(userId);
+        try {
+            jedisPooled.publish(INVALIDATION_CHANNEL, String.valueOf(userId));
+        } catch (JedisException e) {
+            log.warn("Failed to broadcast cache invalidation of user {}; other nodes rely on expiry", userId, e);
+        }
+    }
+
+    private Map<Long, Optional<User>> load(List<Long> missingIds) {
+        long invalidationsBefore = invalidationCount.get();
+
+        Map<Long, User> found = userDAO.selectNormalUsersByIdList(missingIds).stream()
+                .filter(u -> u != null && u.getId() != null)
+                .collect(Collectors.toMap(User::getId, Function.identity(), (first, second) -> first));
+
+        Map<Long, Optional<User>> loaded = new HashMap<>();
+        for (Long id : missingIds) {
+            loaded.put(id, Optional.ofNullable(found.get(id)));
+        }
+
+        if (invalidationCount.get() == invalidationsBefore) {
+            cache.putAll(loaded);
+        }
+        return loaded;
+    }
+
+    private void evictLocally(Long userId) {
+        invalidationCount.incrementAndGet();
+        cache.invalidate(userId);
+    }
+
+    private void runSubscriber() {
+        while (running) {
+            try {
+                // Blocks until unsubscribed or the connection drops.
+                jedisPooled.subscribe(invalidationSubscriber, INVALIDATION_CHANNEL);
+            } catch (JedisException e) {
+                if (running) {
+                    log.warn("User cache invalidation subscription lost, resubscribing", e);
+                }
+            }
+            if (running) {
+                // Invalidations published while disconnected were missed.
+                invalidationCount.incrementAndGet();
+                cache.invalidateAll();
+                try {
+                    Thread.sleep(RESUBSCRIBE_DELAY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,44 +1,121 @@
 package com.meet5.service.impl;
 
 import com.meet5.common.enums.LikeStatus;
+import com.meet5.common.enums.OperationType;
 import com.meet5.common.enums.UserStatus;
+import com.meet5.common.enums.VisitorRanking;
+import com.meet5.common.utils.LongHashSet;
+import com.meet5.common.utils.UtcClock;
+import com.meet5.common.utils.VisitFrequency;
 import com.meet5.dao.*;
 import com.meet5.pojo.Like;
+import com.meet5.pojo.LikesLog;
 import com.meet5.pojo.User;
 import com.meet5.pojo.Visit;
+import com.meet5.pojo.dto.BatchItemResult;
 import com.meet5.pojo.dto.UserDto;
+import com.meet5.pojo.dto.VisitorCursor;
+import com.meet5.pojo.dto.VisitorPage;
 import com.meet5.pojo.request.LikeRequest;
 import com.meet5.pojo.request.VisitRequest;
+import com.meet5.service.LikeCountService;
+import com.meet5.service.LikeLogArchiveService;
+import com.meet5.service.LikeStateService;
 import com.meet5.service.RiskManagementService;
+import com.meet5.service.UserCacheService;
 import com.meet5.service.UserService;
+import com.meet5.service.VisitWriteBehindService;
+import com.meet5.service.VisitorFeedService;
+import com.meet5.service.VisitorRankingService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class UserServiceImpl implements UserService {
     public static final int MAX_VISITORS = 10;
+
+    private static final int MAX_SCAN_CHUNK = 1000;
+
+    /**
+     * Visits of the cursor's day read to find the visitors already listed on it.
+     */
+    private static final int MAX_CURSOR_DAY_VISITS = 10_000;
+
     @Autowired
     private UserDAO userDAO;
     @Autowired
     private LikeDAO likeDAO;
     @Autowired
+    private VisitDAO visitDAO;
+    @Autowired
     private LikeLogDAO likeLogDAO;
     @Autowired
-    private VisitDAO visitDAO;
+    private MultiStatementDAO multiStatementDAO;
 
     @Autowired
     private RiskManagementService riskManagementService;
 
+    /**
+     * Present only when {@code visit.write-behind.enabled=true}; otherwise visits are inserted synchronously.
+     */
+    @Autowired(required = false)
+    private VisitWriteBehindService visitWriteBehindService;
+
+    /**
+     * Present only when {@code visit.feed.enabled=true}; otherwise visitors are always aggregated from MySQL.
+     */
+    @Autowired(required = false)
+    private VisitorFeedService visitorFeedService;
+
+    /**
+     * Present only when {@code visit.ranking.enabled=true}; otherwise frequency rankings are computed from MySQL.
+     */
+    @Autowired(required = false)
+    private VisitorRankingService visitorRankingService;
+
+    /**
+     * Shared with the Redis visitor ranking, so both paths rank alike.
+     */
+    @Value("${visit.ranking.half-life-hours:168}")
+    private long rankingHalfLifeHours = 168;
+
+    /**
+     * Present only when {@code user.cache.enabled=true}; otherwise visitor profiles are read from MySQL every time.
+     */
+    @Autowired(required = false)
+    private UserCacheService userCacheService;
+
+    /**
+     * Present only when {@code likes.state.enabled=true}; otherwise like states are read from MySQL.
+     */
+    @Autowired(required = false)
+    private LikeStateService likeStateService;
+
+    /**
+     * Present only when {@code likes.count.enabled=true}; otherwise like counts are counted over {@code likes}.
+     */
+    @Autowired(required = false)
+    private LikeCountService likeCountService;
+
+    /**
+     * Present only when {@code likes.archive.enabled=true}; otherwise like history is read from {@code likes_log}.
+     */
+    @Autowired(required = false)
+    private LikeLogArchiveService likeLogArchiveService;
+
 
     @Override
     public void recordVisit(@Valid @NotNull VisitRequest request) {
@@ -51,13 +128,38 @@ public class UserServiceImpl implements UserService {
             return;
         }
 
-        visitDAO.recordVisit(visitorId, targetId);
-        checkSensitiveBehavior(visitorId);
+        if (visitWriteBehindService != null) {
+            visitWriteBehindService.submit(visitorId, targetId);
+        } else {
+            visitDAO.recordVisit(visitorId, targetId);
+        }
+        LocalDateTime now = UtcClock.now();
+        if (visitorFeedService != null) {
+            visitorFeedService.recordVisit(visitorId, targetId, now);
+        }
+        if (visitorRankingService != null) {
+            visitorRankingService.recordVisit(visitorId, targetId, now);
+        }
+        checkSensitiveBehavior(visitorId, OperationType.VISIT);
+    }
+
+    private void checkSensitiveBehavior(Long userId, OperationType operationType) {
+        if (riskManagementService.checkSensitiveBehavior(userId, operationType)) {
+            markFraud(userId);
+        }
+    }
+
+    private void checkSensitiveBehavior(Map<Long, Integer> operationsByUser, OperationType operationType) {
+        if (operationsByUser.isEmpty()) {
+            return;
+        }
+        riskManagementService.checkSensitiveBehavior(operationsByUser, operationType).forEach(this::markFraud);
     }
 
-    private void checkSensitiveBehavior(Long userId) {
-        if (riskManagementService.checkSensitiveBehavior(userId)) {
-            userDAO.updateStatus(userId, UserStatus.FRAUD);
+    private void markFraud(Long userId) {
+        userDAO.updateStatus(userId, UserStatus.FRAUD);
+        if (userCacheService != null) {
+            userCacheService.invalidate(userId);
         }
     }
 
@@ -68,21 +170,144 @@ public class UserServiceImpl implements UserService {
         Long likerId = Objects.requireNonNull(request.getLikerId(), "Liker ID cannot be null");
         Long targetId = Objects.requireNonNull(request.getTargetId(), "Target ID cannot be null");
 
-        Like like = likeDAO.selectLikeByLikeRequest(request);
+        LikeStatus status = multiStatementDAO.toggleLike(request);
+        if (likeStateService != null) {
+            likeStateService.recordToggle(likerId, targetId, status);
+        }
+        if (likeCountService != null) {
+            likeCountService.recordToggle(targetId, status);
+        }
+        if (status == LikeStatus.LIKED) {
+            checkSensitiveBehavior(likerId, OperationType.LIKE);
+        }
+    }
+
+    @Override
+    public List<BatchItemResult> recordVisits(@NotNull List<VisitRequest> requests) {
+        Objects.requireNonNull(requests, "Visit requests cannot be null");
+
+        LocalDateTime now = UtcClock.now();
+        List<BatchItemResult> results = new ArrayList<>(requests.size());
+        List<Visit> visits = new ArrayList<>(requests.size());
+        Map<Long, Integer> visitsByVisitor = new HashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            VisitRequest request = requests.get(i);
+            if (request == null || request.getVisitorId() == null || request.getTargetId() == null) {
+                results.add(BatchItemResult.rejected(i, "visitorId and targetId are required"));
+            } else if (request.getVisitorId().equals(request.getTargetId())) {
+                results.add(BatchItemResult.skipped(i, "visitorId and targetId are the same user"));
+            } else {
+                visits.add(new Visit(request.getVisitorId(), request.getTargetId(), now));
+                visitsByVisitor.merge(request.getVisitorId(), 1, Integer::sum);
+                results.add(BatchItemResult.recorded(i));
+            }
+        }
+        if (visits.isEmpty()) {
+            return results;
+        }
 
-        if (like != null) {
-            like.setStatus(LikeStatus.CANCELED);
-            likeDAO.updateStatus(like);
+        if (visitWriteBehindService != null) {
+            visits.forEach(visit -> visitWriteBehindService.submit(visit.getVisitorId(), visit.getTargetId()));
         } else {
-            like = Like.builder()
-                    .likerId(likerId)
-                    .targetId(targetId)
-                    .status(LikeStatus.LIKED)
-                    .build();
-            likeDAO.recordLike(likerId, targetId);
-            checkSensitiveBehavior(likerId);
+            visitDAO.batchInsertVisits(visits);
+        }
+        if (visitorFeedService != null) {
+            visits.forEach(visit -> visitorFeedService.recordVisit(visit.getVisitorId(), visit.getTargetId(), now));
+        }
+        if (visitorRankingService != null) {
+            visits.forEach(visit -> visitorRankingService.recordVisit(visit.getVisitorId(), visit.getTargetId(), now));
+        }
+        checkSensitiveBehavior(visitsByVisitor, OperationType.VISIT);
+        return results;
+    }
+
+    /**
+     * Applies the same toggle as {@link #recordLike} to every pair in one round trip; pairs that end up liked
+     * are counted by the risk check. A pair repeated within the batch is rejected rather than toggled twice.
+     */
+    @Override
+    public List<BatchItemResult> recordLikes(@NotNull List<LikeRequest> requests) {
+        Objects.requireNonNull(requests, "Like requests cannot be null");
+
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        Map<LikeRequest, Integer> pairs = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            LikeRequest request = requests.get(i);
+            if (request == null || request.getLikerId() == null || request.getTargetId() == null) {
+                results[i] = BatchItemResult.rejected(i, "likerId and targetId are required");
+                continue;
+            }
+            LikeRequest pair = new LikeRequest(request.getLikerId(), request.getTargetId());
+            Integer first = pairs.putIfAbsent(pair, i);
+            if (first != null) {
+                results[i] = BatchItemResult.rejected(i, "duplicate of item " + first);
+            }
+        }
+        if (pairs.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        // A fixed lock order keeps concurrent batches over the same pairs from deadlocking.
+        List<LikeRequest> sortedPairs = pairs.keySet().stream()
+                .sorted(Comparator.comparing(LikeRequest::getLikerId).thenComparing(LikeRequest::getTargetId))
+                .toList();
+        Map<LikeRequest, LikeStatus> statuses = multiStatementDAO.toggleLikes(sortedPairs).stream()
+                .collect(Collectors.toMap(
+                        like -> new LikeRequest(like.getLikerId(), like.getTargetId()),
+                        Like::getStatus));
+
+        Map<Long, Integer> likesByLiker = new HashMap<>();
+        pairs.forEach((pair, index) -> {
+            LikeStatus status = statuses.get(pair);
+            if (likeStateService != null) {
+                likeStateService.recordToggle(pair.getLikerId(), pair.getTargetId(), status);
+            }
+            if (likeCountService != null) {
+                likeCountService.recordToggle(pair.getTargetId(), status);
+            }
+            if (status == LikeStatus.LIKED) {
+                likesByLiker.merge(pair.getLikerId(), 1, Integer::sum);
+            }
+            results[index] = BatchItemResult.recorded(index, status);
+        });
+
+        checkSensitiveBehavior(likesByLiker, OperationType.LIKE);
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public Map<Long, Boolean> getLikeStates(long likerId, @NotNull List<Long> targetIds) {
+        Objects.requireNonNull(targetIds, "Target IDs cannot be null");
+
+        if (likeStateService != null) {
+            return likeStateService.findLikeStates(likerId, targetIds);
         }
-        likeLogDAO.insert(like);
+        if (targetIds.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> likedTargets = new HashSet<>(likeDAO.selectLikedTargetIds(likerId, targetIds, null));
+        Map<Long, Boolean> states = new LinkedHashMap<>();
+        targetIds.forEach(targetId -> states.putIfAbsent(targetId, likedTargets.contains(targetId)));
+        return states;
+    }
+
+    @Override
+    public long getLikeCount(long targetId) {
+        return likeCountService != null ? likeCountService.getLikeCount(targetId) : likeDAO.countLikes(targetId);
+    }
+
+    @Override
+    public List<LikesLog> getLikeHistory(long likerId, LocalDateTime from, LocalDateTime to) {
+        if (likeLogArchiveService != null) {
+            return likeLogArchiveService.findHistory(likerId, from, to);
+        }
+        return likeLogDAO.selectByLiker(likerId, 0, from, to);
+    }
+
+    @Override
+    public List<UserDto> getLastMonthVisitors(long userId) {
+        return getLastMonthVisitors(userId, VisitorRanking.RECENCY);
     }
 
     /**
@@ -90,9 +315,16 @@ public class UserServiceImpl implements UserService {
      *
      * <p>Method workflow:</p>
      * <ul>
-     *     <li>Fetch all visit records to the user's profile from the past month.</li>
-     *     <li>For each visitor, retain only the latest visit per day.</li>
-     *     <li>Sort the visits in descending order of visit time and select the top {@code MAX_VISITORS} entries.</li>
+     *     <li>If the precomputed structure for the requested ranking (the visitor feed for recency, the visitor
+     *     ranking for frequency) is enabled and built for this user, read the top {@code MAX_VISITORS} entries
+     *     from it and skip the MySQL aggregation below.</li>
+     *     <li>For recency without the visitor feed, read the past month's visits latest first and keep the first
+     *     visit of each visitor per day until {@code MAX_VISITORS} are found; see {@link #scanLatestVisitsPerDay}.</li>
+     *     <li>Otherwise fetch the latest visit of each visitor per day from the past month, grouped by MySQL on the
+     *     covering index.</li>
+     *     <li>Rebuild the structure that missed, and only that one, from the per-day visits.</li>
+     *     <li>Select the top {@code MAX_VISITORS} entries: by visit time descending for recency, or by decayed
+     *     visit-day count for frequency.</li>
      *     <li>Batch query the corresponding user information based on visitor IDs.</li>
      *     <li>Copy properties to new User objects and attach the visit time as an additional field.</li>
      * </ul>
@@ -103,48 +335,208 @@ public class UserServiceImpl implements UserService {
      *     <li>If the user information of some visitors does not exist or the user status becomes Fraud or Deleted, the corresponding records are filtered out.</li>
      * </ul>
      *
-     * @param userId the ID of the user whose visitor records are to be retrieved
+     * @param userId  the ID of the user whose visitor records are to be retrieved
+     * @param ranking the order of the returned visitors
      * @return a list of visitors (as User objects) along with their most recent visit time
      */
     @Override
-    public List<UserDto> getLastMonthVisitors(long userId) {
+    public List<UserDto> getLastMonthVisitors(long userId, @NotNull VisitorRanking ranking) {
+        Objects.requireNonNull(ranking, "Visitor ranking cannot be null");
 
-        LocalDateTime monthAgo = LocalDateTime.now().minusMonths(1);
+        LocalDateTime monthAgo = UtcClock.now().minusMonths(1);
 
-        List<Visit> allVisits = visitDAO.findRecentVisits(userId, monthAgo);
+        if (ranking == VisitorRanking.RECENCY) {
+            if (visitorFeedService == null) {
+                return toVisitorDtos(scanLatestVisitsPerDay(userId, monthAgo, null, MAX_VISITORS));
+            }
+            Optional<List<Visit>> feedVisits = visitorFeedService.findLatestVisits(userId, monthAgo, MAX_VISITORS);
+            if (feedVisits.isPresent()) {
+                return toVisitorDtos(feedVisits.get());
+            }
+            // Marked before MySQL is read, so the visits recorded while it is read are kept in the rebuilt feed.
+            visitorFeedService.prepareRebuild(userId);
+            List<Visit> latestVisitPerDay = visitDAO.findLatestVisitsPerDay(userId, monthAgo, null);
+            visitorFeedService.rebuild(userId, latestVisitPerDay);
+            return toVisitorDtos(topVisits(latestVisitPerDay));
+        }
 
-        if (allVisits.isEmpty()) {
-            return List.of();
+        if (visitorRankingService != null) {
+            Optional<List<Visit>> rankedVisits = visitorRankingService.findTopVisitors(userId, monthAgo, MAX_VISITORS);
+            if (rankedVisits.isPresent()) {
+                return toVisitorDtos(rankedVisits.get());
+            }
+            visitorRankingService.prepareRebuild(userId);
         }
+        List<Visit> latestVisitPerDay = visitDAO.findLatestVisitsPerDay(userId, monthAgo, null);
+        if (visitorRankingService != null) {
+            visitorRankingService.rebuild(userId, latestVisitPerDay);
+        }
+        return toVisitorDtos(topVisitsByFrequency(userId, latestVisitPerDay,
+                Duration.ofHours(rankingHalfLifeHours).toMillis()));
+    }
 
-        record DayKey(Long visitorId, LocalDate date) {
+    /**
+     * Pages through the last month's visitors in (visit time, visitor id) descending order, keeping the latest
+     * visit of each visitor per day like {@link #getLastMonthVisitors(long)}.
+     *
+     * <p>Each page is read by {@link #scanLatestVisitsPerDay} from the cursor, so earlier days are never read
+     * again; only the cursor's own day is, up to {@code MAX_CURSOR_DAY_VISITS} visits, so a page costs at most
+     * that many more rows than the first one.</p>
+     *
+     * <p>A page may hold fewer than {@code limit} users when visitors are no longer active; the next cursor is
+     * present whenever {@code limit} visits were found.</p>
+     */
+    @Override
+    public VisitorPage getLastMonthVisitors(long userId, VisitorCursor cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
         }
 
-        Map<DayKey, Visit> latestVisitPerDay = allVisits.stream()
-                .filter(v -> v != null
-                        && v.getVisitorId() != null
-                        && v.getVisitedTime() != null)
-                .collect(Collectors.toMap(
-                        v -> new DayKey(v.getVisitorId(), v.getVisitedTime().toLocalDate()),
-                        Function.identity(),
-                        BinaryOperator.maxBy(Comparator.comparing(Visit::getVisitedTime))));
+        List<Visit> page = scanLatestVisitsPerDay(userId, UtcClock.now().minusMonths(1), cursor, limit);
+
+        String nextCursor = null;
+        if (page.size() == limit) {
+            Visit last = page.get(limit - 1);
+            nextCursor = new VisitorCursor(last.getVisitedTime(), last.getVisitorId()).encode();
+        }
+        return new VisitorPage(toVisitorDtos(page), nextCursor);
+    }
+
+    /**
+     * The latest visit of each visitor per day to the target since {@code since}, latest first, starting after
+     * {@code cursor} unless it is {@code null}, until {@code limit} are found or the visits run out.
+     *
+     * <p>Visits are read in index order with a {@link VisitScan} in chunks bounded by {@code LIMIT}, starting at
+     * twice {@code limit} and doubling up to {@code MAX_SCAN_CHUNK}; the scan stops within a chunk as soon as the
+     * list is full. Since the visits arrive latest first, a visit is the latest of its visitor that day exactly when
+     * the visitor has not been seen yet that day, so only the current day's visitor ids are kept. For the cursor's
+     * own day the visitors listed before the cursor are read from the index, up from the cursor towards the end of
+     * that day, before the scan starts; the handler never queries, so a scan holds only its own connection. That
+     * read stops after {@code MAX_CURSOR_DAY_VISITS} visits, so on a day with more visits than that after the
+     * cursor, a visitor listed only beyond them can be listed again.</p>
+     */
+    private List<Visit> scanLatestVisitsPerDay(long targetId, LocalDateTime since, VisitorCursor cursor, int limit) {
+        VisitScan scan = new VisitScan(targetId, limit);
+        LocalDateTime afterTime = null;
+        Long afterVisitorId = null;
+        if (cursor != null) {
+            afterTime = cursor.visitedTime();
+            afterVisitorId = cursor.visitorId();
+            scan.day = afterTime.toLocalDate();
+            visitDAO.selectVisitorIdsBetween(targetId, afterTime, afterVisitorId, scan.day.plusDays(1).atStartOfDay(),
+                    MAX_CURSOR_DAY_VISITS).forEach(scan.visitorsOfDay::add);
+        }
+        int maxChunk = Math.max(limit, MAX_SCAN_CHUNK);
+        int chunk = Math.min(limit * 2, maxChunk);
+
+        while (true) {
+            scan.rowsRead = 0;
+            visitDAO.scanVisits(targetId, since, afterTime, afterVisitorId, chunk, scan);
+            if (scan.visits.size() == limit || scan.rowsRead < chunk) {
+                return scan.visits;
+            }
+            afterTime = scan.lastTime;
+            afterVisitorId = scan.lastVisitorId;
+            chunk = Math.min(chunk * 2, maxChunk);
+        }
+    }
+
+    /**
+     * Collects the first visit of each visitor per day from visits handed over latest first. {@code day} and
+     * {@code visitorsOfDay} start out as the cursor's day and the visitors already listed on it.
+     */
+    private final class VisitScan implements ResultHandler<Visit> {
+
+        private final long targetId;
+        private final int limit;
+        private final List<Visit> visits;
+        private final LongHashSet visitorsOfDay = new LongHashSet(64);
+
+        private LocalDate day;
+        private LocalDateTime lastTime;
+        private Long lastVisitorId;
+        private int rowsRead;
+
+        private VisitScan(long targetId, int limit) {
+            this.targetId = targetId;
+            this.limit = limit;
+            this.visits = new ArrayList<>(limit);
+        }
+
+        @Override
+        public void handleResult(ResultContext<? extends Visit> context) {
+            Visit row = context.getResultObject();
+            rowsRead++;
+            lastTime = row.getVisitedTime();
+            lastVisitorId = row.getVisitorId();
+
+            LocalDate rowDay = lastTime.toLocalDate();
+            if (!rowDay.equals(day)) {
+                day = rowDay;
+                visitorsOfDay.clear();
+            }
+
+            if (visitorsOfDay.add(lastVisitorId)) {
+                visits.add(new Visit(lastVisitorId, targetId, lastTime));
+                if (visits.size() == limit) {
+                    context.stop();
+                }
+            }
+        }
+    }
 
-        List<Visit> topVisits = latestVisitPerDay.values().stream()
+    /**
+     * Ranks the visitors by {@link VisitFrequency#scores}, latest visit first on a tie, and keeps the top
+     * {@code MAX_VISITORS}, each with its latest visit.
+     */
+    static List<Visit> topVisitsByFrequency(Long targetId, Collection<Visit> latestVisitPerDay, long halfLifeMillis) {
+        Map<Long, Double> scores = VisitFrequency.scores(latestVisitPerDay, halfLifeMillis);
+        Map<Long, LocalDateTime> lastVisits = VisitFrequency.lastVisitTimes(latestVisitPerDay);
+        return scores.keySet().stream()
+                .sorted(Comparator.comparing((Long visitorId) -> scores.get(visitorId))
+                        .thenComparing(lastVisits::get)
+                        .reversed())
+                .limit(MAX_VISITORS)
+                .map(visitorId -> new Visit(visitorId, targetId, lastVisits.get(visitorId)))
+                .toList();
+    }
+
+    /**
+     * Sorts the visits in descending order of visit time and keeps the top {@code MAX_VISITORS}.
+     */
+    static List<Visit> topVisits(Collection<Visit> visits) {
+        return visits.stream()
                 .sorted(Comparator.comparing(Visit::getVisitedTime).reversed())
                 .limit(MAX_VISITORS)
                 .toList();
+    }
 
+    /**
+     * Resolves the visitors of the given visits to active users, keeping the order of the visits.
+     */
+    private List<UserDto> toVisitorDtos(List<Visit> topVisits) {
         if (topVisits.isEmpty()) {
             return List.of();
         }
 
-
         List<Long> visitorIds = topVisits.stream()
                 .map(Visit::getVisitorId)
                 .distinct()
                 .toList();
 
-        Map<Long, User> userMap = userDAO.selectNormalUsersByIdList(visitorIds).stream()
+        List<User> visitors = userCacheService != null
+                ? userCacheService.selectNormalUsersByIdList(visitorIds)
+                : userDAO.selectNormalUsersByIdList(visitorIds);
+
+        return joinVisitors(topVisits, visitors);
+    }
+
+    /**
+     * Copies each visitor's profile and attaches the visit time, keeping the order of the visits; visits
+     * whose visitor is missing from {@code visitors} are dropped.
+     */
+    static List<UserDto> joinVisitors(List<Visit> topVisits, List<User> visitors) {
+        Map<Long, User> userMap = visitors.stream()
                 .filter(u -> u != null && u.getId() != null)
                 .collect(Collectors.toMap(
                         User::getId,
@@ -0,0 +1,207 @@
+package com.meet5.service.impl;
+
+import com.meet5.common.utils.UtcClock;
+import com.meet5.dao.VisitDAO;
+import com.meet5.pojo.Visit;
+import com.meet5.service.VisitWriteBehindService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for profile visits.
+ *
+ * <p>Visits are queued in a bounded in-memory buffer and a single flusher thread drains them into
+ * multi-row inserts, flushing when {@code batch-size} visits are collected or when the oldest visit
+ * has waited {@code flush-interval-ms}, whichever comes first.</p>
+ *
+ * <p>When the buffer is full the caller waits up to {@code offer-timeout-ms}; if there is still no
+ * room the visit is written synchronously on the caller's thread, which slows producers down to the
+ * rate the database can absorb instead of dropping data. A failed synchronous write is thrown to the caller.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "visit.write-behind", name = "enabled", havingValue = "true")
+public class VisitWriteBehindServiceImpl implements VisitWriteBehindService {
+
+    private static final int MAX_FLUSH_ATTEMPTS = 2;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final VisitDAO visitDAO;
+    private final BlockingQueue<PendingVisit> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutMillis;
+
+    private final Timer flushLag;
+    private final DistributionSummary flushedBatchSize;
+    private final Counter overflowCount;
+    private final Counter failedCount;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    private record PendingVisit(Visit visit, long enqueuedNanos) {
+    }
+
+    @Autowired
+    public VisitWriteBehindServiceImpl(VisitDAO visitDAO,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${visit.write-behind.buffer-capacity:10000}") int bufferCapacity,
+                                       @Value("${visit.write-behind.batch-size:500}") int batchSize,
+                                       @Value("${visit.write-behind.flush-interval-ms:200}") long flushIntervalMillis,
+                                       @Value("${visit.write-behind.offer-timeout-ms:50}") long offerTimeoutMillis) {
+        if (bufferCapacity <= 0 || batchSize <= 0 || flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Write-behind buffer capacity, batch size and flush interval must be positive");
+        }
+        this.visitDAO = visitDAO;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+
+        this.flushLag = meterRegistry.timer("visits.write_behind.flush.lag");
+        this.flushedBatchSize = meterRegistry.summary("visits.write_behind.batch.size");
+        this.overflowCount = meterRegistry.counter("visits.write_behind.overflow");
+        this.failedCount = meterRegistry.counter("visits.write_behind.failed");
+        meterRegistry.gauge("visits.write_behind.buffer.size", buffer, Collection::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher = new Thread(this::runFlushLoop, "visit-write-behind-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void submit(Long visitorId, Long targetId) {
+        PendingVisit pending = new PendingVisit(new Visit(visitorId, targetId, UtcClock.now()), System.nanoTime());
+
+        boolean accepted;
+        try {
+            accepted = running && buffer.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+
+        if (!accepted) {
+            // Buffer saturated or shutting down: fall back to a synchronous write on the caller's thread,
+            // which fails the caller like an unbuffered write would.
+            overflowCount.increment();
+            try {
+                visitDAO.batchInsertVisits(List.of(pending.visit()));
+            } catch (RuntimeException e) {
+                failedCount.increment();
+                throw e;
+            }
+        } else if (!running) {
+            // Raced with shutdown after the final drain; make sure the visit is not stranded.
+            drainRemaining();
+        }
+    }
+
+    /**
+     * Stops accepting buffered visits and flushes everything still in memory.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            flusher.join(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+        drainRemaining();
+    }
+
+    private void runFlushLoop() {
+        List<PendingVisit> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                collectBatch(batch);
+                flush(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flush(batch);
+        }
+    }
+
+    /**
+     * Blocks until the first visit arrives, then keeps collecting until the batch is full or the
+     * first visit's flush deadline has passed.
+     */
+    private void collectBatch(List<PendingVisit> batch) throws InterruptedException {
+        PendingVisit first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = first.enqueuedNanos() + flushIntervalNanos;
+
+        while (batch.size() < batchSize) {
+            if (buffer.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingVisit next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void drainRemaining() {
+        List<PendingVisit> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<PendingVisit> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Visit> visits = batch.stream()
+                .map(PendingVisit::visit)
+                .toList();
+
+        for (int attempt = 1; attempt <= MAX_FLUSH_ATTEMPTS; attempt++) {
+            try {
+                visitDAO.batchInsertVisits(visits);
+                break;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_FLUSH_ATTEMPTS) {
+                    failedCount.increment(visits.size());
+                    log.error("Dropping {} buffered visits after {} failed flush attempts", visits.size(), attempt, e);
+                }
+            }
+        }
+
+        flushedBatchSize.record(visits.size());
+        flushLag.record(System.nanoTime() - batch.get(0).enqueuedNanos(), TimeUnit.NANOSECONDS);
+        batch.clear();
+    }
+}
@@ -0,0 +1,237 @@
+package com.meet5.service.impl;
+
+import com.meet5.pojo.Visit;
+import com.meet5.service.VisitorFeedService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.resps.Tuple;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed "recent visitors" feed kept in one Redis sorted set per profile.
+ *
+ * <p>Members are {@code visitorId:epochDay} and scores are the visit time in epoch millis, so a
+ * repeated visit on the same day only moves the existing member forward ({@code ZADD GT}). This
+ * keeps exactly the latest visit per visitor per day, like the MySQL-based aggregation.</p>
+ *
+ * <p>Visits only update feeds that already exist or are being rebuilt. A missing feed is rebuilt from MySQL
+ * on the next read: {@link #prepareRebuild} sets a short-lived building marker before MySQL is read, so visits
+ * recorded from then on land in the feed, and {@link #rebuild} merges the MySQL visits in with {@code GT} and
+ * clears the marker in one script. Reads treat a feed with a marker as missing, so a feed never looks
+ * complete while it is only partly populated. A partial feed expires with its marker if the rebuild never
+ * finishes.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "visit.feed", name = "enabled", havingValue = "true")
+public class VisitorFeedServiceImpl implements VisitorFeedService {
+
+    private static final String VISITOR_FEED_PREFIX = "visitor:feed:";
+    private static final String VISITOR_FEED_BUILDING_PREFIX = "visitor:feed:building:";
+
+    /**
+     * Slightly longer than the longest month, so the read-side cutoff of one calendar month is always covered.
+     */
+    private static final Duration RETENTION = Duration.ofDays(31);
+
+    /**
+     * Long enough for the MySQL read of one rebuild.
+     */
+    private static final Duration BUILD_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final String LUA_RECORD_VISIT =
+            //    KEYS[1]=feed  KEYS[2]=building  ARGV[1]=score  ARGV[2]=member  ARGV[3]=minScore
+            //    ARGV[4]=maxEntries  ARGV[5]=ttlMs
+            "local ttl = redis.call('PTTL', KEYS[2]);"
+                    +
+                    "if ttl < 0 then"
+                    +
+                    "  if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end;"
+                    +
+                    "  ttl = tonumber(ARGV[5]);"
+                    +
+                    "end;"
+                    +
+                    "redis.call('ZADD', KEYS[1], 'GT', ARGV[1], ARGV[2]);"
+                    +
+                    "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[3]);"
+                    +
+                    "redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[4]) + 1));"
+                    +
+                    "redis.call('PEXPIRE', KEYS[1], ttl);"
+                    +
+                    "return 1;";
+
+    private static final String LUA_FINISH_REBUILD =
+            //    KEYS[1]=feed  KEYS[2]=building  ARGV[1]=minScore  ARGV[2]=maxEntries  ARGV[3]=ttlMs
+            //    ARGV[4..]=score, member pairs
+            "for i = 4, #ARGV, 2 do redis.call('ZADD', KEYS[1], 'GT', ARGV[i], ARGV[i + 1]); end;"
+                    +
+                    "redis.call('DEL', KEYS[2]);"
+                    +
+                    "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end;"
+                    +
+                    "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[1]);"
+                    +
+                    "redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[2]) + 1));"
+                    +
+                    "redis.call('PEXPIRE', KEYS[1], tonumber(ARGV[3]));"
+                    +
+                    "return 1;";
+
+    private final JedisPooled jedisPooled;
+    private final int maxEntries;
+    private final ZoneId zoneId = ZoneOffset.UTC;
+
+    private final Map<String, String> scriptShas = new ConcurrentHashMap<>();
+
+    @Autowired
+    public VisitorFeedServiceImpl(JedisPooled jedisPooled,
+                                  @Value("${visit.feed.max-entries:500}") int maxEntries) {
+        this.jedisPooled = jedisPooled;
+        this.maxEntries = maxEntries;
+        scriptShas.put(LUA_RECORD_VISIT, jedisPooled.scriptLoad(LUA_RECORD_VISIT));
+        scriptShas.put(LUA_FINISH_REBUILD, jedisPooled.scriptLoad(LUA_FINISH_REBUILD));
+    }
+
+    @Override
+    public void recordVisit(Long visitorId, Long targetId, LocalDateTime visitedTime) {
+        long visitedMillis = toEpochMillis(visitedTime);
+        List<String> keys = Arrays.asList(feedKey(targetId), buildingKey(targetId));
+        List<String> args = Arrays.asList(
+                String.valueOf(visitedMillis),
+                member(visitorId, visitedTime),
+                String.valueOf(visitedMillis - RETENTION.toMillis()),
+                String.valueOf(maxEntries),
+                String.valueOf(RETENTION.toMillis()));
+
+        try {
+            evalScript(LUA_RECORD_VISIT, keys, args);
+        } catch (JedisException e) {
+            // MySQL stays the source of truth; dropping the feed forces a rebuild instead of serving a gap.
+            log.warn("Failed to update visitor feed of user {}, invalidating it", targetId, e);
+            invalidate(targetId);
+        }
+    }
+
+    @Override
+    public Optional<List<Visit>> findLatestVisits(long targetId, LocalDateTime since, int limit) {
+        String key = feedKey(targetId);
+        List<Tuple> tuples;
+        try (Pipeline pipeline = jedisPooled.pipelined()) {
+            Response<List<Tuple>> range = pipeline.zrevrangeByScoreWithScores(key, Double.POSITIVE_INFINITY,
+                    toEpochMillis(since), 0, limit);
+            Response<Boolean> exists = pipeline.exists(key);
+            Response<Boolean> building = pipeline.exists(buildingKey(targetId));
+            pipeline.sync();
+            if (building.get() || (range.get().isEmpty() && !exists.get())) {
+                return Optional.empty();
+            }
+            tuples = range.get();
+        } catch (JedisException e) {
+            log.warn("Failed to read visitor feed of user {}, falling back to MySQL", targetId, e);
+            return Optional.empty();
+        }
+
+        List<Visit> visits = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            String element = tuple.getElement();
+            Long visitorId = Long.valueOf(element.substring(0, element.indexOf(':')));
+            LocalDateTime visitedTime = LocalDateTime.ofInstant(Instant.ofEpochMilli((long) tuple.getScore()), zoneId);
+            visits.add(new Visit(visitorId, targetId, visitedTime));
+        }
+        return Optional.of(visits);
+    }
+
+    @Override
+    public void prepareRebuild(long targetId) {
+        try {
+            jedisPooled.set(buildingKey(targetId), "1", SetParams.setParams().px(BUILD_TIMEOUT.toMillis()));
+        } catch (JedisException e) {
+            log.warn("Failed to mark visitor feed of user {} as rebuilding", targetId, e);
+        }
+    }
+
+    @Override
+    public void rebuild(long targetId, Collection<Visit> latestVisitPerDay) {
+        Map<String, Long> scoreMembers = new HashMap<>();
+        for (Visit visit : latestVisitPerDay) {
+            if (visit == null || visit.getVisitorId() == null || visit.getVisitedTime() == null) {
+                continue;
+            }
+            scoreMembers.merge(member(visit.getVisitorId(), visit.getVisitedTime()),
+                    toEpochMillis(visit.getVisitedTime()), Math::max);
+        }
+
+        List<String> args = new ArrayList<>(3 + 2 * Math.min(scoreMembers.size(), maxEntries));
+        args.add(String.valueOf(System.currentTimeMillis() - RETENTION.toMillis()));
+        args.add(String.valueOf(maxEntries));
+        args.add(String.valueOf(RETENTION.toMillis()));
+        // Only the newest entries survive the trim, so only they are sent.
+        scoreMembers.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(maxEntries)
+                .forEach(entry -> {
+                    args.add(String.valueOf(entry.getValue()));
+                    args.add(entry.getKey());
+                });
+
+        try {
+            evalScript(LUA_FINISH_REBUILD, Arrays.asList(feedKey(targetId), buildingKey(targetId)), args);
+        } catch (JedisException e) {
+            log.warn("Failed to rebuild visitor feed of user {}, invalidating it", targetId, e);
+            invalidate(targetId);
+        }
+    }
+
+    private Object evalScript(String script, List<String> keys, List<String> args) {
+        try {
+            return jedisPooled.evalsha(scriptShas.get(script), keys, args);
+        } catch (JedisNoScriptException e) {
+            String sha = jedisPooled.scriptLoad(script);
+            scriptShas.put(script, sha);
+            return jedisPooled.evalsha(sha, keys, args);
+        }
+    }
+
+    @Override
+    public void invalidate(long targetId) {
+        try {
+            jedisPooled.del(feedKey(targetId), buildingKey(targetId));
+        } catch (JedisException e) {
+            log.warn("Failed to invalidate visitor feed of user {}", targetId, e);
+        }
+    }
+
+    private static String feedKey(long targetId) {
+        return VISITOR_FEED_PREFIX + targetId;
+    }
+
+    private static String buildingKey(long targetId) {
+        return VISITOR_FEED_BUILDING_PREFIX + targetId;
+    }
+
+    private static String member(Long visitorId, LocalDateTime visitedTime) {
+        return visitorId + ":" + visitedTime.toLocalDate().toEpochDay();
+    }
+
+    private long toEpochMillis(LocalDateTime time) {
+        return time.atZone(zoneId).toInstant().toEpochMilli();
+    }
+}
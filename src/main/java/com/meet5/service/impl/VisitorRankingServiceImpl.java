@@ -0,0 +1,435 @@
+package com.meet5.service.impl;
+
+import com.meet5.common.utils.DecayedScore;
+import com.meet5.common.utils.UtcClock;
+import com.meet5.common.utils.VisitFrequency;
+import com.meet5.pojo.Visit;
+import com.meet5.service.VisitorRankingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+import redis.clients.jedis.params.SetParams;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Frequency ranking of each profile's visitors, kept in Redis.
+ *
+ * <p>A hash per profile holds each visitor's visit days of the last month, as the latest visit time per day, and a
+ * sorted set holds every visitor's {@link DecayedScore} over those days, the same score the MySQL fallback
+ * computes. A third sorted set orders the visitors by their oldest day, so days that leave the month are dropped
+ * and the scores recomputed by the next script call on the profile, read or write. A visit is one script call
+ * that updates the visitor's day and recomputes its score. A read is one script call that drops the expired days,
+ * then one {@code ZREVRANGE} and one {@code HMGET} per page of top entries.</p>
+ *
+ * <p>As with the visitor feed, visits only update rankings that already exist or are being rebuilt, and a
+ * missing ranking is rebuilt from MySQL on the next read: {@link #prepareRebuild} sets a short-lived building
+ * marker before MySQL is read, and {@link #rebuild} merges the MySQL visit days with the ones recorded meanwhile
+ * and clears the marker in one script. Each profile keeps at most {@code max-entries} visitors; the lowest ranked
+ * are evicted.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "visit.ranking", name = "enabled", havingValue = "true")
+public class VisitorRankingServiceImpl implements VisitorRankingService {
+
+    private static final String VISITOR_RANK_PREFIX = "visitor:rank:";
+    private static final String VISITOR_DAYS_PREFIX = "visitor:rank:days:";
+    private static final String VISITOR_DUE_PREFIX = "visitor:rank:due:";
+    private static final String VISITOR_RANK_BUILDING_PREFIX = "visitor:rank:building:";
+
+    /**
+     * Same retention as the visitor feed, covering the one calendar month a read looks back.
+     */
+    private static final Duration RETENTION = Duration.ofDays(31);
+
+    /**
+     * Long enough for the MySQL read of one rebuild.
+     */
+    private static final Duration BUILD_TIMEOUT = Duration.ofSeconds(60);
+
+    /**
+     * Shared by all scripts. KEYS[1]=scores  KEYS[2]=days  KEYS[3]=due  KEYS[4]=building. A visitor's days are
+     * stored as {@code epochDay:visitedMs} pairs in day order.
+     */
+    private static final String LUA_FUNCTIONS =
+            "local function load(visitor)"
+                    +
+                    "  local entries = {};"
+                    +
+                    "  local raw = redis.call('HGET', KEYS[2], visitor);"
+                    +
+                    "  if raw then"
+                    +
+                    "    for day, ms in string.gmatch(raw, '(%d+):(%d+)') do"
+                    +
+                    "      entries[#entries + 1] = {tonumber(day), tonumber(ms)};"
+                    +
+                    "    end;"
+                    +
+                    "  end;"
+                    +
+                    "  return entries;"
+                    +
+                    "end;"
+                    +
+                    "local function merge(entries, day, ms)"
+                    +
+                    "  for i = #entries, 1, -1 do"
+                    +
+                    "    if entries[i][1] == day then"
+                    +
+                    "      if ms > entries[i][2] then entries[i][2] = ms end;"
+                    +
+                    "      return;"
+                    +
+                    "    end;"
+                    +
+                    "    if entries[i][1] < day then"
+                    +
+                    "      table.insert(entries, i + 1, {day, ms});"
+                    +
+                    "      return;"
+                    +
+                    "    end;"
+                    +
+                    "  end;"
+                    +
+                    "  table.insert(entries, 1, {day, ms});"
+                    +
+                    "end;"
+                    +
+                    // Stores the days inside the window and the score log2(sum 2^(ms / halfLife)) over them.
+                    "local function save(visitor, entries, windowStart, halfLife)"
+                    +
+                    "  local scores, parts, high, oldest = {}, {}, nil, nil;"
+                    +
+                    "  for _, e in ipairs(entries) do"
+                    +
+                    "    if e[2] >= windowStart then"
+                    +
+                    "      local score = e[2] / halfLife;"
+                    +
+                    "      scores[#scores + 1] = score;"
+                    +
+                    "      parts[#parts + 1] = string.format('%d:%d', e[1], e[2]);"
+                    +
+                    "      if not high or score > high then high = score end;"
+                    +
+                    "      if not oldest or e[2] < oldest then oldest = e[2] end;"
+                    +
+                    "    end;"
+                    +
+                    "  end;"
+                    +
+                    "  if #scores == 0 then"
+                    +
+                    "    redis.call('ZREM', KEYS[1], visitor);"
+                    +
+                    "    redis.call('HDEL', KEYS[2], visitor);"
+                    +
+                    "    redis.call('ZREM', KEYS[3], visitor);"
+                    +
+                    "    return;"
+                    +
+                    "  end;"
+                    +
+                    "  local sum = 0;"
+                    +
+                    "  for _, score in ipairs(scores) do sum = sum + 2 ^ (score - high) end;"
+                    +
+                    "  redis.call('ZADD', KEYS[1], high + math.log(sum) / math.log(2), visitor);"
+                    +
+                    "  redis.call('HSET', KEYS[2], visitor, table.concat(parts, ','));"
+                    +
+                    "  redis.call('ZADD', KEYS[3], oldest, visitor);"
+                    +
+                    "end;"
+                    +
+                    "local function prune(windowStart, halfLife)"
+                    +
+                    "  local expired = redis.call('ZRANGEBYSCORE', KEYS[3], '-inf', string.format('(%d', windowStart));"
+                    +
+                    "  for _, visitor in ipairs(expired) do save(visitor, load(visitor), windowStart, halfLife) end;"
+                    +
+                    "end;"
+                    +
+                    "local function evict(maxEntries)"
+                    +
+                    "  local evicted = redis.call('ZRANGE', KEYS[1], 0, -(maxEntries + 1));"
+                    +
+                    "  if #evicted > 0 then"
+                    +
+                    "    redis.call('ZREM', KEYS[1], unpack(evicted));"
+                    +
+                    "    redis.call('HDEL', KEYS[2], unpack(evicted));"
+                    +
+                    "    redis.call('ZREM', KEYS[3], unpack(evicted));"
+                    +
+                    "  end;"
+                    +
+                    "end;"
+                    +
+                    "local function expire(ttl)"
+                    +
+                    "  for i = 1, 3 do redis.call('PEXPIRE', KEYS[i], ttl) end;"
+                    +
+                    "end;";
+
+    private static final String LUA_RECORD_VISIT = LUA_FUNCTIONS
+            //    ARGV[1]=visitor  ARGV[2]=epochDay  ARGV[3]=visitedMs  ARGV[4]=windowStartMs  ARGV[5]=halfLifeMs
+            //    ARGV[6]=maxEntries  ARGV[7]=ttlMs
+            +
+            "local ttl = redis.call('PTTL', KEYS[4]);"
+            +
+            "if ttl < 0 then"
+            +
+            "  if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end;"
+            +
+            "  ttl = tonumber(ARGV[7]);"
+            +
+            "end;"
+            +
+            "local windowStart, halfLife = tonumber(ARGV[4]), tonumber(ARGV[5]);"
+            +
+            "prune(windowStart, halfLife);"
+            +
+            "local entries = load(ARGV[1]);"
+            +
+            "merge(entries, tonumber(ARGV[2]), tonumber(ARGV[3]));"
+            +
+            "save(ARGV[1], entries, windowStart, halfLife);"
+            +
+            "evict(tonumber(ARGV[6]));"
+            +
+            "expire(ttl);"
+            +
+            "return 1;";
+
+    private static final String LUA_PRUNE = LUA_FUNCTIONS
+            //    ARGV[1]=windowStartMs  ARGV[2]=halfLifeMs
+            +
+            "if redis.call('EXISTS', KEYS[4]) == 1 or redis.call('EXISTS', KEYS[1]) == 0 then return 0 end;"
+            +
+            "prune(tonumber(ARGV[1]), tonumber(ARGV[2]));"
+            +
+            "return 1;";
+
+    private static final String LUA_FINISH_REBUILD = LUA_FUNCTIONS
+            //    ARGV[1]=windowStartMs  ARGV[2]=halfLifeMs  ARGV[3]=maxEntries  ARGV[4]=ttlMs
+            //    ARGV[5..]=visitor, days pairs
+            +
+            "local windowStart, halfLife = tonumber(ARGV[1]), tonumber(ARGV[2]);"
+            +
+            "for i = 5, #ARGV, 2 do"
+            +
+            "  local entries = load(ARGV[i]);"
+            +
+            "  for day, ms in string.gmatch(ARGV[i + 1], '(%d+):(%d+)') do"
+            +
+            "    merge(entries, tonumber(day), tonumber(ms));"
+            +
+            "  end;"
+            +
+            "  save(ARGV[i], entries, windowStart, halfLife);"
+            +
+            "end;"
+            +
+            "redis.call('DEL', KEYS[4]);"
+            +
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end;"
+            +
+            "prune(windowStart, halfLife);"
+            +
+            "evict(tonumber(ARGV[3]));"
+            +
+            "expire(tonumber(ARGV[4]));"
+            +
+            "return 1;";
+
+    private final JedisPooled jedisPooled;
+    private final int maxEntries;
+    private final long halfLifeMillis;
+    private final ZoneId zoneId = ZoneOffset.UTC;
+
+    private final Map<String, String> scriptShas = new ConcurrentHashMap<>();
+
+    @Autowired
+    public VisitorRankingServiceImpl(JedisPooled jedisPooled,
+                                     @Value("${visit.ranking.max-entries:500}") int maxEntries,
+                                     @Value("${visit.ranking.half-life-hours:168}") long halfLifeHours) {
+        if (maxEntries <= 0 || halfLifeHours <= 0) {
+            throw new IllegalArgumentException("Visitor ranking max entries and half-life must be positive");
+        }
+        this.jedisPooled = jedisPooled;
+        this.maxEntries = maxEntries;
+        this.halfLifeMillis = Duration.ofHours(halfLifeHours).toMillis();
+        scriptShas.put(LUA_RECORD_VISIT, jedisPooled.scriptLoad(LUA_RECORD_VISIT));
+        scriptShas.put(LUA_PRUNE, jedisPooled.scriptLoad(LUA_PRUNE));
+        scriptShas.put(LUA_FINISH_REBUILD, jedisPooled.scriptLoad(LUA_FINISH_REBUILD));
+    }
+
+    @Override
+    public void recordVisit(Long visitorId, Long targetId, LocalDateTime visitedTime) {
+        List<String> args = Arrays.asList(
+                String.valueOf(visitorId),
+                String.valueOf(visitedTime.toLocalDate().toEpochDay()),
+                String.valueOf(toEpochMillis(visitedTime)),
+                String.valueOf(windowStartMillis()),
+                String.valueOf(halfLifeMillis),
+                String.valueOf(maxEntries),
+                String.valueOf(RETENTION.toMillis()));
+
+        try {
+            evalScript(LUA_RECORD_VISIT, keys(targetId), args);
+        } catch (JedisException e) {
+            // MySQL stays the source of truth; dropping the ranking forces a rebuild instead of serving a gap.
+            log.warn("Failed to update visitor ranking of user {}, invalidating it", targetId, e);
+            invalidate(targetId);
+        }
+    }
+
+    @Override
+    public Optional<List<Visit>> findTopVisitors(long targetId, LocalDateTime since, int limit) {
+        String key = rankKey(targetId);
+        long sinceMillis = toEpochMillis(since);
+        // Visitors whose last visit is before since are skipped, so read past them in pages.
+        int pageSize = 2 * limit;
+        List<Visit> visits = new ArrayList<>(limit);
+        try {
+            Object built = evalScript(LUA_PRUNE, keys(targetId),
+                    Arrays.asList(String.valueOf(windowStartMillis()), String.valueOf(halfLifeMillis)));
+            if (!Long.valueOf(1).equals(built)) {
+                return Optional.empty();
+            }
+            for (long start = 0; visits.size() < limit; start += pageSize) {
+                List<String> visitorIds = jedisPooled.zrevrange(key, start, start + pageSize - 1);
+                if (visitorIds.isEmpty()) {
+                    break;
+                }
+                List<String> visitDays = jedisPooled.hmget(daysKey(targetId), visitorIds.toArray(new String[0]));
+                for (int i = 0; i < visitorIds.size() && visits.size() < limit; i++) {
+                    String days = visitDays.get(i);
+                    if (days == null) {
+                        continue;
+                    }
+                    // Days are stored in order, so the last one holds the last visit.
+                    long lastVisit = Long.parseLong(days.substring(days.lastIndexOf(':') + 1));
+                    if (lastVisit < sinceMillis) {
+                        continue;
+                    }
+                    visits.add(new Visit(Long.valueOf(visitorIds.get(i)), targetId,
+                            LocalDateTime.ofInstant(Instant.ofEpochMilli(lastVisit), zoneId)));
+                }
+                if (visitorIds.size() < pageSize) {
+                    break;
+                }
+            }
+        } catch (JedisException e) {
+            log.warn("Failed to read visitor ranking of user {}, falling back to MySQL", targetId, e);
+            return Optional.empty();
+        }
+        return Optional.of(visits);
+    }
+
+    @Override
+    public void prepareRebuild(long targetId) {
+        try {
+            jedisPooled.set(buildingKey(targetId), "1", SetParams.setParams().px(BUILD_TIMEOUT.toMillis()));
+        } catch (JedisException e) {
+            log.warn("Failed to mark visitor ranking of user {} as rebuilding", targetId, e);
+        }
+    }
+
+    @Override
+    public void rebuild(long targetId, Collection<Visit> latestVisitPerDay) {
+        Map<Long, Double> scores = VisitFrequency.scores(latestVisitPerDay, halfLifeMillis);
+        Map<Long, SortedMap<Long, Long>> visitDays = new HashMap<>();
+        for (Visit visit : latestVisitPerDay) {
+            visitDays.computeIfAbsent(visit.getVisitorId(), visitorId -> new TreeMap<>())
+                    .merge(visit.getVisitedTime().toLocalDate().toEpochDay(), toEpochMillis(visit.getVisitedTime()),
+                            Math::max);
+        }
+
+        List<String> args = new ArrayList<>(4 + 2 * Math.min(scores.size(), maxEntries));
+        args.add(String.valueOf(windowStartMillis()));
+        args.add(String.valueOf(halfLifeMillis));
+        args.add(String.valueOf(maxEntries));
+        args.add(String.valueOf(RETENTION.toMillis()));
+        // Only the highest ranked visitors survive the eviction, so only they are sent.
+        scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .limit(maxEntries)
+                .forEach(entry -> {
+                    args.add(String.valueOf(entry.getKey()));
+                    args.add(visitDays.get(entry.getKey()).entrySet().stream()
+                            .map(day -> day.getKey() + ":" + day.getValue())
+                            .collect(Collectors.joining(",")));
+                });
+
+        try {
+            evalScript(LUA_FINISH_REBUILD, keys(targetId), args);
+        } catch (JedisException e) {
+            log.warn("Failed to rebuild visitor ranking of user {}, invalidating it", targetId, e);
+            invalidate(targetId);
+        }
+    }
+
+    private Object evalScript(String script, List<String> keys, List<String> args) {
+        try {
+            return jedisPooled.evalsha(scriptShas.get(script), keys, args);
+        } catch (JedisNoScriptException e) {
+            String sha = jedisPooled.scriptLoad(script);
+            scriptShas.put(script, sha);
+            return jedisPooled.evalsha(sha, keys, args);
+        }
+    }
+
+    /**
+     * Start of the month the fallback ranks over; older visit days no longer count.
+     */
+    private long windowStartMillis() {
+        return toEpochMillis(UtcClock.now().minusMonths(1));
+    }
+
+    @Override
+    public void invalidate(long targetId) {
+        try {
+            jedisPooled.del(rankKey(targetId), daysKey(targetId), dueKey(targetId), buildingKey(targetId));
+        } catch (JedisException e) {
+            log.warn("Failed to invalidate visitor ranking of user {}", targetId, e);
+        }
+    }
+
+    private static String rankKey(long targetId) {
+        return VISITOR_RANK_PREFIX + targetId;
+    }
+
+    private static String daysKey(long targetId) {
+        return VISITOR_DAYS_PREFIX + targetId;
+    }
+
+    private static String dueKey(long targetId) {
+        return VISITOR_DUE_PREFIX + targetId;
+    }
+
+    private static String buildingKey(long targetId) {
+        return VISITOR_RANK_BUILDING_PREFIX + targetId;
+    }
+
+    private static List<String> keys(long targetId) {
+        return Arrays.asList(rankKey(targetId), daysKey(targetId), dueKey(targetId), buildingKey(targetId));
+    }
+
+    private long toEpochMillis(LocalDateTime time) {
+        return time.atZone(zoneId).toInstant().toEpochMilli();
+    }
+}
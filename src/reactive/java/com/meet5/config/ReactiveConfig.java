@@ -0,0 +1,85 @@
+package com.meet5.config;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.reactive.RedisReactiveCommands;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Non-blocking MySQL and Redis clients for the {@code reactive} profile.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    /**
+     * Deliberately not a bean: Spring Boot drops the JDBC DataSource as soon as a {@link ConnectionFactory}
+     * bean exists, and MyBatis still needs it for everything outside the reactive endpoints.
+     */
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient databaseClient(@Value("${reactive.r2dbc.url}") String url,
+                                         @Value("${spring.datasource.username}") String username,
+                                         @Value("${spring.datasource.password}") String password,
+                                         @Value("${reactive.r2dbc.pool-size}") int poolSize) {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .initialSize(0)
+                .maxSize(poolSize)
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    /**
+     * Transactions on the pool behind {@link #databaseClient}. The manager is not a bean for the same reason as
+     * the pool: the JDBC transaction manager has to stay the only one.
+     */
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(DatabaseClient databaseClient) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(databaseClient.getConnectionFactory()));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public RedisClient lettuceClient(@Value("${spring.redis.host}") String host,
+                                     @Value("${spring.redis.port}") int port) {
+        return RedisClient.create(RedisURI.create(host, port));
+    }
+
+    /**
+     * A single connection is enough: Lettuce pipelines the commands of all concurrent requests over it.
+     */
+    @Bean(destroyMethod = "close")
+    public StatefulRedisConnection<String, String> lettuceConnection(RedisClient lettuceClient) {
+        return lettuceClient.connect();
+    }
+
+    @Bean
+    public RedisReactiveCommands<String, String> redisReactiveCommands(
+            StatefulRedisConnection<String, String> lettuceConnection) {
+        return lettuceConnection.reactive();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
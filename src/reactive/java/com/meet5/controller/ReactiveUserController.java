@@ -0,0 +1,64 @@
+package com.meet5.controller;
+
+import com.meet5.common.enums.VisitorRanking;
+import com.meet5.pojo.dto.UserDto;
+import com.meet5.pojo.request.LikeRequest;
+import com.meet5.pojo.request.VisitRequest;
+import com.meet5.service.ReactiveUserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The {@link UserController} contract served on WebFlux; active with the {@code reactive} profile.
+ */
+@RestController
+@RequestMapping("/user")
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+
+
+    /**
+     * Records a profile visit.
+     */
+    @PostMapping("/visit")
+    public Mono<ResponseEntity<Void>> visit(@Valid @RequestBody VisitRequest request) {
+        return userService.recordVisit(request)
+                .thenReturn(ResponseEntity.ok().build());
+    }
+
+    /**
+     * Records a profile like.
+     */
+    @PostMapping("/like")
+    public Mono<ResponseEntity<Void>> like(@Valid @RequestBody LikeRequest request) {
+        return userService.recordLike(request)
+                .thenReturn(ResponseEntity.ok().build());
+    }
+
+    /**
+     * Retrieves visitors of a profile, latest first.
+     *
+     * <p>Frequency ranking and paging are not served on WebFlux yet; requests asking for them are rejected
+     * rather than answered with the full latest-first list.</p>
+     */
+    @GetMapping("/{id}/getVisitors")
+    public Mono<ResponseEntity<List<UserDto>>> getLastMonthVisitors(@PathVariable("id") long userId,
+                                                                    @RequestParam(value = "ranking", defaultValue = "RECENCY") VisitorRanking ranking,
+                                                                    @RequestParam(value = "cursor", required = false) String cursor,
+                                                                    @RequestParam(value = "limit", required = false) Integer limit) {
+        if (ranking != VisitorRanking.RECENCY || cursor != null || limit != null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return userService.getLastMonthVisitors(userId)
+                .map(ResponseEntity::ok);
+    }
+}
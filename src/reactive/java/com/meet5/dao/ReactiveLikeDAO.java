@@ -0,0 +1,50 @@
+package com.meet5.dao;
+
+import com.meet5.common.enums.LikeStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC counterpart of {@code toggleLike} in MultiStatementDAO.xml. The driver cannot send the parameterised statements
+ * as one multi-statement query, so they run as three statements in one transaction.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveLikeDAO {
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    public Mono<LikeStatus> toggleLike(Long likerId, Long targetId) {
+        Mono<Void> upsert = databaseClient.sql("""
+                        INSERT INTO likes (liker_id, target_id, status)
+                        VALUES (:likerId, :targetId, 0)
+                        ON DUPLICATE KEY UPDATE
+                        status = 1 - status,
+                        liked_time = IF(status = 0, CURRENT_TIMESTAMP, liked_time),
+                        updated_time = CURRENT_TIMESTAMP""")
+                .bind("likerId", likerId)
+                .bind("targetId", targetId)
+                .then();
+        Mono<Void> audit = databaseClient.sql("""
+                        INSERT INTO likes_log (liker_id, target_id, status)
+                        SELECT liker_id, target_id, status
+                        FROM likes
+                        WHERE liker_id = :likerId
+                        AND target_id = :targetId""")
+                .bind("likerId", likerId)
+                .bind("targetId", targetId)
+                .then();
+        Mono<LikeStatus> status = databaseClient.sql("SELECT status FROM likes WHERE liker_id = :likerId AND target_id = :targetId")
+                .bind("likerId", likerId)
+                .bind("targetId", targetId)
+                .map((row, metadata) -> LikeStatus.fromCode(row.get("status", Integer.class)))
+                .one();
+        return upsert.then(audit).then(status).as(transactionalOperator::transactional);
+    }
+}
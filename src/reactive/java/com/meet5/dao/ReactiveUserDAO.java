@@ -0,0 +1,69 @@
+package com.meet5.dao;
+
+import com.meet5.common.enums.Gender;
+import com.meet5.common.enums.RelationshipStatus;
+import com.meet5.common.enums.UserStatus;
+import com.meet5.pojo.User;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * R2DBC counterpart of the {@code updateStatus} and {@code selectNormalUsersByIdList} statements in UserDAO.xml.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveUserDAO {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Void> updateStatus(Long userId, UserStatus userStatus) {
+        return databaseClient.sql("UPDATE users SET account_status = :userStatus WHERE id = :userId")
+                .bind("userStatus", userStatus.getCode())
+                .bind("userId", userId)
+                .then();
+    }
+
+    public Flux<User> selectNormalUsersByIdList(List<Long> ids) {
+        return databaseClient.sql("""
+                        SELECT id, name, job, gender, birthday, location_id, account_status, relationship_status,
+                               profile_picture_id, created_time, created_by, updated_time, updated_by
+                        FROM users
+                        WHERE id IN (:ids)
+                        AND account_status = :active""")
+                .bind("ids", ids)
+                .bind("active", UserStatus.ACTIVE.getCode())
+                .map((row, metadata) -> toUser(row))
+                .all();
+    }
+
+    private static User toUser(Row row) {
+        Integer gender = row.get("gender", Integer.class);
+        Integer accountStatus = row.get("account_status", Integer.class);
+        Integer relationshipStatus = row.get("relationship_status", Integer.class);
+        return User.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .job(row.get("job", String.class))
+                .gender(gender == null ? null : Gender.fromCode(gender))
+                .birthday(row.get("birthday", LocalDate.class))
+                .locationId(row.get("location_id", Integer.class))
+                .accountStatus(accountStatus == null ? null : UserStatus.fromCode(accountStatus))
+                .relationshipStatus(relationshipStatus == null ? null : RelationshipStatus.fromCode(relationshipStatus))
+                .profilePictureId(row.get("profile_picture_id", Long.class))
+                .createdTime(row.get("created_time", LocalDateTime.class))
+                .createdBy(row.get("created_by", String.class))
+                .updatedTime(row.get("updated_time", LocalDateTime.class))
+                .updatedBy(row.get("updated_by", String.class))
+                .build();
+    }
+}
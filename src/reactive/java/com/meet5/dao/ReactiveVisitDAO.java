@@ -0,0 +1,49 @@
+package com.meet5.dao;
+
+import com.meet5.pojo.Visit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC counterpart of the {@code recordVisit} and {@code findLatestVisitsPerDay} statements in VisitDAO.xml.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveVisitDAO {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Void> recordVisit(Long visitorId, Long targetId) {
+        return databaseClient.sql("INSERT INTO visits (visitor_id, target_id) VALUES (:visitorId, :targetId)")
+                .bind("visitorId", visitorId)
+                .bind("targetId", targetId)
+                .then();
+    }
+
+    public Flux<Visit> findLatestVisitsPerDay(long targetId, LocalDateTime since, int limit) {
+        return databaseClient.sql("""
+                        SELECT visitor_id, MAX(visited_time) AS visited_time
+                        FROM visits
+                        WHERE target_id = :targetId
+                        AND visited_time >= :since
+                        GROUP BY visitor_id, DATE(visited_time)
+                        ORDER BY MAX(visited_time) DESC, visitor_id DESC
+                        LIMIT :limit""")
+                .bind("targetId", targetId)
+                .bind("since", since)
+                .bind("limit", limit)
+                .map((row, metadata) -> Visit.builder()
+                        .visitorId(row.get("visitor_id", Long.class))
+                        .targetId(targetId)
+                        .visitedTime(row.get("visited_time", LocalDateTime.class))
+                        .build())
+                .all();
+    }
+}
@@ -0,0 +1,13 @@
+package com.meet5.service;
+
+import com.meet5.common.enums.OperationType;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveRiskManagementService {
+
+    /**
+     * Counts one operation against the same per-type Redis counter as
+     * {@link RiskManagementService#checkSensitiveBehavior(Long, OperationType)}.
+     */
+    Mono<Boolean> checkSensitiveBehavior(Long userId, OperationType operationType);
+}
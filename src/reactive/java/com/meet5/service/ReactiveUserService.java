@@ -0,0 +1,19 @@
+package com.meet5.service;
+
+import com.meet5.pojo.dto.UserDto;
+import com.meet5.pojo.request.LikeRequest;
+import com.meet5.pojo.request.VisitRequest;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking variant of {@link UserService} with the same semantics.
+ */
+public interface ReactiveUserService {
+    Mono<Void> recordVisit(VisitRequest request);
+
+    Mono<Void> recordLike(LikeRequest request);
+
+    Mono<List<UserDto>> getLastMonthVisitors(long userId);
+}
@@ -0,0 +1,53 @@
+package com.meet5.service.impl;
+
+import com.meet5.common.enums.OperationType;
+import com.meet5.config.RiskProperties;
+import com.meet5.service.ReactiveRiskManagementService;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.reactive.RedisReactiveCommands;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Evaluates the sliding-window script of {@link RiskManagementServiceImpl} over Lettuce, so both variants
+ * share keys and limits. Lettuce already pipelines concurrent commands on its one connection, so there is
+ * no counterpart of the batching and hybrid modes.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveRiskManagementServiceImpl implements ReactiveRiskManagementService {
+
+    private final RedisReactiveCommands<String, String> redisReactiveCommands;
+
+    private final RiskProperties riskProperties;
+
+    private volatile String scriptSha;
+
+    @Override
+    public Mono<Boolean> checkSensitiveBehavior(Long userId, OperationType operationType) {
+        RiskProperties.Limit limit = riskProperties.limitOf(operationType);
+        String[] keys = {RiskManagementServiceImpl.operationKey(userId, operationType)};
+        String[] args = RiskManagementServiceImpl.scriptArgs(limit, 1).toArray(String[]::new);
+
+        Mono<String> sha = scriptSha != null ? Mono.just(scriptSha) : loadScript();
+        return sha.flatMap(loaded -> evalsha(loaded, keys, args))
+                .onErrorResume(RedisNoScriptException.class,
+                        e -> loadScript().flatMap(loaded -> evalsha(loaded, keys, args)))
+                .map(total -> total >= limit.getLimit());
+    }
+
+    private Mono<Long> evalsha(String sha, String[] keys, String[] args) {
+        return redisReactiveCommands.<Long>evalsha(sha, ScriptOutputType.INTEGER, keys, args)
+                .next()
+                .defaultIfEmpty(0L);
+    }
+
+    private Mono<String> loadScript() {
+        return redisReactiveCommands.scriptLoad(RiskManagementServiceImpl.LUA_SLIDING_WINDOW_COUNTER)
+                .doOnNext(sha -> scriptSha = sha);
+    }
+}
@@ -0,0 +1,100 @@
+package com.meet5.service.impl;
+
+import com.meet5.common.enums.LikeStatus;
+import com.meet5.common.enums.OperationType;
+import com.meet5.common.enums.UserStatus;
+import com.meet5.common.utils.UtcClock;
+import com.meet5.dao.ReactiveLikeDAO;
+import com.meet5.dao.ReactiveUserDAO;
+import com.meet5.dao.ReactiveVisitDAO;
+import com.meet5.pojo.Visit;
+import com.meet5.pojo.dto.UserDto;
+import com.meet5.pojo.request.LikeRequest;
+import com.meet5.pojo.request.VisitRequest;
+import com.meet5.service.ReactiveRiskManagementService;
+import com.meet5.service.ReactiveUserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Same flow as {@link UserServiceImpl} on R2DBC and Lettuce. The optional write-behind, visitor feed and
+ * profile cache are not available here; visits and visitors always go to MySQL.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+    @Autowired
+    private ReactiveUserDAO userDAO;
+    @Autowired
+    private ReactiveLikeDAO likeDAO;
+    @Autowired
+    private ReactiveVisitDAO visitDAO;
+
+    @Autowired
+    private ReactiveRiskManagementService riskManagementService;
+
+
+    @Override
+    public Mono<Void> recordVisit(VisitRequest request) {
+        Objects.requireNonNull(request, "VisitRequest cannot be null");
+
+        Long visitorId = Objects.requireNonNull(request.getVisitorId(), "Visitor ID cannot be null");
+        Long targetId = Objects.requireNonNull(request.getTargetId(), "Target ID cannot be null");
+
+        if (visitorId.equals(targetId)) {
+            return Mono.empty();
+        }
+
+        return visitDAO.recordVisit(visitorId, targetId)
+                .then(checkSensitiveBehavior(visitorId, OperationType.VISIT));
+    }
+
+    private Mono<Void> checkSensitiveBehavior(Long userId, OperationType operationType) {
+        return riskManagementService.checkSensitiveBehavior(userId, operationType)
+                .flatMap(sensitive -> sensitive ? userDAO.updateStatus(userId, UserStatus.FRAUD) : Mono.empty());
+    }
+
+    @Override
+    public Mono<Void> recordLike(LikeRequest request) {
+        Objects.requireNonNull(request, "LikeRequest cannot be null");
+
+        Long likerId = Objects.requireNonNull(request.getLikerId(), "Liker ID cannot be null");
+        Long targetId = Objects.requireNonNull(request.getTargetId(), "Target ID cannot be null");
+
+        return likeDAO.toggleLike(likerId, targetId)
+                .flatMap(status -> status == LikeStatus.LIKED
+                        ? checkSensitiveBehavior(likerId, OperationType.LIKE)
+                        : Mono.empty());
+    }
+
+    /**
+     * See {@link UserServiceImpl#getLastMonthVisitors(long)}; the per-day grouping and the limit run in MySQL as
+     * there.
+     */
+    @Override
+    public Mono<List<UserDto>> getLastMonthVisitors(long userId) {
+        LocalDateTime monthAgo = UtcClock.now().minusMonths(1);
+
+        return visitDAO.findLatestVisitsPerDay(userId, monthAgo, UserServiceImpl.MAX_VISITORS)
+                .collectList()
+                .flatMap(topVisits -> {
+                    if (topVisits.isEmpty()) {
+                        return Mono.just(List.<UserDto>of());
+                    }
+                    List<Long> visitorIds = topVisits.stream()
+                            .map(Visit::getVisitorId)
+                            .distinct()
+                            .toList();
+                    return userDAO.selectNormalUsersByIdList(visitorIds)
+                            .collectList()
+                            .map(visitors -> UserServiceImpl.joinVisitors(topVisits, visitors));
+                });
+    }
+}
@@ -0,0 +1,102 @@
+package com.meet5.service.unitTest;
+
+import com.meet5.common.enums.LikeStatus;
+import com.meet5.common.enums.OperationType;
+import com.meet5.common.enums.UserStatus;
+import com.meet5.dao.ReactiveLikeDAO;
+import com.meet5.dao.ReactiveUserDAO;
+import com.meet5.dao.ReactiveVisitDAO;
+import com.meet5.pojo.User;
+import com.meet5.pojo.Visit;
+import com.meet5.pojo.dto.UserDto;
+import com.meet5.pojo.request.LikeRequest;
+import com.meet5.pojo.request.VisitRequest;
+import com.meet5.service.ReactiveRiskManagementService;
+import com.meet5.service.impl.ReactiveUserServiceImpl;
+import com.meet5.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveUserServiceImplTest {
+
+    @InjectMocks
+    private ReactiveUserServiceImpl userService;
+
+    @Mock
+    private ReactiveUserDAO userDAO;
+    @Mock
+    private ReactiveLikeDAO likeDAO;
+    @Mock
+    private ReactiveVisitDAO visitDAO;
+    @Mock
+    private ReactiveRiskManagementService riskManagementService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(visitDAO.recordVisit(anyLong(), anyLong())).thenReturn(Mono.empty());
+        when(userDAO.updateStatus(anyLong(), any())).thenReturn(Mono.empty());
+        when(riskManagementService.checkSensitiveBehavior(anyLong(), any())).thenReturn(Mono.just(false));
+    }
+
+    @Test
+    void recordVisit_sameUser_nothingRecorded() {
+        userService.recordVisit(new VisitRequest(1L, 1L)).block();
+
+        verifyNoInteractions(visitDAO, riskManagementService);
+    }
+
+    @Test
+    void recordVisit_sensitiveBehavior_marksUserAsFraud() {
+        when(riskManagementService.checkSensitiveBehavior(1L, OperationType.VISIT)).thenReturn(Mono.just(true));
+
+        userService.recordVisit(new VisitRequest(1L, 2L)).block();
+
+        verify(visitDAO).recordVisit(1L, 2L);
+        verify(userDAO).updateStatus(1L, UserStatus.FRAUD);
+    }
+
+    @Test
+    void recordLike_cancelled_skipsRiskCheck() {
+        when(likeDAO.toggleLike(1L, 2L)).thenReturn(Mono.just(LikeStatus.CANCELED));
+
+        userService.recordLike(new LikeRequest(1L, 2L)).block();
+
+        verify(likeDAO).toggleLike(1L, 2L);
+        verifyNoInteractions(riskManagementService);
+    }
+
+    @Test
+    void recordLike_liked_checksRisk() {
+        when(likeDAO.toggleLike(1L, 2L)).thenReturn(Mono.just(LikeStatus.LIKED));
+
+        userService.recordLike(new LikeRequest(1L, 2L)).block();
+
+        verify(riskManagementService).checkSensitiveBehavior(1L, OperationType.LIKE);
+    }
+
+    @Test
+    void getLastMonthVisitors_keepsVisitOrderOfTopVisits() {
+        LocalDateTime noon = LocalDateTime.now().withHour(12).withMinute(0).withSecond(0).withNano(0);
+        when(visitDAO.findLatestVisitsPerDay(eq(1L), any(), eq(UserServiceImpl.MAX_VISITORS))).thenReturn(Flux.just(
+                new Visit(2L, 1L, noon.minusHours(1)),
+                new Visit(3L, 1L, noon.minusDays(1))));
+        User two = User.builder().id(2L).name("two").build();
+        User three = User.builder().id(3L).name("three").build();
+        when(userDAO.selectNormalUsersByIdList(List.of(2L, 3L))).thenReturn(Flux.just(three, two));
+
+        List<UserDto> visitors = userService.getLastMonthVisitors(1L).block();
+
+        assertEquals(List.of(2L, 3L), visitors.stream().map(UserDto::getId).toList());
+        assertEquals(noon.minusHours(1), visitors.get(0).getVisitedTime());
+    }
+}
@@ -0,0 +1,95 @@
+package com.meet5.common.redis;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RedisScriptBatcherTest {
+
+    @Mock
+    private JedisPooled jedisPooled;
+    @Mock
+    private Pipeline pipeline;
+
+    private RedisScriptBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jedisPooled.scriptLoad(anyString())).thenReturn("sha1", "sha2");
+        when(jedisPooled.pipelined()).thenReturn(pipeline);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Response<Object> reply(Object value) {
+        Response<Object> response = mock(Response.class);
+        when(response.get()).thenReturn(value);
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Response<Object> noScript() {
+        Response<Object> response = mock(Response.class);
+        when(response.get()).thenThrow(new JedisNoScriptException("NOSCRIPT No matching script"));
+        return response;
+    }
+
+    @Test
+    void submit_concurrentCalls_sharePipelineAndGetOwnResults() {
+        // Each call's reply echoes its first argument.
+        when(pipeline.evalsha(anyString(), anyList(), anyList()))
+                .thenAnswer(invocation -> reply(((List<?>) invocation.getArgument(2)).get(0)));
+        batcher = new RedisScriptBatcher(jedisPooled, "return 1", 64, 50_000, 128, 1);
+
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(batcher.submit(List.of("key" + i), List.of(String.valueOf(i))));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(String.valueOf(i), futures.get(i).join());
+        }
+        verify(jedisPooled, atMost(2)).pipelined();
+    }
+
+    @Test
+    void submit_scriptFlushed_reloadsAndRetriesOnlyFailedCalls() {
+        when(pipeline.evalsha(eq("sha1"), anyList(), anyList())).thenAnswer(invocation -> noScript());
+        when(pipeline.evalsha(eq("sha2"), anyList(), anyList())).thenAnswer(invocation -> reply(1L));
+        batcher = new RedisScriptBatcher(jedisPooled, "return 1", 64, 0, 128, 1);
+
+        assertEquals(1L, batcher.submit(List.of("key"), List.of("1")).join());
+        verify(jedisPooled, times(2)).scriptLoad("return 1");
+    }
+
+    @Test
+    void submit_pipelineFails_completesExceptionally() {
+        doThrow(new RuntimeException("Connection reset")).when(pipeline).sync();
+        when(pipeline.evalsha(anyString(), anyList(), anyList())).thenAnswer(invocation -> reply(1L));
+        batcher = new RedisScriptBatcher(jedisPooled, "return 1", 64, 0, 128, 1);
+
+        CompletableFuture<Object> future = batcher.submit(List.of("key"), List.of("1"));
+
+        Exception thrown = assertThrows(Exception.class, future::join);
+        assertTrue(thrown.getCause().getMessage().contains("Connection reset"));
+    }
+}
@@ -0,0 +1,25 @@
+package com.meet5.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecayedScoreTest {
+
+    private static final long HALF_LIFE = 1_000;
+
+    @Test
+    void add_twoEqualEventsCountLikeOneEventOneHalfLifeLater() {
+        double twoNow = DecayedScore.add(DecayedScore.of(5_000, HALF_LIFE), DecayedScore.of(5_000, HALF_LIFE));
+
+        assertEquals(DecayedScore.of(6_000, HALF_LIFE), twoNow, 1e-9);
+    }
+
+    @Test
+    void add_farApartScores_doNotOverflow() {
+        double score = DecayedScore.add(DecayedScore.of(Long.MAX_VALUE, 1), 0);
+
+        assertTrue(Double.isFinite(score));
+        assertEquals((double) Long.MAX_VALUE, score, 1);
+    }
+}
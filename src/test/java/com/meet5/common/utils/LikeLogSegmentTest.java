@@ -0,0 +1,114 @@
+package com.meet5.common.utils;
+
+import com.meet5.pojo.LikesLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LikeLogSegmentTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    private static LikesLog row(long id, long likerId, long targetId, LocalDateTime createdTime, int status) {
+        LikesLog likesLog = new LikesLog();
+        likesLog.setId(id);
+        likesLog.setLikerId(likerId);
+        likesLog.setTargetId(targetId);
+        likesLog.setCreatedTime(createdTime);
+        likesLog.setStatus(status);
+        return likesLog;
+    }
+
+    /**
+     * What {@code LikeLogDAO.selectByLiker} returns from the live table.
+     */
+    private static List<LikesLog> live(List<LikesLog> rows, long likerId, LocalDateTime from, LocalDateTime to) {
+        return rows.stream()
+                .filter(row -> row.getLikerId() == likerId)
+                .filter(row -> !row.getCreatedTime().isBefore(from) && row.getCreatedTime().isBefore(to))
+                .sorted(Comparator.comparing(LikesLog::getId))
+                .toList();
+    }
+
+    private static List<LikesLog> archived(LikeLogSegment segment, long likerId, LocalDateTime from, LocalDateTime to) {
+        List<LikesLog> found = new ArrayList<>();
+        segment.find(likerId, from, to, found::add);
+        found.sort(Comparator.comparing(LikesLog::getId));
+        return found;
+    }
+
+    @Test
+    void find_returnsSameRowsAsLiveTable() throws IOException {
+        Random random = new Random(7);
+        List<LikesLog> rows = new ArrayList<>();
+        LocalDateTime time = START;
+        for (long id = 1; id <= 20_000; id++) {
+            time = time.plusSeconds(random.nextInt(60)).plusNanos(random.nextInt(1_000) * 1_000L);
+            rows.add(row(id, 1 + random.nextInt(300), 1 + random.nextInt(100_000), time, random.nextInt(2)));
+        }
+        Path file = directory.resolve("likes_log-1-20000.seg");
+
+        LikeLogSegment.write(file, rows, 256);
+        LikeLogSegment segment = LikeLogSegment.open(file);
+
+        assertEquals(20_000, segment.getRowCount());
+        assertEquals(1, segment.getMinId());
+        assertEquals(20_000, segment.getMaxId());
+        for (long likerId = 0; likerId <= 301; likerId += 7) {
+            LocalDateTime from = START.plusHours(random.nextInt(72));
+            LocalDateTime to = from.plusHours(1 + random.nextInt(72));
+            assertEquals(live(rows, likerId, from, to), archived(segment, likerId, from, to));
+        }
+        assertEquals(live(rows, 42, START, time.plusSeconds(1)), archived(segment, 42, START, time.plusSeconds(1)));
+    }
+
+    @Test
+    void find_boundsAreInclusiveFromExclusiveTo() throws IOException {
+        List<LikesLog> rows = List.of(
+                row(1, 5, 9, START, 0),
+                row(2, 5, 9, START.plusMinutes(1), 1),
+                row(3, 5, 9, START.plusMinutes(2), 0));
+        Path file = directory.resolve("likes_log-1-3.seg");
+        LikeLogSegment.write(file, rows, 2);
+
+        LikeLogSegment segment = LikeLogSegment.open(file);
+
+        assertEquals(List.of(rows.get(0), rows.get(1)), archived(segment, 5, START, START.plusMinutes(2)));
+        assertEquals(List.of(), archived(segment, 6, START, START.plusMinutes(2)));
+    }
+
+    @Test
+    void write_compressesBelowRawSize() throws IOException {
+        List<LikesLog> rows = new ArrayList<>();
+        for (long id = 1; id <= 10_000; id++) {
+            rows.add(row(id, id % 50, 1_000 + id % 200, START.plusSeconds(id), (int) (id % 2)));
+        }
+        Path file = directory.resolve("likes_log-1-10000.seg");
+
+        LikeLogSegment.write(file, rows, 4096);
+
+        // id, liker id, target id and a timestamp as BIGINT-sized fields plus a status byte
+        assertTrue(Files.size(file) < rows.size() * 33L / 4);
+        assertFalse(Files.exists(directory.resolve("likes_log-1-10000.seg.tmp")));
+    }
+
+    @Test
+    void open_notASegment_throws() throws IOException {
+        Path file = Files.writeString(directory.resolve("likes_log-1-1.seg"), "not a segment at all, just some text");
+
+        assertThrows(IOException.class, () -> LikeLogSegment.open(file));
+    }
+}
@@ -0,0 +1,43 @@
+package com.meet5.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void add_beyondExpectedSize_growsAndMatchesHashSet() {
+        LongHashSet set = new LongHashSet(2);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextInt(5_000) - 2_500;
+            assertEquals(expected.add(value), set.add(value));
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (long value = -2_600; value < 2_600; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+    }
+
+    @Test
+    void clear_removesAllValuesIncludingZero() {
+        LongHashSet set = new LongHashSet(4);
+        set.add(0);
+        set.add(Long.MIN_VALUE);
+
+        set.clear();
+
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(Long.MIN_VALUE));
+        assertTrue(set.add(0));
+    }
+}
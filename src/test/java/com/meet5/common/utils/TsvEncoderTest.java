@@ -0,0 +1,48 @@
+package com.meet5.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TsvEncoderTest {
+
+    private static String read(TsvEncoder encoder) throws IOException {
+        return new String(encoder.toInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void encodesNumbersDatesAndNulls() throws IOException {
+        TsvEncoder encoder = new TsvEncoder(16);
+
+        encoder.value(1L).value(2L).value(LocalDateTime.of(2026, 3, 4, 5, 6, 7, 8_000)).value(0).endRow();
+        encoder.value(3L).value((Long) null).value((LocalDateTime) null).value((Integer) null).endRow();
+
+        assertEquals("1\t2\t2026-03-04 05:06:07.000008\t0\n3\t\\N\t\\N\t\\N\n", read(encoder));
+        assertEquals(2, encoder.rows());
+    }
+
+    @Test
+    void escapesSeparatorsInStrings() throws IOException {
+        TsvEncoder encoder = new TsvEncoder(4);
+
+        encoder.value("a\tb\nc\\d \u00e9").endRow();
+
+        assertEquals("a\\tb\\nc\\\\d \u00e9\n", read(encoder));
+    }
+
+    @Test
+    void reset_startsNewChunk() throws IOException {
+        TsvEncoder encoder = new TsvEncoder(16);
+        encoder.value(1L).endRow();
+
+        encoder.reset();
+        encoder.value(2L).endRow();
+
+        assertEquals("2\n", read(encoder));
+        assertEquals(1, encoder.rows());
+    }
+}
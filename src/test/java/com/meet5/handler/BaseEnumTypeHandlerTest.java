@@ -0,0 +1,51 @@
+package com.meet5.handler;
+
+import com.meet5.common.enums.RelationshipStatus;
+import com.meet5.common.enums.UserStatus;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BaseEnumTypeHandlerTest {
+
+    @Test
+    void getNullableResult_mapsEveryCodeToItsConstant() throws SQLException {
+        RelationshipStatusHandler handler = new RelationshipStatusHandler();
+        ResultSet rs = mock(ResultSet.class);
+
+        for (RelationshipStatus status : RelationshipStatus.values()) {
+            when(rs.getInt("relationship_status")).thenReturn(status.getCode());
+            assertEquals(status, handler.getNullableResult(rs, "relationship_status"));
+        }
+    }
+
+    @Test
+    void getNullableResult_sqlNull_returnsNull() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.wasNull()).thenReturn(true);
+
+        assertNull(new UserStatusHandler().getNullableResult(rs, 1));
+    }
+
+    @Test
+    void getNullableResult_unknownCode_throwsException() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getInt(1)).thenReturn(7);
+
+        assertThrows(IllegalArgumentException.class, () -> new UserStatusHandler().getNullableResult(rs, 1));
+    }
+
+    @Test
+    void setNonNullParameter_bindsCode() throws SQLException {
+        PreparedStatement ps = mock(PreparedStatement.class);
+
+        new UserStatusHandler().setNonNullParameter(ps, 2, UserStatus.FRAUD, null);
+
+        verify(ps).setInt(2, 1);
+    }
+}
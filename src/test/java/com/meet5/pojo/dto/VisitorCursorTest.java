@@ -0,0 +1,24 @@
+package com.meet5.pojo.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VisitorCursorTest {
+
+    @Test
+    void decode_encodedCursor_roundTrips() {
+        VisitorCursor cursor = new VisitorCursor(LocalDateTime.of(2026, 10, 1, 12, 30, 15), 42L);
+
+        assertEquals(cursor, VisitorCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decode_invalidToken_returnsNull() {
+        assertNull(VisitorCursor.decode("not a cursor"));
+        assertNull(VisitorCursor.decode(""));
+        assertNull(VisitorCursor.decode("MjAyNi0xMC0wMVQxMjozMA"));
+    }
+}
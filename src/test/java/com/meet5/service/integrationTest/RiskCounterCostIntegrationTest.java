@@ -0,0 +1,98 @@
+package com.meet5.service.integrationTest;
+
+import com.meet5.common.enums.OperationType;
+import com.meet5.service.RiskManagementService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the Redis CPU time and key memory of the sliding-window counter with the former fixed-window
+ * {@code INCR}/{@code EXPIRE} counter. Run with {@code -Dbenchmark=true} against a dedicated Redis; the
+ * CPU figures come from {@code INFO cpu} and include anything else the server does meanwhile.
+ */
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RiskCounterCostIntegrationTest {
+
+    private static final String FIXED_WINDOW_COUNTER =
+            "local cnt = redis.call('INCR', KEYS[1]);"
+                    + "if cnt == 1 then redis.call('EXPIRE', KEYS[1], tonumber(ARGV[1])); end;"
+                    + "if cnt >= tonumber(ARGV[2]) then return 1 else return 0 end;";
+
+    private static final int USERS = 2_000;
+    private static final int OPERATIONS_PER_USER = 50;
+
+    @Autowired
+    private RiskManagementService riskManagementService;
+
+    @Autowired
+    private JedisPooled jedisPooled;
+
+    @BeforeEach
+    void setup() {
+        jedisPooled.flushDB();
+    }
+
+    @Test
+    void compareFixedAndSlidingWindowCost() {
+        String sha = jedisPooled.scriptLoad(FIXED_WINDOW_COUNTER);
+        double cpuBefore = usedCpuSeconds();
+        for (int op = 0; op < OPERATIONS_PER_USER; op++) {
+            for (long userId = 0; userId < USERS; userId++) {
+                jedisPooled.evalsha(sha, List.of("bench:fixed:" + userId), List.of("600", "100"));
+            }
+        }
+        double fixedCpu = usedCpuSeconds() - cpuBefore;
+        long fixedMemory = memoryOf("bench:fixed:*");
+
+        cpuBefore = usedCpuSeconds();
+        for (int op = 0; op < OPERATIONS_PER_USER; op++) {
+            for (long userId = 0; userId < USERS; userId++) {
+                riskManagementService.checkSensitiveBehavior(userId, OperationType.VISIT);
+            }
+        }
+        double slidingCpu = usedCpuSeconds() - cpuBefore;
+        long slidingMemory = memoryOf("user:operation:visit:*");
+
+        long calls = (long) USERS * OPERATIONS_PER_USER;
+        log.info("fixed window: {} us CPU/call, {} bytes/key", String.format("%.1f", fixedCpu * 1e6 / calls),
+                fixedMemory / USERS);
+        log.info("sliding window: {} us CPU/call, {} bytes/key", String.format("%.1f", slidingCpu * 1e6 / calls),
+                slidingMemory / USERS);
+
+        assertTrue(fixedCpu > 0 && slidingCpu > 0, "Redis reported no CPU time for the measured calls");
+        assertTrue(fixedMemory > 0 && slidingMemory > 0, "no counter keys were found");
+    }
+
+    private double usedCpuSeconds() {
+        String info = SafeEncoder.encode((byte[]) jedisPooled.sendCommand(Protocol.Command.INFO, "cpu"));
+        double total = 0;
+        for (String line : info.split("\r\n")) {
+            if (line.startsWith("used_cpu_sys:") || line.startsWith("used_cpu_user:")) {
+                total += Double.parseDouble(line.substring(line.indexOf(':') + 1));
+            }
+        }
+        return total;
+    }
+
+    private long memoryOf(String pattern) {
+        long total = 0;
+        for (String key : jedisPooled.keys(pattern)) {
+            Long usage = jedisPooled.memoryUsage(key);
+            total += usage == null ? 0 : usage;
+        }
+        return total;
+    }
+}
@@ -1,5 +1,6 @@
 package com.meet5.service.integrationTest;
 
+import com.meet5.common.enums.OperationType;
 import com.meet5.service.RiskManagementService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -133,6 +134,36 @@ class RiskManagementServiceImplIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Operation Type Tests")
+    class OperationTypeTests {
+
+        @Test
+        @DisplayName("Should count each operation type separately")
+        void shouldCountOperationTypesSeparately() {
+            Long userId = 9L;
+
+            for (int i = 0; i < LIMIT_COUNT - 1; i++) {
+                riskManagementService.checkSensitiveBehavior(userId, OperationType.VISIT);
+            }
+
+            assertFalse(riskManagementService.checkSensitiveBehavior(userId, OperationType.LIKE),
+                    "Likes should not be affected by visits");
+            assertTrue(riskManagementService.checkSensitiveBehavior(userId, OperationType.VISIT),
+                    "Visits should trigger at their own limit");
+        }
+
+        @Test
+        @DisplayName("Should reset counters left by the fixed-window implementation")
+        void shouldResetLegacyStringCounter() {
+            Long userId = 10L;
+            jedisPooled.setex(USER_OPERATION_PREFIX + userId, EXPIRE_SECONDS, String.valueOf(LIMIT_COUNT * 2));
+
+            assertFalse(riskManagementService.checkSensitiveBehavior(userId));
+            assertEquals("hash", jedisPooled.type(USER_OPERATION_PREFIX + userId));
+        }
+    }
+
     @Nested
     @DisplayName("Concurrency Tests")
     class ConcurrencyTests {
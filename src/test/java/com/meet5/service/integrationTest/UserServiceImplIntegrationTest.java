@@ -2,15 +2,17 @@ package com.meet5.service.integrationTest;
 
 import com.meet5.common.enums.Gender;
 import com.meet5.common.enums.LikeStatus;
+import com.meet5.common.enums.OperationType;
 import com.meet5.pojo.dto.UserDto;
 import com.meet5.service.impl.UserServiceImpl;
 import com.meet5.dao.*;
-import com.meet5.pojo.Like;
 import com.meet5.pojo.User;
 import com.meet5.pojo.Visit;
 import com.meet5.pojo.request.LikeRequest;
 import com.meet5.pojo.request.VisitRequest;
 import com.meet5.service.RiskManagementService;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -49,12 +51,15 @@ public class UserServiceImplIntegrationTest {
     @MockBean
     private VisitDAO visitDAO;
 
+    @MockBean
+    private MultiStatementDAO multiStatementDAO;
+
     @MockBean
     private RiskManagementService riskManagementService;
 
     @BeforeEach
     public void setup() {
-        reset(userDAO, likeDAO, likeLogDAO, visitDAO, riskManagementService);
+        reset(userDAO, likeDAO, likeLogDAO, visitDAO, multiStatementDAO, riskManagementService);
     }
 
 
@@ -120,12 +125,12 @@ public class UserServiceImplIntegrationTest {
     public void testRecordLike_newLike() {
         LikeRequest request = new LikeRequest(1L, 2L);
 
-        when(likeDAO.selectLikeByLikeRequest(any())).thenReturn(null);
+        when(multiStatementDAO.toggleLike(any())).thenReturn(LikeStatus.LIKED);
 
         userService.recordLike(request);
 
-        verify(likeDAO, times(1)).recordLike(1L, 2L);
-        verify(likeLogDAO, times(1)).insert(any(Like.class));
+        verify(multiStatementDAO, times(1)).toggleLike(request);
+        verify(riskManagementService, times(1)).checkSensitiveBehavior(1L, OperationType.LIKE);
     }
 
     /**
@@ -134,19 +139,13 @@ public class UserServiceImplIntegrationTest {
      */
     @Test
     public void testRecordLike_existingLike() {
-        Like existingLike = Like.builder()
-                .likerId(1L)
-                .targetId(2L)
-                .status(LikeStatus.LIKED)
-                .build();
-
         LikeRequest request = new LikeRequest(1L, 2L);
-        when(likeDAO.selectLikeByLikeRequest(any())).thenReturn(existingLike);
+        when(multiStatementDAO.toggleLike(any())).thenReturn(LikeStatus.CANCELED);
 
         userService.recordLike(request);
 
-        verify(likeDAO, times(1)).updateStatus(existingLike);
-        verify(likeLogDAO, times(1)).insert(existingLike);
+        verify(multiStatementDAO, times(1)).toggleLike(request);
+        verify(riskManagementService, never()).checkSensitiveBehavior(anyLong(), any());
     }
 
     /**
@@ -166,7 +165,7 @@ public class UserServiceImplIntegrationTest {
     public void testRecordLike_concurrentAccess() throws InterruptedException, ExecutionException {
         LikeRequest request = new LikeRequest(1L, 2L);
 
-        when(likeDAO.selectLikeByLikeRequest(any())).thenReturn(null);
+        when(multiStatementDAO.toggleLike(any())).thenReturn(LikeStatus.LIKED, LikeStatus.CANCELED);
 
         ExecutorService executor = Executors.newFixedThreadPool(2);
         Future<?> f1 = executor.submit(() -> userService.recordLike(request));
@@ -175,8 +174,7 @@ public class UserServiceImplIntegrationTest {
         f1.get();
         f2.get();
 
-        verify(likeDAO, atLeast(2)).recordLike(1L, 2L);
-        verify(likeLogDAO, atLeast(2)).insert(any(Like.class));
+        verify(multiStatementDAO, times(2)).toggleLike(request);
     }
 
 
@@ -187,7 +185,7 @@ public class UserServiceImplIntegrationTest {
     @Test
     public void testGetLastMonthVisitors_normalCase() {
         List<Visit> visits = generateVisits(15);
-        when(visitDAO.findRecentVisits(anyLong(), any())).thenReturn(visits);
+        stubVisitScan(visits);
 
         List<User> users = generateUsers(15);
         when(userDAO.selectNormalUsersByIdList(anyList())).thenReturn(users);
@@ -204,7 +202,7 @@ public class UserServiceImplIntegrationTest {
      */
     @Test
     public void testGetLastMonthVisitors_noVisits() {
-        when(visitDAO.findRecentVisits(anyLong(), any())).thenReturn(Collections.emptyList());
+        stubVisitScan(Collections.emptyList());
 
         List<UserDto> result = userService.getLastMonthVisitors(1L);
 
@@ -218,7 +216,7 @@ public class UserServiceImplIntegrationTest {
     @Test
     public void testGetLastMonthVisitors_concurrentAccess() throws InterruptedException, ExecutionException {
         List<Visit> visits = generateVisits(20);
-        when(visitDAO.findRecentVisits(anyLong(), any())).thenReturn(visits);
+        stubVisitScan(visits);
 
         List<User> users = generateUsers(20);
         when(userDAO.selectNormalUsersByIdList(anyList())).thenReturn(users);
@@ -231,6 +229,24 @@ public class UserServiceImplIntegrationTest {
         assertNotNull(f2.get());
     }
 
+    /**
+     * Helper method to hand the given visits to every visit scan until its handler stops.
+     */
+    private void stubVisitScan(List<Visit> visits) {
+        doAnswer(invocation -> {
+            ResultHandler<Visit> handler = invocation.getArgument(5);
+            DefaultResultContext<Visit> context = new DefaultResultContext<>();
+            for (Visit visit : visits) {
+                if (context.isStopped()) {
+                    break;
+                }
+                context.nextResultObject(visit);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(visitDAO).scanVisits(anyLong(), any(), any(), any(), anyInt(), any());
+    }
+
     /**
      * Helper method to generate dummy Visits.
      */
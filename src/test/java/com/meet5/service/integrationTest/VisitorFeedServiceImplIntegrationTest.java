@@ -0,0 +1,79 @@
+package com.meet5.service.integrationTest;
+
+import com.meet5.pojo.Visit;
+import com.meet5.service.impl.VisitorFeedServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import redis.clients.jedis.JedisPooled;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the visitor feed scripts against Redis.
+ */
+@SpringBootTest
+class VisitorFeedServiceImplIntegrationTest {
+
+    @Autowired
+    private JedisPooled jedisPooled;
+
+    private VisitorFeedServiceImpl visitorFeedService;
+
+    @BeforeEach
+    void setup() {
+        jedisPooled.flushDB();
+        visitorFeedService = new VisitorFeedServiceImpl(jedisPooled, 500);
+    }
+
+    @Test
+    void recordVisit_missingFeed_isNotCreated() {
+        visitorFeedService.recordVisit(2L, 1L, LocalDateTime.now());
+
+        assertEquals(Optional.empty(), visitorFeedService.findLatestVisits(1L, LocalDateTime.now().minusDays(1), 10));
+        assertFalse(jedisPooled.exists("visitor:feed:1"));
+    }
+
+    @Test
+    void rebuild_keepsVisitRecordedWhileMySqlWasRead() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Visit fromMySql = new Visit(2L, 1L, now.minusHours(2));
+        Visit concurrent = new Visit(3L, 1L, now.minusMinutes(1));
+
+        visitorFeedService.prepareRebuild(1L);
+        visitorFeedService.recordVisit(concurrent.getVisitorId(), 1L, concurrent.getVisitedTime());
+        assertEquals(Optional.empty(), visitorFeedService.findLatestVisits(1L, now.minusDays(1), 10));
+        visitorFeedService.rebuild(1L, List.of(fromMySql));
+
+        assertEquals(Optional.of(List.of(concurrent, fromMySql)),
+                visitorFeedService.findLatestVisits(1L, now.minusDays(1), 10));
+        assertFalse(jedisPooled.exists("visitor:feed:building:1"));
+        assertTrue(jedisPooled.ttl("visitor:feed:1") > 60);
+    }
+
+    @Test
+    void rebuild_olderSnapshotOfSameDay_keepsLaterVisit() {
+        LocalDateTime later = LocalDateTime.now().minusDays(1).withHour(12).withMinute(0).withSecond(0).withNano(0);
+
+        visitorFeedService.prepareRebuild(1L);
+        visitorFeedService.recordVisit(2L, 1L, later);
+        visitorFeedService.rebuild(1L, List.of(new Visit(2L, 1L, later.minusHours(1))));
+
+        assertEquals(Optional.of(List.of(new Visit(2L, 1L, later))),
+                visitorFeedService.findLatestVisits(1L, later.minusDays(1), 10));
+    }
+
+    @Test
+    void prepareRebuild_unfinished_partialFeedExpiresWithMarker() {
+        visitorFeedService.prepareRebuild(1L);
+        visitorFeedService.recordVisit(2L, 1L, LocalDateTime.now());
+
+        long markerTtl = jedisPooled.pttl("visitor:feed:building:1");
+        assertTrue(jedisPooled.pttl("visitor:feed:1") <= markerTtl);
+    }
+}
@@ -0,0 +1,106 @@
+package com.meet5.service.integrationTest;
+
+import com.meet5.common.utils.DecayedScore;
+import com.meet5.pojo.Visit;
+import com.meet5.service.impl.VisitorRankingServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import redis.clients.jedis.JedisPooled;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the visitor ranking scripts against Redis.
+ */
+@SpringBootTest
+class VisitorRankingServiceImplIntegrationTest {
+
+    private static final long HALF_LIFE_MILLIS = Duration.ofHours(168).toMillis();
+
+    @Autowired
+    private JedisPooled jedisPooled;
+
+    private VisitorRankingServiceImpl visitorRankingService;
+
+    @BeforeEach
+    void setup() {
+        jedisPooled.flushDB();
+        visitorRankingService = new VisitorRankingServiceImpl(jedisPooled, 500, 168);
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String day(LocalDateTime time) {
+        return time.toLocalDate().toEpochDay() + ":" + epochMillis(time);
+    }
+
+    @Test
+    void recordVisit_missingRanking_isNotCreated() {
+        visitorRankingService.recordVisit(2L, 1L, LocalDateTime.now());
+
+        assertEquals(Optional.empty(), visitorRankingService.findTopVisitors(1L, LocalDateTime.now().minusDays(1), 10));
+        assertFalse(jedisPooled.exists("visitor:rank:1"));
+    }
+
+    @Test
+    void rebuild_keepsVisitRecordedWhileMySqlWasRead() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        visitorRankingService.prepareRebuild(1L);
+        visitorRankingService.recordVisit(3L, 1L, now.minusMinutes(1));
+        assertEquals(Optional.empty(), visitorRankingService.findTopVisitors(1L, now.minusMonths(1), 10));
+        visitorRankingService.rebuild(1L, List.of(new Visit(2L, 1L, now.minusDays(1)), new Visit(2L, 1L, now.minusDays(2))));
+
+        assertEquals(Optional.of(List.of(new Visit(2L, 1L, now.minusDays(1)), new Visit(3L, 1L, now.minusMinutes(1)))),
+                visitorRankingService.findTopVisitors(1L, now.minusMonths(1), 10));
+        assertFalse(jedisPooled.exists("visitor:rank:building:1"));
+        assertTrue(jedisPooled.ttl("visitor:rank:1") > 60);
+    }
+
+    @Test
+    void recordVisit_scoresLatestVisitOfEachDay() {
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime dayBefore = yesterday.minusDays(1);
+
+        visitorRankingService.rebuild(1L, List.of(new Visit(2L, 1L, dayBefore)));
+        visitorRankingService.recordVisit(2L, 1L, dayBefore.plusHours(1));
+        visitorRankingService.recordVisit(2L, 1L, yesterday);
+
+        double expected = DecayedScore.add(DecayedScore.of(epochMillis(dayBefore.plusHours(1)), HALF_LIFE_MILLIS),
+                DecayedScore.of(epochMillis(yesterday), HALF_LIFE_MILLIS));
+        assertEquals(expected, jedisPooled.zscore("visitor:rank:1", "2"), 1e-9);
+        assertEquals(day(dayBefore.plusHours(1)) + "," + day(yesterday), jedisPooled.hget("visitor:rank:days:1", "2"));
+    }
+
+    @Test
+    void findTopVisitors_dropsDaysOlderThanAMonthFromScores() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        LocalDateTime old = now.minusDays(40);
+        visitorRankingService.rebuild(1L, List.of(new Visit(2L, 1L, now.minusDays(1))));
+        // Days recorded a month ago, as if they had aged out since.
+        jedisPooled.zadd("visitor:rank:1", 1e9, "2");
+        jedisPooled.hset("visitor:rank:days:1", "2", day(old) + "," + day(now.minusDays(1)));
+        jedisPooled.zadd("visitor:rank:due:1", epochMillis(old), "2");
+        jedisPooled.zadd("visitor:rank:1", 1e9, "5");
+        jedisPooled.hset("visitor:rank:days:1", "5", day(old));
+        jedisPooled.zadd("visitor:rank:due:1", epochMillis(old), "5");
+
+        assertEquals(Optional.of(List.of(new Visit(2L, 1L, now.minusDays(1)))),
+                visitorRankingService.findTopVisitors(1L, now.minusMonths(1), 10));
+        assertEquals(DecayedScore.of(epochMillis(now.minusDays(1)), HALF_LIFE_MILLIS),
+                jedisPooled.zscore("visitor:rank:1", "2"), 1e-9);
+        assertNull(jedisPooled.zscore("visitor:rank:1", "5"));
+        assertNull(jedisPooled.hget("visitor:rank:days:1", "5"));
+        assertNull(jedisPooled.zscore("visitor:rank:due:1", "5"));
+    }
+}
@@ -1,15 +1,34 @@
 package com.meet5.service.unitTest;
 
+import com.meet5.common.exception.BatchInsertException;
+import com.meet5.config.BatchInsertProperties;
+import com.meet5.dao.LikeLogBulkLoader;
 import com.meet5.dao.LikeLogDAO;
 import com.meet5.pojo.LikesLog;
+import com.meet5.pojo.dto.BatchInsertResult;
 import com.meet5.service.impl.BatchInsertServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,9 +41,54 @@ class BatchInsertServiceImplTest {
     @Mock
     private LikeLogDAO likeLogDAO;
 
+    @Mock
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Mock
+    private SqlSession sqlSession;
+
+    @Mock
+    private LikeLogBulkLoader likeLogBulkLoader;
+
+    private final BatchInsertProperties batchInsertProperties = new BatchInsertProperties();
+
+    private ExecutorService executor;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        batchInsertProperties.setRetryBackoffMs(1);
+        useExecutor(4);
+        ReflectionTestUtils.setField(batchInsertService, "batchInsertProperties", batchInsertProperties);
+        ReflectionTestUtils.setField(batchInsertService, "meterRegistry", new SimpleMeterRegistry());
+        when(sqlSessionFactory.openSession(ExecutorType.BATCH, false)).thenReturn(sqlSession);
+        when(sqlSession.getMapper(LikeLogDAO.class)).thenReturn(likeLogDAO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private void useExecutor(int threads) {
+        useExecutor(new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>()), threads);
+    }
+
+    private void useExecutor(ExecutorService newExecutor, int permits) {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        executor = newExecutor;
+        ReflectionTestUtils.setField(batchInsertService, "batchInsertExecutor", executor);
+        ReflectionTestUtils.setField(batchInsertService, "batchInsertPermits", new Semaphore(permits));
+    }
+
+    private static List<LikesLog> likesLogs(int count) {
+        List<LikesLog> input = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            input.add(new LikesLog());
+        }
+        return input;
     }
 
 
@@ -114,4 +178,150 @@ class BatchInsertServiceImplTest {
 
         assertTrue(thrown.getMessage().contains("Database error"));
     }
+
+    @Test
+    void batchInsert_transientFailure_retriedAndReported() {
+        doThrow(new RuntimeException("Deadlock found")).doNothing().when(likeLogDAO).batchInsertLikes(anyList());
+
+        BatchInsertResult result = batchInsertService.batchInsert(likesLogs(10));
+
+        verify(likeLogDAO, times(2)).batchInsertLikes(anyList());
+        assertEquals(10, result.getRowsInserted());
+        assertEquals(1, result.getBatchesSucceeded());
+        assertEquals(0, result.getBatchesFailed());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void batchInsert_oneBatchKeepsFailing_otherBatchesStillInserted() {
+        doAnswer(invocation -> {
+            List<LikesLog> batch = invocation.getArgument(0);
+            if (batch.size() < 1000) {
+                throw new RuntimeException("Database error");
+            }
+            return null;
+        }).when(likeLogDAO).batchInsertLikes(anyList());
+
+        BatchInsertException thrown = assertThrows(BatchInsertException.class,
+                () -> batchInsertService.batchInsert(likesLogs(2500)));
+
+        BatchInsertResult result = thrown.getResult();
+        assertEquals(2000, result.getRowsInserted());
+        assertEquals(500, result.getRowsFailed());
+        assertEquals(1, result.getBatchesFailed());
+        assertEquals(2000, result.getFailedBatches().get(0).getOffset());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void batchInsert_slowBatches_shrinkBatchSize() {
+        useExecutor(1);
+        batchInsertProperties.setTargetBatchLatencyMs(-1);
+
+        batchInsertService.batchInsert(likesLogs(1975));
+
+        ArgumentCaptor<List<LikesLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(likeLogDAO, times(5)).batchInsertLikes(captor.capture());
+        assertEquals(List.of(1000, 500, 250, 125, 100), captor.getAllValues().stream().map(List::size).toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void batchInsert_smallMaxAllowedPacket_capsBatchSize() {
+        when(likeLogDAO.selectMaxAllowedPacket()).thenReturn(128L * 300);
+
+        batchInsertService.batchInsert(likesLogs(900));
+
+        ArgumentCaptor<List<LikesLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(likeLogDAO, times(3)).batchInsertLikes(captor.capture());
+        captor.getAllValues().forEach(batch -> assertEquals(300, batch.size()));
+    }
+
+    @Test
+    void batchInsert_virtualThreads_inFlightBatchesBoundedByPermits() throws InterruptedException {
+        useExecutor(Executors.newVirtualThreadPerTaskExecutor(), 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            running.decrementAndGet();
+            return null;
+        }).when(likeLogDAO).batchInsertLikes(anyList());
+
+        Thread first = Thread.ofVirtual().start(() -> batchInsertService.batchInsert(likesLogs(2000)));
+        Thread second = Thread.ofVirtual().start(() -> batchInsertService.batchInsert(likesLogs(2000)));
+        first.join();
+        second.join();
+
+        verify(likeLogDAO, atLeast(4)).batchInsertLikes(anyList());
+        assertTrue(maxRunning.get() <= 2, "at most 2 batches in flight, saw " + maxRunning.get());
+    }
+
+    @Test
+    void streamInsert_flushesAndCommitsEveryFlushSizeRows() {
+        BatchInsertResult result = batchInsertService.streamInsert(likesLogs(2500).stream());
+
+        verify(likeLogDAO, times(2500)).insertLikesLog(any(LikesLog.class));
+        verify(sqlSession, times(3)).flushStatements();
+        verify(sqlSession, times(3)).commit(true);
+        verify(sqlSession).close();
+        verify(likeLogDAO, never()).batchInsertLikes(anyList());
+        assertEquals(2500, result.getRowsInserted());
+        assertEquals(3, result.getBatchesSucceeded());
+    }
+
+    @Test
+    void streamInsert_flushFails_reportsCommittedRows() {
+        when(sqlSession.flushStatements())
+                .thenReturn(List.of())
+                .thenReturn(List.of())
+                .thenThrow(new RuntimeException("Database error"));
+
+        BatchInsertException thrown = assertThrows(BatchInsertException.class,
+                () -> batchInsertService.streamInsert(likesLogs(2500).iterator()));
+
+        verify(sqlSession).rollback(true);
+        assertEquals(2000, thrown.getResult().getRowsInserted());
+        assertEquals(500, thrown.getResult().getRowsFailed());
+        assertTrue(thrown.getMessage().contains("Database error"));
+    }
+
+    @Test
+    void bulkLoad_splitsInputIntoTsvChunks() {
+        batchInsertProperties.setLoadChunkRows(1000);
+        List<Long> chunkLines = new ArrayList<>();
+        when(likeLogBulkLoader.load(any(InputStream.class))).thenAnswer(invocation -> {
+            InputStream tsv = invocation.getArgument(0);
+            long lines = new String(tsv.readAllBytes(), StandardCharsets.UTF_8).lines().count();
+            chunkLines.add(lines);
+            return lines;
+        });
+
+        BatchInsertResult result = batchInsertService.bulkLoad(likesLogs(2500).iterator());
+
+        assertEquals(List.of(1000L, 1000L, 500L), chunkLines);
+        assertEquals(2500, result.getRowsInserted());
+        assertEquals(3, result.getBatchesSucceeded());
+        verify(likeLogDAO, never()).batchInsertLikes(anyList());
+    }
+
+    @Test
+    void bulkLoad_chunkKeepsFailing_otherChunksStillLoaded() {
+        batchInsertProperties.setLoadChunkRows(1000);
+        when(likeLogBulkLoader.load(any(InputStream.class)))
+                .thenReturn(1000L)
+                .thenThrow(new RuntimeException("Loading local data is disabled"))
+                .thenThrow(new RuntimeException("Loading local data is disabled"))
+                .thenThrow(new RuntimeException("Loading local data is disabled"))
+                .thenReturn(500L);
+
+        BatchInsertException thrown = assertThrows(BatchInsertException.class,
+                () -> batchInsertService.bulkLoad(likesLogs(2500).stream()));
+
+        BatchInsertResult result = thrown.getResult();
+        assertEquals(1500, result.getRowsInserted());
+        assertEquals(1000, result.getRowsFailed());
+        assertEquals(1000, result.getFailedBatches().get(0).getOffset());
+    }
 }
@@ -0,0 +1,153 @@
+package com.meet5.service.unitTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.meet5.common.exception.BatchInsertException;
+import com.meet5.pojo.LikesLog;
+import com.meet5.pojo.Visit;
+import com.meet5.pojo.dto.BatchInsertResult;
+import com.meet5.pojo.dto.ImportSummary;
+import com.meet5.service.BatchInsertService;
+import com.meet5.service.VisitorFeedService;
+import com.meet5.service.VisitorRankingService;
+import com.meet5.service.impl.ImportServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ImportServiceImplTest {
+
+    @InjectMocks
+    private ImportServiceImpl importService;
+
+    @Mock
+    private BatchInsertService batchInsertService;
+
+    @Mock
+    private VisitorFeedService visitorFeedService;
+
+    @Mock
+    private VisitorRankingService visitorRankingService;
+
+    private final List<LikesLog> streamed = new ArrayList<>();
+
+    private final List<Visit> streamedVisits = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(importService, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(importService, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    private static InputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drainLikesLogs(BatchInsertResult result) {
+        when(batchInsertService.streamInsert(any(Iterator.class))).thenAnswer(invocation -> {
+            Iterator<LikesLog> records = invocation.getArgument(0);
+            records.forEachRemaining(streamed::add);
+            if (result.getBatchesFailed() > 0) {
+                throw new BatchInsertException(result);
+            }
+            result.setRowsInserted(streamed.size());
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drainVisits() {
+        when(batchInsertService.streamInsertVisits(any(Iterator.class))).thenAnswer(invocation -> {
+            Iterator<Visit> records = invocation.getArgument(0);
+            records.forEachRemaining(streamedVisits::add);
+            return BatchInsertResult.builder().rowsInserted(streamedVisits.size()).build();
+        });
+    }
+
+    @Test
+    void importLikesLogs_mixedInput_insertsValidAndReportsRejectedLines() {
+        drainLikesLogs(new BatchInsertResult());
+
+        ImportSummary summary = importService.importLikesLogs(ndjson(
+                "{\"likerId\":1,\"targetId\":2}",
+                "{\"likerId\":1,",
+                "",
+                "{\"likerId\":3,\"targetId\":4,\"status\":1,\"createdTime\":\"2024-05-01T12:00:00\"}",
+                "{\"likerId\":5}",
+                "{\"likerId\":5,\"targetId\":6,\"status\":7}"));
+
+        assertEquals(6, summary.getLinesRead());
+        assertEquals(2, summary.getRowsAccepted());
+        assertEquals(3, summary.getRowsRejected());
+        assertEquals(2, summary.getRowsInserted());
+        assertEquals(0, summary.getRowsFailed());
+        assertEquals(3, summary.getErrors().size());
+        assertTrue(summary.getErrors().get(0).startsWith("line 2: malformed JSON"));
+        assertEquals("line 5: likerId and targetId are required", summary.getErrors().get(1));
+        assertEquals("line 6: invalid status 7", summary.getErrors().get(2));
+
+        assertEquals(0, streamed.get(0).getStatus());
+        assertNotNull(streamed.get(0).getCreatedTime());
+        assertEquals(1, streamed.get(1).getStatus());
+    }
+
+    @Test
+    void importLikesLogs_writeFails_reportsFailedRows() {
+        BatchInsertResult failed = BatchInsertResult.builder().rowsInserted(1).rowsFailed(1).batchesFailed(1).build();
+        failed.getFailedBatches().add(new BatchInsertResult.FailedBatch(1, 1, "Deadlock found"));
+        drainLikesLogs(failed);
+
+        ImportSummary summary = importService.importLikesLogs(ndjson(
+                "{\"likerId\":1,\"targetId\":2}",
+                "{\"likerId\":3,\"targetId\":4}"));
+
+        assertEquals(1, summary.getRowsInserted());
+        assertEquals(1, summary.getRowsFailed());
+        assertEquals(List.of("rows 1-1: Deadlock found"), summary.getErrors());
+    }
+
+    @Test
+    void importVisits_rejectsSelfVisitsAndStreamsTheRest() {
+        drainVisits();
+
+        ImportSummary summary = importService.importVisits(ndjson(
+                "{\"visitorId\":1,\"targetId\":2}",
+                "{\"visitorId\":3,\"targetId\":3}",
+                "{\"visitorId\":4,\"targetId\":5,\"visitedTime\":\"2024-05-01T12:00:00\"}"));
+
+        assertEquals(List.of(2L, 5L), streamedVisits.stream().map(Visit::getTargetId).toList());
+        assertNotNull(streamedVisits.get(0).getVisitedTime());
+
+        assertEquals(2, summary.getRowsInserted());
+        assertEquals(1, summary.getRowsRejected());
+        assertEquals(List.of("line 2: visitorId and targetId must differ"), summary.getErrors());
+    }
+
+    @Test
+    void importVisits_invalidatesRecentTargetsOnly() {
+        drainVisits();
+
+        importService.importVisits(ndjson(
+                "{\"visitorId\":1,\"targetId\":2}",
+                "{\"visitorId\":3,\"targetId\":2}",
+                "{\"visitorId\":4,\"targetId\":5,\"visitedTime\":\"2024-05-01T12:00:00\"}"));
+
+        verify(visitorFeedService).invalidate(2L);
+        verify(visitorRankingService).invalidate(2L);
+        verifyNoMoreInteractions(visitorFeedService, visitorRankingService);
+    }
+}
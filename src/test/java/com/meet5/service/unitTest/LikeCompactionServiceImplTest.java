@@ -0,0 +1,44 @@
+package com.meet5.service.unitTest;
+
+import com.meet5.dao.LikeDAO;
+import com.meet5.service.impl.LikeCompactionServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LikeCompactionServiceImplTest {
+
+    @Mock
+    private LikeDAO likeDAO;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void compact_deletesDuplicatesOneLikerRangeAtATime() {
+        when(likeDAO.selectMaxLikerId()).thenReturn(25L);
+        when(likeDAO.deleteDuplicateLikes(anyLong(), anyLong())).thenReturn(2, 0, 1);
+
+        long deleted = new LikeCompactionServiceImpl(likeDAO, 10).compact();
+
+        assertEquals(3, deleted);
+        InOrder inOrder = inOrder(likeDAO);
+        inOrder.verify(likeDAO).deleteDuplicateLikes(0, 10);
+        inOrder.verify(likeDAO).deleteDuplicateLikes(10, 20);
+        inOrder.verify(likeDAO).deleteDuplicateLikes(20, 26);
+        verify(likeDAO, times(3)).deleteDuplicateLikes(anyLong(), anyLong());
+    }
+
+    @Test
+    void compact_emptyTable_deletesNothing() {
+        when(likeDAO.selectMaxLikerId()).thenReturn(null);
+
+        assertEquals(0, new LikeCompactionServiceImpl(likeDAO, 10).compact());
+        verify(likeDAO, never()).deleteDuplicateLikes(anyLong(), anyLong());
+    }
+}
@@ -0,0 +1,111 @@
+package com.meet5.service.unitTest;
+
+import com.meet5.common.enums.LikeStatus;
+import com.meet5.dao.LikeCountDAO;
+import com.meet5.dao.LikeDAO;
+import com.meet5.dao.MultiStatementDAO;
+import com.meet5.pojo.LikeCount;
+import com.meet5.service.impl.LikeCountServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LikeCountServiceImplTest {
+
+    @Mock
+    private LikeCountDAO likeCountDAO;
+    @Mock
+    private LikeDAO likeDAO;
+    @Mock
+    private MultiStatementDAO multiStatementDAO;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LikeCountServiceImpl likeCountService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        likeCountService = new LikeCountServiceImpl(likeCountDAO, likeDAO, multiStatementDAO, meterRegistry, 2, 60_000, 10, false);
+    }
+
+    @Test
+    void flush_coalescesTogglesPerTargetInTargetOrder() {
+        for (int i = 0; i < 1000; i++) {
+            likeCountService.recordToggle(7L, LikeStatus.LIKED);
+        }
+        likeCountService.recordToggle(7L, LikeStatus.CANCELED);
+        likeCountService.recordToggle(5L, LikeStatus.LIKED);
+        likeCountService.recordToggle(9L, LikeStatus.LIKED);
+        likeCountService.recordToggle(9L, LikeStatus.CANCELED);
+
+        likeCountService.flush();
+
+        verify(likeCountDAO).addLikeCounts(List.of(new LikeCount(5L, 1L), new LikeCount(7L, 999L)));
+        verifyNoMoreInteractions(likeCountDAO);
+    }
+
+    @Test
+    void flush_failedBatch_keepsDeltasForNextFlush() {
+        likeCountService.recordToggle(1L, LikeStatus.LIKED);
+        doThrow(new RuntimeException("Lock wait timeout")).doNothing().when(likeCountDAO).addLikeCounts(anyList());
+
+        assertThrows(RuntimeException.class, likeCountService::flush);
+        likeCountService.recordToggle(1L, LikeStatus.LIKED);
+        likeCountService.flush();
+
+        verify(likeCountDAO).addLikeCounts(List.of(new LikeCount(1L, 2L)));
+    }
+
+    @Test
+    void getLikeCount_includesUnflushedDeltas() {
+        when(likeCountDAO.selectLikeCount(3L)).thenReturn(10L);
+        likeCountService.recordToggle(3L, LikeStatus.CANCELED);
+
+        assertEquals(9, likeCountService.getLikeCount(3L));
+    }
+
+    @Test
+    void getLikeCount_negativeDrift_servesZeroAndCountsIt() {
+        when(likeCountDAO.selectLikeCount(3L)).thenReturn(0L);
+        likeCountService.recordToggle(3L, LikeStatus.CANCELED);
+
+        assertEquals(0, likeCountService.getLikeCount(3L));
+        assertEquals(1, meterRegistry.counter("likes.count.negative").count());
+    }
+
+    @Test
+    void rebuild_recountsOneTargetRangeAtATime() {
+        when(likeDAO.selectMaxTargetId()).thenReturn(15L);
+
+        likeCountService.rebuild();
+
+        verify(multiStatementDAO).rebuildLikeCounts(0, 10);
+        verify(multiStatementDAO).rebuildLikeCounts(10, 16);
+        verify(likeCountDAO, never()).addLikeCounts(anyList());
+    }
+
+    @Test
+    void rebuild_takesBackPendingDeltasTheRecountIncludes() {
+        when(likeDAO.selectMaxTargetId()).thenReturn(15L);
+        likeCountService.recordToggle(12L, LikeStatus.LIKED);
+        likeCountService.recordToggle(3L, LikeStatus.CANCELED);
+
+        likeCountService.rebuild();
+
+        InOrder inOrder = inOrder(multiStatementDAO, likeCountDAO);
+        inOrder.verify(multiStatementDAO).rebuildLikeCounts(0, 10);
+        inOrder.verify(likeCountDAO).addLikeCounts(List.of(new LikeCount(3L, 1L)));
+        inOrder.verify(multiStatementDAO).rebuildLikeCounts(10, 16);
+        inOrder.verify(likeCountDAO).addLikeCounts(List.of(new LikeCount(12L, -1L)));
+
+        likeCountService.flush();
+        verify(likeCountDAO).addLikeCounts(List.of(new LikeCount(3L, -1L), new LikeCount(12L, 1L)));
+    }
+}
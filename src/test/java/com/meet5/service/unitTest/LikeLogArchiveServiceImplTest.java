@@ -0,0 +1,152 @@
+package com.meet5.service.unitTest;
+
+import com.meet5.dao.LikeLogDAO;
+import com.meet5.pojo.LikesLog;
+import com.meet5.service.impl.LikeLogArchiveServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LikeLogArchiveServiceImplTest {
+
+    private static final LocalDateTime OLD = LocalDateTime.now().minusDays(60).withNano(0);
+
+    @Mock
+    private LikeLogDAO likeLogDAO;
+
+    @TempDir
+    Path directory;
+
+    private LikeLogArchiveServiceImpl archiveService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        archiveService = newArchiveService();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        archiveService.stop();
+    }
+
+    private LikeLogArchiveServiceImpl newArchiveService() throws IOException {
+        return newArchiveService(false);
+    }
+
+    private LikeLogArchiveServiceImpl newArchiveService(boolean readOnly) throws IOException {
+        LikeLogArchiveServiceImpl service = new LikeLogArchiveServiceImpl(likeLogDAO, directory.toString(),
+                30, 3, 2, 4, 2, 24, readOnly);
+        service.start();
+        return service;
+    }
+
+    private static LikesLog row(long id, long likerId, LocalDateTime createdTime) {
+        LikesLog likesLog = new LikesLog();
+        likesLog.setId(id);
+        likesLog.setLikerId(likerId);
+        likesLog.setTargetId(100 + id);
+        likesLog.setCreatedTime(createdTime);
+        likesLog.setStatus((int) (id % 2));
+        return likesLog;
+    }
+
+    private static long segmentCount(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).count();
+        }
+    }
+
+    @Test
+    void archive_writesSegmentsThenDeletesTheirRows() throws IOException {
+        List<LikesLog> rows = List.of(
+                row(1, 7, OLD), row(2, 8, OLD.plusMinutes(1)), row(3, 7, OLD.plusMinutes(2)),
+                row(4, 7, OLD.plusMinutes(3)), row(5, 8, OLD.plusMinutes(4)), row(6, 7, LocalDateTime.now()));
+        when(likeLogDAO.selectRowsAfter(0, 4)).thenReturn(rows.subList(0, 4));
+        when(likeLogDAO.selectRowsAfter(4, 4)).thenReturn(rows.subList(4, 6));
+        when(likeLogDAO.deleteUpTo(3, 2)).thenReturn(2, 1);
+        when(likeLogDAO.deleteUpTo(5, 2)).thenReturn(2, 0);
+
+        assertEquals(5, archiveService.archive());
+
+        assertEquals(2, segmentCount(directory));
+        InOrder inOrder = inOrder(likeLogDAO);
+        inOrder.verify(likeLogDAO, times(2)).deleteUpTo(3, 2);
+        inOrder.verify(likeLogDAO, times(2)).deleteUpTo(5, 2);
+        verify(likeLogDAO, never()).deleteUpTo(eq(6L), anyInt());
+
+        LocalDateTime from = OLD.minusDays(1);
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        when(likeLogDAO.selectByLiker(7, 5, from, to)).thenReturn(List.of(rows.get(5)));
+        assertEquals(List.of(rows.get(0), rows.get(2), rows.get(3), rows.get(5)),
+                archiveService.findHistory(7, from, to));
+        assertEquals(List.of(rows.get(2)), archiveService.findHistory(7, OLD.plusMinutes(2), OLD.plusMinutes(3)));
+    }
+
+    @Test
+    void archive_afterRestart_deletesLeftoversAndContinuesAfterLastSegment() throws IOException, InterruptedException {
+        when(likeLogDAO.selectRowsAfter(0, 4)).thenReturn(List.of(row(1, 7, OLD), row(2, 7, OLD.plusMinutes(1))));
+        archiveService.archive();
+        archiveService.stop();
+        reset(likeLogDAO);
+
+        archiveService = newArchiveService();
+        when(likeLogDAO.deleteUpTo(2, 2)).thenReturn(1);
+        when(likeLogDAO.selectRowsAfter(2, 4)).thenReturn(List.of(row(3, 7, LocalDateTime.now())));
+
+        assertEquals(0, archiveService.archive());
+
+        verify(likeLogDAO).deleteUpTo(2, 2);
+        assertEquals(1, segmentCount(directory));
+        assertEquals(2, archiveService.findHistory(7, OLD, OLD.plusDays(1)).size());
+    }
+
+    @Test
+    void findHistory_archivedWhileMySqlIsRead_repeatsWithNewSegments() {
+        LikesLog first = row(1, 7, OLD);
+        LikesLog second = row(2, 7, OLD.plusMinutes(1));
+        LocalDateTime from = OLD.minusDays(1);
+        LocalDateTime to = OLD.plusDays(1);
+        when(likeLogDAO.selectRowsAfter(0, 4)).thenReturn(List.of(first, second));
+        // An archive run completes while MySQL is queried, so the answer lacks the rows it deleted.
+        when(likeLogDAO.selectByLiker(7, 0, from, to)).thenAnswer(invocation -> {
+            archiveService.archive();
+            return List.of();
+        });
+
+        assertEquals(List.of(first, second), archiveService.findHistory(7, from, to));
+        verify(likeLogDAO).selectByLiker(7, 2, from, to);
+    }
+
+    @Test
+    void readOnly_loadsSegmentsArchivedByAnotherNode() throws IOException, InterruptedException {
+        LikeLogArchiveServiceImpl reader = newArchiveService(true);
+        try {
+            LikesLog first = row(1, 7, OLD);
+            LikesLog second = row(2, 7, OLD.plusMinutes(1));
+            when(likeLogDAO.selectRowsAfter(0, 4)).thenReturn(List.of(first, second));
+            archiveService.archive();
+            LocalDateTime from = OLD.minusDays(1);
+            LocalDateTime to = LocalDateTime.now().plusDays(1);
+            LikesLog recent = row(3, 7, LocalDateTime.now());
+            when(likeLogDAO.selectByLiker(7, 2, from, to)).thenReturn(List.of(recent));
+
+            assertEquals(List.of(first, second, recent), reader.findHistory(7, from, to));
+            assertThrows(IllegalStateException.class, reader::archive);
+        } finally {
+            reader.stop();
+        }
+    }
+}
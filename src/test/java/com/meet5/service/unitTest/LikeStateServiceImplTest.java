@@ -0,0 +1,102 @@
+package com.meet5.service.unitTest;
+
+import com.meet5.dao.LikeDAO;
+import com.meet5.dao.LikeLogDAO;
+import com.meet5.pojo.LikesLog;
+import com.meet5.service.impl.LikeStateServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Pipeline;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LikeStateServiceImplTest {
+
+    @Mock
+    private JedisPooled jedisPooled;
+    @Mock
+    private Pipeline pipeline;
+    @Mock
+    private LikeDAO likeDAO;
+    @Mock
+    private LikeLogDAO likeLogDAO;
+
+    private LikeStateServiceImpl likeStateService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jedisPooled.scriptLoad(anyString())).thenReturn("sha");
+        when(jedisPooled.pipelined()).thenReturn(pipeline);
+        likeStateService = new LikeStateServiceImpl(jedisPooled, likeDAO, likeLogDAO, 3, 60, 60_000);
+    }
+
+    private static LikesLog likesLog(long id, long likerId) {
+        LikesLog likesLog = new LikesLog();
+        likesLog.setId(id);
+        likesLog.setLikerId(likerId);
+        return likesLog;
+    }
+
+    @Test
+    void findLikeStates_builtIndex_answersFromRedis() {
+        when(jedisPooled.smismember("like:state:1", "-", "+", "2", "3")).thenReturn(List.of(true, false, false, true));
+
+        Map<Long, Boolean> states = likeStateService.findLikeStates(1L, List.of(2L, 3L));
+
+        assertEquals(Map.of(2L, false, 3L, true), states);
+        verifyNoInteractions(likeDAO);
+    }
+
+    @Test
+    void findLikeStates_missingIndex_buildsItFromMySql() {
+        when(jedisPooled.smismember("like:state:1", "-", "+", "2", "3")).thenReturn(List.of(false, false, false, false));
+        when(likeDAO.selectLikedTargetIds(1L, null, 4)).thenReturn(List.of(3L, 7L));
+
+        Map<Long, Boolean> states = likeStateService.findLikeStates(1L, List.of(2L, 3L));
+
+        assertEquals(Map.of(2L, false, 3L, true), states);
+        verify(pipeline).sadd("like:state:1", "-", "3", "7");
+        verify(pipeline).expire("like:state:1", 60L);
+    }
+
+    @Test
+    void findLikeStates_tooManyLikes_notIndexed() {
+        when(jedisPooled.smismember(anyString(), any(String[].class))).thenReturn(List.of(false, false, false));
+        when(likeDAO.selectLikedTargetIds(1L, null, 4)).thenReturn(List.of(1L, 2L, 3L, 4L));
+        when(likeDAO.selectLikedTargetIds(1L, List.of(2L), null)).thenReturn(List.of(2L));
+
+        assertEquals(Map.of(2L, true), likeStateService.findLikeStates(1L, List.of(2L)));
+        verify(pipeline).sadd("like:state:1", "+");
+        verify(pipeline).expire("like:state:1", 60L);
+    }
+
+    @Test
+    void findLikeStates_notIndexedMarker_skipsTheRecount() {
+        when(jedisPooled.smismember(anyString(), any(String[].class))).thenReturn(List.of(false, true, false));
+        when(likeDAO.selectLikedTargetIds(1L, List.of(2L), null)).thenReturn(List.of());
+
+        assertEquals(Map.of(2L, false), likeStateService.findLikeStates(1L, List.of(2L)));
+        verify(likeDAO, never()).selectLikedTargetIds(1L, null, 4);
+        verifyNoInteractions(pipeline);
+    }
+
+    @Test
+    void reconcile_rebuildsExistingIndexesOfLikersThatToggled() {
+        when(likeLogDAO.selectLikersAfter(0L, 1000)).thenReturn(List.of(likesLog(1, 1L), likesLog(2, 5L)));
+        when(jedisPooled.exists("like:state:1")).thenReturn(true);
+        when(likeDAO.selectLikedTargetIds(1L, null, 4)).thenReturn(List.of(9L));
+
+        likeStateService.reconcile();
+
+        verify(pipeline).del("like:state:1");
+        verify(pipeline).sadd("like:state:1", "-", "9");
+        verify(likeDAO, never()).selectLikedTargetIds(eq(5L), any(), any());
+    }
+}
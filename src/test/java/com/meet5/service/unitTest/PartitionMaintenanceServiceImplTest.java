@@ -0,0 +1,67 @@
+package com.meet5.service.unitTest;
+
+import com.meet5.dao.PartitionDAO;
+import com.meet5.pojo.MonthlyPartition;
+import com.meet5.service.impl.PartitionMaintenanceServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+class PartitionMaintenanceServiceImplTest {
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    @Mock
+    private PartitionDAO partitionDAO;
+
+    private PartitionMaintenanceServiceImpl partitionMaintenanceService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        partitionMaintenanceService = new PartitionMaintenanceServiceImpl(partitionDAO, 2, 3, 12, 24);
+    }
+
+    private static String partition(YearMonth month) {
+        return month.format(PARTITION_NAME);
+    }
+
+    @Test
+    void maintain_createsComingMonthsAndDropsExpiredOnes() {
+        YearMonth now = YearMonth.now();
+        List<String> names = new ArrayList<>();
+        for (int monthsAgo = 5; monthsAgo >= 0; monthsAgo--) {
+            names.add(partition(now.minusMonths(monthsAgo)));
+        }
+        names.add("p_future");
+        when(partitionDAO.selectPartitionNames("visits")).thenReturn(names);
+        when(partitionDAO.selectPartitionNames("likes_log")).thenReturn(names);
+
+        partitionMaintenanceService.maintain();
+
+        verify(partitionDAO).splitFuturePartition("visits", List.of(
+                new MonthlyPartition(partition(now.plusMonths(1)), now.plusMonths(2).atDay(1) + " 00:00:00"),
+                new MonthlyPartition(partition(now.plusMonths(2)), now.plusMonths(3).atDay(1) + " 00:00:00")));
+        verify(partitionDAO).dropPartitions("visits", List.of(partition(now.minusMonths(5)), partition(now.minusMonths(4))));
+        verify(partitionDAO).splitFuturePartition(eq("likes_log"), anyList());
+        verify(partitionDAO, never()).dropPartitions(eq("likes_log"), anyList());
+    }
+
+    @Test
+    void maintain_unpartitionedOrUnknownScheme_leavesTableAlone() {
+        when(partitionDAO.selectPartitionNames("visits")).thenReturn(List.of());
+        when(partitionDAO.selectPartitionNames("likes_log")).thenReturn(List.of("p0", "p1"));
+
+        partitionMaintenanceService.maintain();
+
+        verify(partitionDAO, never()).splitFuturePartition(anyString(), anyList());
+        verify(partitionDAO, never()).dropPartitions(anyString(), anyList());
+    }
+}
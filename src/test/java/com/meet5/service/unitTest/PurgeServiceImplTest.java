@@ -0,0 +1,154 @@
+package com.meet5.service.unitTest;
+
+import com.meet5.config.PurgeProperties;
+import com.meet5.dao.PurgeDAO;
+import com.meet5.pojo.PurgeChunk;
+import com.meet5.service.impl.PurgeServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PurgeServiceImplTest {
+
+    @Mock
+    private PurgeDAO purgeDAO;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private Connection connection;
+    @Mock
+    private PreparedStatement lockStatement;
+    @Mock
+    private ResultSet lockResult;
+
+    private PurgeProperties purgeProperties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+        when(connection.prepareStatement(anyString())).thenReturn(lockStatement);
+        when(lockStatement.executeQuery()).thenReturn(lockResult);
+        when(lockResult.next()).thenReturn(true);
+        when(lockResult.getInt(1)).thenReturn(1);
+        purgeProperties = new PurgeProperties();
+        purgeProperties.setMinChunkSize(2);
+        purgeProperties.setMaxChunkSize(2);
+        purgeProperties.setChunkSizeStep(1);
+        purgeProperties.setTargetChunkLatencyMs(60_000);
+        purgeProperties.setPauseMs(0);
+        purgeProperties.setRetryBackoffMs(0);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private PurgeServiceImpl purgeService(String table, int days) {
+        purgeProperties.setRetentionDays(Map.of(table, days));
+        return new PurgeServiceImpl(purgeDAO, jdbcTemplate, transactionManager, new Semaphore(1), purgeProperties, meterRegistry);
+    }
+
+    @Test
+    void purge_likes_walksWholeTableAndRestartsFromTheBeginning() {
+        PurgeServiceImpl purgeService = purgeService("likes", 180);
+        when(purgeDAO.selectMaxId("likes")).thenReturn(5L);
+        when(purgeDAO.selectCheckpoint("likes")).thenReturn(null);
+        when(purgeDAO.selectChunk("likes", 0, 5, 2)).thenReturn(new PurgeChunk(2L, 2));
+        when(purgeDAO.selectChunk("likes", 2, 5, 2)).thenReturn(new PurgeChunk(4L, 2));
+        when(purgeDAO.selectChunk("likes", 4, 5, 2)).thenReturn(new PurgeChunk(5L, 1));
+        when(purgeDAO.selectChunk("likes", 5, 5, 2)).thenReturn(new PurgeChunk(null, 0));
+        when(purgeDAO.deleteExpired(eq("likes"), eq("updated_time"), anyLong(), anyLong(), any(), eq(1)))
+                .thenReturn(1, 0, 1);
+
+        assertEquals(2, purgeService.purge());
+
+        InOrder inOrder = inOrder(purgeDAO);
+        inOrder.verify(purgeDAO).saveCheckpoint("likes", 2);
+        inOrder.verify(purgeDAO).saveCheckpoint("likes", 4);
+        inOrder.verify(purgeDAO).saveCheckpoint("likes", 5);
+        inOrder.verify(purgeDAO).saveCheckpoint("likes", 0);
+        verify(transactionManager, times(3)).commit(any());
+        assertEquals(2, meterRegistry.counter("purge.rows.deleted", "table", "likes").count());
+    }
+
+    @Test
+    void purge_visits_stopsAtFirstChunkWithinRetention() {
+        PurgeServiceImpl purgeService = purgeService("visits", 90);
+        when(purgeDAO.selectMaxId("visits")).thenReturn(100L);
+        when(purgeDAO.selectCheckpoint("visits")).thenReturn(10L);
+        when(purgeDAO.selectChunk("visits", 10, 100, 2)).thenReturn(new PurgeChunk(12L, 2));
+        when(purgeDAO.selectChunk("visits", 12, 100, 2)).thenReturn(new PurgeChunk(14L, 2));
+        when(purgeDAO.deleteExpired(eq("visits"), eq("visited_time"), eq(10L), eq(12L), any(), isNull()))
+                .thenReturn(2);
+        when(purgeDAO.deleteExpired(eq("visits"), eq("visited_time"), eq(12L), eq(14L), any(), isNull()))
+                .thenReturn(1);
+
+        assertEquals(3, purgeService.purge());
+
+        verify(purgeDAO).saveCheckpoint("visits", 12);
+        verify(purgeDAO, never()).saveCheckpoint(eq("visits"), eq(14L));
+        verify(purgeDAO, never()).saveCheckpoint(eq("visits"), eq(0L));
+        verify(purgeDAO, never()).selectChunk(eq("visits"), eq(14L), anyLong(), anyInt());
+    }
+
+    @Test
+    void purge_failingChunk_retriesThenGivesUpWithoutMovingCheckpoint() {
+        purgeProperties.setMaxAttempts(2);
+        PurgeServiceImpl purgeService = purgeService("likes_log", 365);
+        when(purgeDAO.selectMaxId("likes_log")).thenReturn(10L);
+        when(purgeDAO.selectCheckpoint("likes_log")).thenReturn(0L);
+        when(purgeDAO.selectChunk("likes_log", 0, 10, 2)).thenReturn(new PurgeChunk(2L, 2));
+        when(purgeDAO.deleteExpired(anyString(), anyString(), anyLong(), anyLong(), any(), any()))
+                .thenThrow(new RuntimeException("lock wait timeout"));
+
+        assertThrows(RuntimeException.class, purgeService::purge);
+
+        verify(purgeDAO, times(2)).deleteExpired(anyString(), anyString(), anyLong(), anyLong(), any(), any());
+        verify(purgeDAO, never()).saveCheckpoint(anyString(), anyLong());
+    }
+
+    @Test
+    void purge_lockHeldByAnotherNode_skipsTheRun() throws Exception {
+        PurgeServiceImpl purgeService = purgeService("likes", 180);
+        when(lockResult.getInt(1)).thenReturn(0);
+
+        assertEquals(0, purgeService.purge());
+
+        verifyNoInteractions(purgeDAO);
+        verify(connection).prepareStatement("SELECT GET_LOCK(?, 0)");
+        verify(connection, never()).prepareStatement("SELECT RELEASE_LOCK(?)");
+    }
+
+    @Test
+    void purge_failingChunk_releasesTheLock() throws Exception {
+        PurgeServiceImpl purgeService = purgeService("likes", 180);
+        when(purgeDAO.selectMaxId("likes")).thenThrow(new RuntimeException("connection reset"));
+
+        assertThrows(RuntimeException.class, purgeService::purge);
+
+        verify(connection).prepareStatement("SELECT RELEASE_LOCK(?)");
+    }
+
+    @Test
+    void constructor_unknownTable_throws() {
+        assertThrows(IllegalArgumentException.class, () -> purgeService("users", 30));
+    }
+}
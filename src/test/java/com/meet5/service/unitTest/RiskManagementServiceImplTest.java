@@ -0,0 +1,125 @@
+package com.meet5.service.unitTest;
+
+import com.meet5.common.enums.OperationType;
+import com.meet5.config.RiskProperties;
+import com.meet5.service.impl.RiskManagementServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RiskManagementServiceImplTest {
+
+    private static final String VISIT_KEY = "user:operation:visit:1";
+
+    @Mock
+    private JedisPooled jedisPooled;
+    @Mock
+    private Pipeline pipeline;
+
+    private RiskManagementServiceImpl riskManagementService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jedisPooled.scriptLoad(anyString())).thenReturn("sha");
+        when(jedisPooled.pipelined()).thenReturn(pipeline);
+
+        RiskProperties riskProperties = new RiskProperties();
+        riskProperties.getHybrid().setEnabled(true);
+        riskProperties.getHybrid().setMargin(10);
+        riskProperties.getVisit().setLimit(100);
+        riskManagementService = new RiskManagementServiceImpl(jedisPooled, riskProperties, new SimpleMeterRegistry());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void flushReplies(long total) {
+        Response<Object> response = mock(Response.class);
+        when(response.get()).thenReturn(total);
+        when(pipeline.evalsha(anyString(), anyList(), anyList())).thenReturn(response);
+    }
+
+    private static String increment(List<String> args) {
+        return args.get(2);
+    }
+
+    @Test
+    void checkSensitiveBehavior_farBelowLimit_staysLocal() {
+        for (int i = 0; i < 50; i++) {
+            assertFalse(riskManagementService.checkSensitiveBehavior(1L, OperationType.VISIT));
+        }
+
+        verify(jedisPooled, never()).evalsha(anyString(), anyList(), anyList());
+    }
+
+    @Test
+    void flushLocalCounts_sendsAggregatedIncrementPerKey() {
+        flushReplies(5L);
+        for (int i = 0; i < 5; i++) {
+            riskManagementService.checkSensitiveBehavior(1L, OperationType.VISIT);
+        }
+
+        riskManagementService.flushLocalCounts();
+        riskManagementService.flushLocalCounts();
+
+        verify(pipeline, times(1)).evalsha(eq("sha"), eq(List.of(VISIT_KEY)),
+                argThat(args -> "5".equals(increment(args))));
+    }
+
+    @Test
+    void checkSensitiveBehavior_nearLimit_asksRedisForExactTotal() {
+        flushReplies(89L);
+        riskManagementService.checkSensitiveBehavior(1L, OperationType.VISIT);
+        riskManagementService.flushLocalCounts();
+        when(jedisPooled.evalsha(eq("sha"), eq(List.of(VISIT_KEY)), anyList())).thenReturn(100L);
+
+        assertTrue(riskManagementService.checkSensitiveBehavior(1L, OperationType.VISIT));
+        verify(jedisPooled).evalsha(eq("sha"), eq(List.of(VISIT_KEY)), argThat(args -> "1".equals(increment(args))));
+    }
+
+    @Test
+    void flushLocalCounts_redisFails_keepsCountsForNextFlush() {
+        flushReplies(3L);
+        doThrow(new RuntimeException("Connection reset")).doNothing().when(pipeline).sync();
+        for (int i = 0; i < 2; i++) {
+            riskManagementService.checkSensitiveBehavior(1L, OperationType.VISIT);
+        }
+
+        assertThrows(RuntimeException.class, () -> riskManagementService.flushLocalCounts());
+        riskManagementService.checkSensitiveBehavior(1L, OperationType.VISIT);
+        riskManagementService.flushLocalCounts();
+
+        verify(pipeline).evalsha(eq("sha"), eq(List.of(VISIT_KEY)), argThat(args -> "3".equals(increment(args))));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void checkSensitiveBehavior_batch_evaluatesAllUsersInOnePipeline() {
+        RiskProperties riskProperties = new RiskProperties();
+        riskProperties.getVisit().setLimit(100);
+        RiskManagementServiceImpl exact = new RiskManagementServiceImpl(jedisPooled, riskProperties, new SimpleMeterRegistry());
+        Response<Object> below = mock(Response.class);
+        when(below.get()).thenReturn(40L);
+        Response<Object> atLimit = mock(Response.class);
+        when(atLimit.get()).thenReturn(100L);
+        when(pipeline.evalsha(eq("sha"), eq(List.of(VISIT_KEY)), anyList())).thenReturn(below);
+        when(pipeline.evalsha(eq("sha"), eq(List.of("user:operation:visit:2")), anyList())).thenReturn(atLimit);
+
+        Set<Long> sensitive = exact.checkSensitiveBehavior(Map.of(1L, 3, 2L, 1), OperationType.VISIT);
+
+        assertEquals(Set.of(2L), sensitive);
+        verify(jedisPooled, times(1)).pipelined();
+        verify(pipeline).evalsha(eq("sha"), eq(List.of(VISIT_KEY)), argThat(args -> "3".equals(increment(args))));
+        verify(jedisPooled, never()).evalsha(anyString(), anyList(), anyList());
+    }
+}
@@ -0,0 +1,76 @@
+package com.meet5.service.unitTest;
+
+import com.meet5.dao.UserDAO;
+import com.meet5.pojo.User;
+import com.meet5.service.impl.UserCacheServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserCacheServiceImplTest {
+
+    @Mock
+    private UserDAO userDAO;
+    @Mock
+    private JedisPooled jedisPooled;
+
+    private UserCacheServiceImpl userCacheService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userCacheService = new UserCacheServiceImpl(userDAO, jedisPooled, new SimpleMeterRegistry(), 1000, 300);
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    @Test
+    void selectNormalUsersByIdList_secondCall_onlyQueriesMissingIds() {
+        when(userDAO.selectNormalUsersByIdList(List.of(1L, 2L))).thenReturn(List.of(user(1L), user(2L)));
+        when(userDAO.selectNormalUsersByIdList(List.of(3L))).thenReturn(List.of(user(3L)));
+
+        userCacheService.selectNormalUsersByIdList(List.of(1L, 2L));
+        List<User> result = userCacheService.selectNormalUsersByIdList(List.of(2L, 3L, 1L));
+
+        verify(userDAO).selectNormalUsersByIdList(List.of(3L));
+        assertEquals(List.of(2L, 3L, 1L), result.stream().map(User::getId).toList());
+    }
+
+    @Test
+    void selectNormalUsersByIdList_inactiveUser_cachedAsAbsent() {
+        when(userDAO.selectNormalUsersByIdList(List.of(1L, 2L))).thenReturn(List.of(user(1L)));
+
+        userCacheService.selectNormalUsersByIdList(List.of(1L, 2L));
+        List<User> result = userCacheService.selectNormalUsersByIdList(List.of(1L, 2L));
+
+        verify(userDAO, times(1)).selectNormalUsersByIdList(anyList());
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+    }
+
+    @Test
+    void invalidate_evictsLocallyAndBroadcasts() {
+        when(userDAO.selectNormalUsersByIdList(List.of(1L)))
+                .thenReturn(List.of(user(1L)))
+                .thenReturn(List.of());
+
+        userCacheService.selectNormalUsersByIdList(List.of(1L));
+        userCacheService.invalidate(1L);
+        List<User> result = userCacheService.selectNormalUsersByIdList(List.of(1L));
+
+        assertTrue(result.isEmpty());
+        verify(userDAO, times(2)).selectNormalUsersByIdList(List.of(1L));
+        verify(jedisPooled).publish(anyString(), eq("1"));
+    }
+}
@@ -1,8 +1,13 @@
 package com.meet5.service.unitTest;
 
 import com.meet5.common.enums.LikeStatus;
+import com.meet5.common.enums.OperationType;
 import com.meet5.common.enums.UserStatus;
+import com.meet5.common.enums.VisitorRanking;
+import com.meet5.pojo.dto.BatchItemResult;
 import com.meet5.pojo.dto.UserDto;
+import com.meet5.pojo.dto.VisitorCursor;
+import com.meet5.pojo.dto.VisitorPage;
 import com.meet5.service.impl.UserServiceImpl;
 import com.meet5.dao.*;
 import com.meet5.pojo.Like;
@@ -11,11 +16,18 @@ import com.meet5.pojo.Visit;
 import com.meet5.pojo.request.LikeRequest;
 import com.meet5.pojo.request.VisitRequest;
 import com.meet5.service.RiskManagementService;
+import com.meet5.service.VisitorFeedService;
+import com.meet5.service.VisitorRankingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
 import org.mockito.*;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -34,7 +46,13 @@ class UserServiceImplTest {
     @Mock
     private VisitDAO visitDAO;
     @Mock
+    private MultiStatementDAO multiStatementDAO;
+    @Mock
     private RiskManagementService riskManagementService;
+    @Mock
+    private VisitorFeedService visitorFeedService;
+    @Mock
+    private VisitorRankingService visitorRankingService;
 
     @BeforeEach
     void setUp() {
@@ -70,7 +88,7 @@ class UserServiceImplTest {
         userService.recordVisit(request);
 
         verify(visitDAO, never()).recordVisit(anyLong(), anyLong());
-        verify(riskManagementService, never()).checkSensitiveBehavior(anyLong());
+        verify(riskManagementService, never()).checkSensitiveBehavior(anyLong(), any());
     }
 
     @Test
@@ -79,12 +97,12 @@ class UserServiceImplTest {
         request.setVisitorId(1L);
         request.setTargetId(2L);
 
-        when(riskManagementService.checkSensitiveBehavior(1L)).thenReturn(false);
+        when(riskManagementService.checkSensitiveBehavior(1L, OperationType.VISIT)).thenReturn(false);
 
         userService.recordVisit(request);
 
         verify(visitDAO).recordVisit(1L, 2L);
-        verify(riskManagementService).checkSensitiveBehavior(1L);
+        verify(riskManagementService).checkSensitiveBehavior(1L, OperationType.VISIT);
         verify(userDAO, never()).updateStatus(anyLong(), any());
     }
 
@@ -94,7 +112,7 @@ class UserServiceImplTest {
         request.setVisitorId(1L);
         request.setTargetId(2L);
 
-        when(riskManagementService.checkSensitiveBehavior(1L)).thenReturn(true);
+        when(riskManagementService.checkSensitiveBehavior(1L, OperationType.VISIT)).thenReturn(true);
 
         userService.recordVisit(request);
 
@@ -127,14 +145,12 @@ class UserServiceImplTest {
         request.setLikerId(1L);
         request.setTargetId(2L);
 
-        Like existingLike = Like.builder().likerId(1L).targetId(2L).status(LikeStatus.LIKED).build();
-        when(likeDAO.selectLikeByLikeRequest(request)).thenReturn(existingLike);
+        when(multiStatementDAO.toggleLike(request)).thenReturn(LikeStatus.CANCELED);
 
         userService.recordLike(request);
 
-        assertEquals(LikeStatus.CANCELED, existingLike.getStatus());
-        verify(likeDAO).updateStatus(existingLike);
-        verify(likeLogDAO).insert(existingLike);
+        verify(multiStatementDAO).toggleLike(request);
+        verify(riskManagementService, never()).checkSensitiveBehavior(anyLong(), any());
     }
 
     @Test
@@ -143,14 +159,13 @@ class UserServiceImplTest {
         request.setLikerId(1L);
         request.setTargetId(2L);
 
-        when(likeDAO.selectLikeByLikeRequest(request)).thenReturn(null);
-        when(riskManagementService.checkSensitiveBehavior(1L)).thenReturn(false);
+        when(multiStatementDAO.toggleLike(request)).thenReturn(LikeStatus.LIKED);
+        when(riskManagementService.checkSensitiveBehavior(1L, OperationType.LIKE)).thenReturn(false);
 
         userService.recordLike(request);
 
-        verify(likeDAO).recordLike(1L, 2L);
-        verify(likeLogDAO).insert(any(Like.class));
-        verify(riskManagementService).checkSensitiveBehavior(1L);
+        verify(multiStatementDAO).toggleLike(request);
+        verify(riskManagementService).checkSensitiveBehavior(1L, OperationType.LIKE);
     }
 
     @Test
@@ -159,8 +174,8 @@ class UserServiceImplTest {
         request.setLikerId(1L);
         request.setTargetId(2L);
 
-        when(likeDAO.selectLikeByLikeRequest(request)).thenReturn(null);
-        when(riskManagementService.checkSensitiveBehavior(1L)).thenReturn(true);
+        when(multiStatementDAO.toggleLike(request)).thenReturn(LikeStatus.LIKED);
+        when(riskManagementService.checkSensitiveBehavior(1L, OperationType.LIKE)).thenReturn(true);
 
         userService.recordLike(request);
 
@@ -170,7 +185,7 @@ class UserServiceImplTest {
 
     @Test
     void getLastMonthVisitors_noVisits_returnsEmptyList() {
-        when(visitDAO.findRecentVisits(anyLong(), any())).thenReturn(Collections.emptyList());
+        when(visitDAO.findLatestVisitsPerDay(anyLong(), any(), any())).thenReturn(Collections.emptyList());
 
         List<UserDto> result = userService.getLastMonthVisitors(1L);
 
@@ -178,15 +193,13 @@ class UserServiceImplTest {
     }
 
     @Test
-    void getLastMonthVisitors_visitsAggregatedPerDayAndSorted() {
-        Visit visit1 = new Visit(2L, 1L, LocalDateTime.now().minusDays(2));
-        Visit visit2 = new Visit(2L, 1L, LocalDateTime.now().minusDays(1));
-        Visit visit3 = new Visit(3L, 1L, LocalDateTime.now().minusDays(3));
-        Visit visit4 = new Visit(3L, 1L, LocalDateTime.now().minusDays(3).minusHours(5));
+    void getLastMonthVisitors_latestVisitsPerDaySorted() {
+        LocalDateTime noon = LocalDateTime.now().withHour(12).withMinute(0).withSecond(0).withNano(0);
+        Visit visit1 = new Visit(2L, null, noon.minusDays(1));
+        Visit visit2 = new Visit(2L, null, noon.minusDays(2));
+        Visit visit3 = new Visit(3L, null, noon.minusDays(3));
 
-        List<Visit> visits = List.of(visit1, visit2, visit3, visit4);
-
-        when(visitDAO.findRecentVisits(eq(1L), any())).thenReturn(visits);
+        when(visitDAO.findLatestVisitsPerDay(eq(1L), any(), isNull())).thenReturn(List.of(visit1, visit2, visit3));
 
         User user2 = new User();
         user2.setId(2L);
@@ -202,7 +215,7 @@ class UserServiceImplTest {
         assertTrue(result.get(0).getVisitedTime().isAfter(result.get(1).getVisitedTime()));
 
         assertEquals(2L, result.get(0).getId());
-        assertEquals(visit2.getVisitedTime(), result.get(0).getVisitedTime());
+        assertEquals(visit1.getVisitedTime(), result.get(0).getVisitedTime());
 
 
         assertEquals(3L, result.get(2).getId());
@@ -210,14 +223,256 @@ class UserServiceImplTest {
     }
 
     @Test
-    void getLastMonthVisitors_visitsWithNullFields_filteredOut() {
-        Visit invalidVisit = new Visit(null, null, null);
-        List<Visit> visits = List.of(invalidVisit);
+    void getLastMonthVisitors_withoutCaches_scansUntilTopVisitorsFound() {
+        ReflectionTestUtils.setField(userService, "visitorFeedService", null);
+        ReflectionTestUtils.setField(userService, "visitorRankingService", null);
+        LocalDateTime noon = LocalDateTime.now().withHour(12).withMinute(0).withSecond(0).withNano(0);
+        List<Visit> repeatedVisits = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            repeatedVisits.add(new Visit(2L, null, noon.minusDays(1).minusMinutes(i)));
+        }
+        List<Visit> distinctVisits = new ArrayList<>();
+        for (long visitorId = 3; visitorId <= 14; visitorId++) {
+            distinctVisits.add(new Visit(visitorId, null, noon.minusDays(2).minusMinutes(visitorId)));
+        }
+        AtomicInteger rowsHandled = new AtomicInteger();
+        doAnswer(scanning(repeatedVisits, rowsHandled))
+                .when(visitDAO).scanVisits(eq(1L), any(), isNull(), isNull(), eq(20), any());
+        doAnswer(scanning(distinctVisits, rowsHandled))
+                .when(visitDAO).scanVisits(eq(1L), any(), eq(noon.minusDays(1).minusMinutes(19)), eq(2L), eq(40), any());
+        when(userDAO.selectNormalUsersByIdList(anyList())).thenAnswer(invocation -> ((List<Long>) invocation.getArgument(0))
+                .stream().map(id -> User.builder().id(id).build()).toList());
+        when(visitDAO.findLatestVisitsPerDay(eq(1L), any(), any())).thenReturn(List.of());
+
+        List<UserDto> byRecency = userService.getLastMonthVisitors(1L, VisitorRanking.RECENCY);
+        userService.getLastMonthVisitors(1L, VisitorRanking.FREQUENCY);
+
+        assertEquals(UserServiceImpl.MAX_VISITORS, byRecency.size());
+        assertEquals(noon.minusDays(1), byRecency.get(0).getVisitedTime());
+        assertEquals(20 + 9, rowsHandled.get());
+        verify(visitDAO).findLatestVisitsPerDay(eq(1L), any(), isNull());
+    }
+
+    @Test
+    void getLastMonthVisitors_feedHit_skipsMySql() {
+        Visit visit = new Visit(2L, 1L, LocalDateTime.now().minusHours(1));
+        when(visitorFeedService.findLatestVisits(eq(1L), any(), eq(UserServiceImpl.MAX_VISITORS)))
+                .thenReturn(Optional.of(List.of(visit)));
 
-        when(visitDAO.findRecentVisits(eq(1L), any())).thenReturn(visits);
+        User user2 = new User();
+        user2.setId(2L);
+        when(userDAO.selectNormalUsersByIdList(List.of(2L))).thenReturn(List.of(user2));
 
         List<UserDto> result = userService.getLastMonthVisitors(1L);
 
-        assertTrue(result.isEmpty());
+        assertEquals(1, result.size());
+        assertEquals(visit.getVisitedTime(), result.get(0).getVisitedTime());
+        verify(visitDAO, never()).findLatestVisitsPerDay(anyLong(), any(), any());
+    }
+
+    @Test
+    void getLastMonthVisitors_feedMiss_rebuildsFeedFromMySql() {
+        Visit visit = new Visit(2L, 1L, LocalDateTime.now().minusHours(1));
+        when(visitorFeedService.findLatestVisits(eq(1L), any(), anyInt())).thenReturn(Optional.empty());
+        when(visitDAO.findLatestVisitsPerDay(eq(1L), any(), any())).thenReturn(List.of(visit));
+
+        userService.getLastMonthVisitors(1L);
+
+        InOrder inOrder = inOrder(visitorFeedService, visitDAO);
+        inOrder.verify(visitorFeedService).prepareRebuild(1L);
+        inOrder.verify(visitDAO).findLatestVisitsPerDay(eq(1L), any(), any());
+        inOrder.verify(visitorFeedService).rebuild(eq(1L), argThat(visits -> visits.size() == 1 && visits.contains(visit)));
+    }
+
+    @Test
+    void getLastMonthVisitors_frequencyRankingMiss_ranksFrequentVisitorFirst() {
+        LocalDateTime noon = LocalDateTime.now().withHour(12).withMinute(0).withSecond(0).withNano(0);
+        List<Visit> visits = List.of(
+                new Visit(3L, 1L, noon.minusDays(1)),
+                new Visit(2L, 1L, noon.minusDays(3)),
+                new Visit(2L, 1L, noon.minusDays(4)),
+                new Visit(2L, 1L, noon.minusDays(5)));
+        when(visitDAO.findLatestVisitsPerDay(eq(1L), any(), any())).thenReturn(visits);
+        User user2 = new User();
+        user2.setId(2L);
+        User user3 = new User();
+        user3.setId(3L);
+        when(userDAO.selectNormalUsersByIdList(anyList())).thenReturn(List.of(user2, user3));
+
+        List<UserDto> byFrequency = userService.getLastMonthVisitors(1L, VisitorRanking.FREQUENCY);
+        List<UserDto> byRecency = userService.getLastMonthVisitors(1L, VisitorRanking.RECENCY);
+
+        assertEquals(List.of(2L, 3L), byFrequency.stream().map(UserDto::getId).toList());
+        assertEquals(noon.minusDays(3), byFrequency.get(0).getVisitedTime());
+        assertEquals(List.of(3L, 2L, 2L, 2L), byRecency.stream().map(UserDto::getId).toList());
+        InOrder inOrder = inOrder(visitorRankingService, visitDAO);
+        inOrder.verify(visitorRankingService).prepareRebuild(1L);
+        inOrder.verify(visitDAO).findLatestVisitsPerDay(eq(1L), any(), any());
+        inOrder.verify(visitorRankingService).rebuild(eq(1L), anyCollection());
+        verify(visitorRankingService).rebuild(eq(1L), anyCollection());
+        verify(visitorFeedService).rebuild(eq(1L), anyCollection());
+    }
+
+    @Test
+    void getLastMonthVisitors_feedMiss_leavesRankingAlone() {
+        when(visitDAO.findLatestVisitsPerDay(eq(1L), any(), any())).thenReturn(List.of());
+
+        userService.getLastMonthVisitors(1L, VisitorRanking.RECENCY);
+
+        verify(visitorFeedService).rebuild(eq(1L), anyCollection());
+        verifyNoInteractions(visitorRankingService);
+    }
+
+    @Test
+    void getLastMonthVisitors_rankingOnly_recencyScansInsteadOfAggregating() {
+        ReflectionTestUtils.setField(userService, "visitorFeedService", null);
+        doAnswer(scanning(List.of(new Visit(2L, null, LocalDateTime.now().minusHours(1))), new AtomicInteger()))
+                .when(visitDAO).scanVisits(eq(1L), any(), isNull(), isNull(), anyInt(), any());
+
+        userService.getLastMonthVisitors(1L, VisitorRanking.RECENCY);
+
+        verify(visitDAO, never()).findLatestVisitsPerDay(anyLong(), any(), any());
+        verifyNoInteractions(visitorRankingService);
+    }
+
+    @Test
+    void getLastMonthVisitors_frequencyRankingHit_skipsMySql() {
+        Visit visit = new Visit(2L, 1L, LocalDateTime.now().minusHours(1));
+        when(visitorRankingService.findTopVisitors(eq(1L), any(), eq(UserServiceImpl.MAX_VISITORS)))
+                .thenReturn(Optional.of(List.of(visit)));
+        User user2 = new User();
+        user2.setId(2L);
+        when(userDAO.selectNormalUsersByIdList(List.of(2L))).thenReturn(List.of(user2));
+
+        List<UserDto> result = userService.getLastMonthVisitors(1L, VisitorRanking.FREQUENCY);
+
+        assertEquals(1, result.size());
+        verify(visitDAO, never()).findLatestVisitsPerDay(anyLong(), any(), any());
+        verify(visitorFeedService, never()).findLatestVisits(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void getLastMonthVisitors_page_skipsVisitorsListedEarlierOnCursorDay() {
+        LocalDateTime noon = LocalDateTime.now().withHour(12).withMinute(0).withSecond(0).withNano(0);
+        VisitorCursor cursor = new VisitorCursor(noon.minusDays(1), 5L);
+        doAnswer(scanning(List.of(
+                new Visit(4L, null, noon.minusDays(1).minusHours(1)),
+                new Visit(3L, null, noon.minusDays(2)),
+                new Visit(3L, null, noon.minusDays(2).minusHours(1)),
+                new Visit(6L, null, noon.minusDays(3))), new AtomicInteger()))
+                .when(visitDAO).scanVisits(eq(1L), any(), eq(noon.minusDays(1)), eq(5L), eq(4), any());
+        when(visitDAO.selectVisitorIdsBetween(1L, noon.minusDays(1), 5L, noon.toLocalDate().atStartOfDay(), 10_000))
+                .thenReturn(List.of(5L, 4L));
+        User user3 = new User();
+        user3.setId(3L);
+        User user6 = new User();
+        user6.setId(6L);
+        when(userDAO.selectNormalUsersByIdList(anyList())).thenReturn(List.of(user3, user6));
+
+        VisitorPage page = userService.getLastMonthVisitors(1L, cursor, 2);
+
+        assertEquals(List.of(3L, 6L), page.getVisitors().stream().map(UserDto::getId).toList());
+        assertEquals(new VisitorCursor(noon.minusDays(3), 6L), VisitorCursor.decode(page.getNextCursor()));
+        InOrder inOrder = inOrder(visitDAO);
+        inOrder.verify(visitDAO).selectVisitorIdsBetween(anyLong(), any(), anyLong(), any(), anyInt());
+        inOrder.verify(visitDAO).scanVisits(anyLong(), any(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void getLastMonthVisitors_lastPage_hasNoNextCursor() {
+        LocalDateTime noon = LocalDateTime.now().withHour(12).withMinute(0).withSecond(0).withNano(0);
+        doAnswer(scanning(List.of(new Visit(2L, null, noon.minusDays(1))), new AtomicInteger()))
+                .when(visitDAO).scanVisits(eq(1L), any(), isNull(), isNull(), eq(20), any());
+        User user2 = new User();
+        user2.setId(2L);
+        when(userDAO.selectNormalUsersByIdList(anyList())).thenReturn(List.of(user2));
+
+        VisitorPage page = userService.getLastMonthVisitors(1L, null, 10);
+
+        assertEquals(1, page.getVisitors().size());
+        assertNull(page.getNextCursor());
+        verify(visitDAO, never()).selectVisitorIdsBetween(anyLong(), any(), anyLong(), any(), anyInt());
+    }
+
+    /**
+     * Hands the rows to the scan's handler until it stops, counting the rows handed over.
+     */
+    private static Answer<Void> scanning(List<Visit> rows, AtomicInteger rowsHandled) {
+        return invocation -> {
+            ResultHandler<Visit> handler = invocation.getArgument(5);
+            DefaultResultContext<Visit> context = new DefaultResultContext<>();
+            for (Visit row : rows) {
+                if (context.isStopped()) {
+                    break;
+                }
+                context.nextResultObject(row);
+                rowsHandled.incrementAndGet();
+                handler.handleResult(context);
+            }
+            return null;
+        };
+    }
+
+    @Test
+    void recordVisit_feedEnabled_updatesFeed() {
+        userService.recordVisit(new VisitRequest(1L, 2L));
+
+        verify(visitorFeedService).recordVisit(eq(1L), eq(2L), any(LocalDateTime.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void recordVisits_mixedBatch_oneInsertAndOneRiskEvaluation() {
+        when(riskManagementService.checkSensitiveBehavior(anyMap(), eq(OperationType.VISIT))).thenReturn(Set.of(1L));
+        List<VisitRequest> requests = Arrays.asList(
+                new VisitRequest(1L, 2L),
+                new VisitRequest(3L, 3L),
+                null,
+                new VisitRequest(1L, 4L));
+
+        List<BatchItemResult> results = userService.recordVisits(requests);
+
+        assertEquals(List.of(BatchItemResult.Outcome.RECORDED, BatchItemResult.Outcome.SKIPPED,
+                        BatchItemResult.Outcome.REJECTED, BatchItemResult.Outcome.RECORDED),
+                results.stream().map(BatchItemResult::getOutcome).toList());
+        ArgumentCaptor<List<Visit>> visits = ArgumentCaptor.forClass(List.class);
+        verify(visitDAO).batchInsertVisits(visits.capture());
+        assertEquals(List.of(2L, 4L), visits.getValue().stream().map(Visit::getTargetId).toList());
+        verify(riskManagementService).checkSensitiveBehavior(Map.of(1L, 2), OperationType.VISIT);
+        verify(userDAO).updateStatus(1L, UserStatus.FRAUD);
+        verify(visitDAO, never()).recordVisit(anyLong(), anyLong());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void recordLikes_togglesEachPairAndRejectsDuplicates() {
+        when(multiStatementDAO.toggleLikes(anyList())).thenReturn(List.of(
+                Like.builder().likerId(1L).targetId(2L).status(LikeStatus.CANCELED).build(),
+                Like.builder().likerId(1L).targetId(3L).status(LikeStatus.LIKED).build()));
+        when(riskManagementService.checkSensitiveBehavior(anyMap(), eq(OperationType.LIKE))).thenReturn(Set.of());
+
+        List<BatchItemResult> results = userService.recordLikes(List.of(
+                new LikeRequest(1L, 3L),
+                new LikeRequest(1L, 2L),
+                new LikeRequest(1L, 3L)));
+
+        assertEquals(LikeStatus.LIKED, results.get(0).getLikeStatus());
+        assertEquals(LikeStatus.CANCELED, results.get(1).getLikeStatus());
+        assertEquals(BatchItemResult.Outcome.REJECTED, results.get(2).getOutcome());
+        ArgumentCaptor<List<LikeRequest>> pairs = ArgumentCaptor.forClass(List.class);
+        verify(multiStatementDAO).toggleLikes(pairs.capture());
+        assertEquals(List.of(new LikeRequest(1L, 2L), new LikeRequest(1L, 3L)), pairs.getValue());
+        verify(riskManagementService).checkSensitiveBehavior(Map.of(1L, 1), OperationType.LIKE);
+        verify(userDAO, never()).updateStatus(anyLong(), any());
+    }
+
+    @Test
+    void getLikeStates_withoutIndex_readsLikedTargetsFromMySql() {
+        when(likeDAO.selectLikedTargetIds(1L, List.of(3L, 2L, 3L), null)).thenReturn(List.of(3L));
+
+        Map<Long, Boolean> states = userService.getLikeStates(1L, List.of(3L, 2L, 3L));
+
+        assertEquals(List.of(3L, 2L), new ArrayList<>(states.keySet()));
+        assertEquals(List.of(true, false), new ArrayList<>(states.values()));
     }
 }
@@ -0,0 +1,138 @@
+package com.meet5.service.unitTest;
+
+import com.meet5.dao.VisitDAO;
+import com.meet5.pojo.Visit;
+import com.meet5.service.impl.VisitWriteBehindServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VisitWriteBehindServiceImplTest {
+
+    @Mock
+    private VisitDAO visitDAO;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private VisitWriteBehindServiceImpl newService(int capacity, int batchSize, long flushIntervalMillis) {
+        return new VisitWriteBehindServiceImpl(visitDAO, new SimpleMeterRegistry(),
+                capacity, batchSize, flushIntervalMillis, 10);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void submit_manyVisits_flushedInBatchesNoLargerThanBatchSize() throws InterruptedException {
+        VisitWriteBehindServiceImpl service = newService(100, 10, 20);
+        service.start();
+
+        for (long i = 0; i < 25; i++) {
+            service.submit(i, 100L);
+        }
+        service.shutdown();
+
+        ArgumentCaptor<List<Visit>> captor = ArgumentCaptor.forClass(List.class);
+        verify(visitDAO, atLeast(3)).batchInsertVisits(captor.capture());
+
+        int total = 0;
+        for (List<Visit> batch : captor.getAllValues()) {
+            assertTrue(batch.size() <= 10);
+            total += batch.size();
+        }
+        assertEquals(25, total);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void submit_partialBatch_flushedAfterInterval() {
+        VisitWriteBehindServiceImpl service = newService(100, 500, 20);
+        service.start();
+
+        service.submit(1L, 2L);
+
+        ArgumentCaptor<List<Visit>> captor = ArgumentCaptor.forClass(List.class);
+        verify(visitDAO, timeout(1000)).batchInsertVisits(captor.capture());
+
+        Visit visit = captor.getValue().get(0);
+        assertEquals(1L, visit.getVisitorId());
+        assertEquals(2L, visit.getTargetId());
+        assertNotNull(visit.getVisitedTime());
+    }
+
+    @Test
+    void submit_bufferFull_writesSynchronously() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (Thread.currentThread().getName().startsWith("visit-write-behind") && release.getCount() > 0) {
+                release.await();
+            }
+            return null;
+        }).when(visitDAO).batchInsertVisits(anyList());
+
+        VisitWriteBehindServiceImpl service = newService(1, 1, 1000);
+        service.start();
+
+        // First visit occupies the flusher, second fills the buffer, third overflows.
+        service.submit(1L, 10L);
+        verify(visitDAO, timeout(1000)).batchInsertVisits(anyList());
+        service.submit(2L, 10L);
+        service.submit(3L, 10L);
+
+        verify(visitDAO, times(1)).batchInsertVisits(argThat(batch -> batch.size() == 1
+                && batch.get(0).getVisitorId() == 3L));
+
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void submit_bufferFullAndWriteFails_throwsToCaller() throws InterruptedException {
+        doThrow(new RuntimeException("Database error")).when(visitDAO).batchInsertVisits(anyList());
+        VisitWriteBehindServiceImpl service = newService(1, 1, 1000);
+        service.shutdown();
+
+        // Not running, so every visit takes the synchronous path.
+        assertThrows(RuntimeException.class, () -> service.submit(1L, 10L));
+        verify(visitDAO).batchInsertVisits(argThat(batch -> batch.size() == 1 && batch.get(0).getVisitorId() == 1L));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shutdown_pendingVisits_drained() throws InterruptedException {
+        VisitWriteBehindServiceImpl service = newService(10, 10, 5000);
+        service.start();
+
+        service.submit(1L, 2L);
+        service.submit(3L, 4L);
+        service.shutdown();
+
+        ArgumentCaptor<List<Visit>> captor = ArgumentCaptor.forClass(List.class);
+        verify(visitDAO, atLeastOnce()).batchInsertVisits(captor.capture());
+        assertEquals(2, captor.getAllValues().stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void flush_daoFails_doesNotStopFlusher() throws InterruptedException {
+        doThrow(new RuntimeException("Database error"))
+                .doThrow(new RuntimeException("Database error"))
+                .doNothing()
+                .when(visitDAO).batchInsertVisits(anyList());
+        VisitWriteBehindServiceImpl service = newService(10, 1, 5);
+        service.start();
+
+        service.submit(1L, 2L);
+        service.submit(3L, 4L);
+        service.shutdown();
+
+        verify(visitDAO, times(3)).batchInsertVisits(anyList());
+    }
+}
@@ -0,0 +1,157 @@
+package com.meet5.service.unitTest;
+
+import com.meet5.pojo.Visit;
+import com.meet5.service.impl.VisitorFeedServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.resps.Tuple;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VisitorFeedServiceImplTest {
+
+    @Mock
+    private JedisPooled jedisPooled;
+    @Mock
+    private Pipeline pipeline;
+
+    private VisitorFeedServiceImpl visitorFeedService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jedisPooled.scriptLoad(anyString())).thenReturn("sha");
+        when(jedisPooled.pipelined()).thenReturn(pipeline);
+        visitorFeedService = new VisitorFeedServiceImpl(jedisPooled, 2);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Response<T> response(T value) {
+        Response<T> response = mock(Response.class);
+        when(response.get()).thenReturn(value);
+        return response;
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void stubRead(List<Tuple> tuples, boolean exists, boolean building) {
+        Response<List<Tuple>> range = response(tuples);
+        Response<Boolean> feedExists = response(exists);
+        Response<Boolean> buildingExists = response(building);
+        when(pipeline.zrevrangeByScoreWithScores(eq("visitor:feed:1"), anyDouble(), anyDouble(), anyInt(), anyInt()))
+                .thenReturn(range);
+        when(pipeline.exists("visitor:feed:1")).thenReturn(feedExists);
+        when(pipeline.exists("visitor:feed:building:1")).thenReturn(buildingExists);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void recordVisit_passesFeedAndBuildingMarkerToScript() {
+        LocalDateTime visitedTime = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+        visitorFeedService.recordVisit(2L, 1L, visitedTime);
+
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(jedisPooled).evalsha(eq("sha"), eq(List.of("visitor:feed:1", "visitor:feed:building:1")), args.capture());
+        assertEquals(String.valueOf(epochMillis(visitedTime)), args.getValue().get(0));
+        assertEquals("2:" + visitedTime.toLocalDate().toEpochDay(), args.getValue().get(1));
+        assertEquals("2", args.getValue().get(3));
+    }
+
+    @Test
+    void recordVisit_scriptMissing_reloadsAndRetries() {
+        when(jedisPooled.evalsha(eq("sha"), anyList(), anyList())).thenThrow(new JedisNoScriptException("NOSCRIPT"));
+        when(jedisPooled.scriptLoad(anyString())).thenReturn("sha2");
+
+        visitorFeedService.recordVisit(2L, 1L, LocalDateTime.now());
+
+        verify(jedisPooled).evalsha(eq("sha2"), anyList(), anyList());
+        verify(jedisPooled, never()).del(any(String[].class));
+    }
+
+    @Test
+    void recordVisit_redisFails_invalidatesFeedAndMarker() {
+        when(jedisPooled.evalsha(anyString(), anyList(), anyList())).thenThrow(new JedisConnectionException("down"));
+
+        visitorFeedService.recordVisit(2L, 1L, LocalDateTime.now());
+
+        verify(jedisPooled).del("visitor:feed:1", "visitor:feed:building:1");
+    }
+
+    @Test
+    void findLatestVisits_builtFeed_returnsVisits() {
+        LocalDateTime visitedTime = LocalDateTime.now().withNano(0);
+        stubRead(List.of(new Tuple("2:" + visitedTime.toLocalDate().toEpochDay(), (double) epochMillis(visitedTime))),
+                true, false);
+
+        Optional<List<Visit>> visits = visitorFeedService.findLatestVisits(1L, visitedTime.minusDays(1), 10);
+
+        assertEquals(Optional.of(List.of(new Visit(2L, 1L, visitedTime))), visits);
+    }
+
+    @Test
+    void findLatestVisits_feedBeingRebuilt_treatedAsMissing() {
+        stubRead(List.of(new Tuple("2:1", 1.0)), true, true);
+
+        assertEquals(Optional.empty(), visitorFeedService.findLatestVisits(1L, LocalDateTime.now().minusDays(1), 10));
+    }
+
+    @Test
+    void findLatestVisits_noFeed_treatedAsMissing() {
+        stubRead(List.of(), false, false);
+
+        assertEquals(Optional.empty(), visitorFeedService.findLatestVisits(1L, LocalDateTime.now().minusDays(1), 10));
+    }
+
+    @Test
+    void prepareRebuild_setsExpiringMarker() {
+        visitorFeedService.prepareRebuild(1L);
+
+        verify(jedisPooled).set(eq("visitor:feed:building:1"), eq("1"), any(SetParams.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void rebuild_sendsNewestEntriesAndClearsMarkerInOneScript() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Visit> visits = List.of(
+                new Visit(2L, 1L, now.minusDays(3)),
+                new Visit(3L, 1L, now.minusDays(1)),
+                new Visit(4L, 1L, now.minusDays(2)));
+
+        visitorFeedService.rebuild(1L, visits);
+
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(jedisPooled).evalsha(eq("sha"), eq(List.of("visitor:feed:1", "visitor:feed:building:1")), args.capture());
+        List<String> sent = args.getValue();
+        assertEquals(3 + 2 * 2, sent.size());
+        assertEquals(String.valueOf(epochMillis(now.minusDays(1))), sent.get(3));
+        assertEquals("3:" + now.minusDays(1).toLocalDate().toEpochDay(), sent.get(4));
+        assertEquals("4:" + now.minusDays(2).toLocalDate().toEpochDay(), sent.get(6));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void rebuild_noVisits_stillClearsMarker() {
+        visitorFeedService.rebuild(1L, List.of());
+
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(jedisPooled).evalsha(eq("sha"), eq(List.of("visitor:feed:1", "visitor:feed:building:1")), args.capture());
+        assertEquals(3, args.getValue().size());
+    }
+}
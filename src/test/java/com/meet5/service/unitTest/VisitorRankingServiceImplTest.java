@@ -0,0 +1,146 @@
+package com.meet5.service.unitTest;
+
+import com.meet5.pojo.Visit;
+import com.meet5.service.impl.VisitorRankingServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+import redis.clients.jedis.params.SetParams;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VisitorRankingServiceImplTest {
+
+    private static final List<String> KEYS =
+            List.of("visitor:rank:1", "visitor:rank:days:1", "visitor:rank:due:1", "visitor:rank:building:1");
+
+    @Mock
+    private JedisPooled jedisPooled;
+
+    private VisitorRankingServiceImpl visitorRankingService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jedisPooled.scriptLoad(anyString())).thenReturn("sha");
+        visitorRankingService = new VisitorRankingServiceImpl(jedisPooled, 2, 168);
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void recordVisit_passesDayAndWindowToScript() {
+        LocalDateTime visitedTime = LocalDateTime.now().withNano(0);
+
+        visitorRankingService.recordVisit(2L, 1L, visitedTime);
+
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(jedisPooled).evalsha(eq("sha"), eq(KEYS), args.capture());
+        List<String> sent = args.getValue();
+        assertEquals("2", sent.get(0));
+        assertEquals(String.valueOf(visitedTime.toLocalDate().toEpochDay()), sent.get(1));
+        assertEquals(String.valueOf(epochMillis(visitedTime)), sent.get(2));
+        long windowStart = Long.parseLong(sent.get(3));
+        assertTrue(Math.abs(windowStart - epochMillis(LocalDateTime.now().minusMonths(1))) < 60_000);
+        assertEquals(String.valueOf(Duration.ofHours(168).toMillis()), sent.get(4));
+        assertEquals("2", sent.get(5));
+    }
+
+    @Test
+    void recordVisit_scriptMissing_reloadsAndRetries() {
+        when(jedisPooled.evalsha(eq("sha"), anyList(), anyList())).thenThrow(new JedisNoScriptException("NOSCRIPT"));
+        when(jedisPooled.scriptLoad(anyString())).thenReturn("sha2");
+
+        visitorRankingService.recordVisit(2L, 1L, LocalDateTime.now());
+
+        verify(jedisPooled).evalsha(eq("sha2"), anyList(), anyList());
+        verify(jedisPooled, never()).del(any(String[].class));
+    }
+
+    @Test
+    void recordVisit_redisFails_invalidatesRanking() {
+        when(jedisPooled.evalsha(anyString(), anyList(), anyList())).thenThrow(new JedisConnectionException("down"));
+
+        visitorRankingService.recordVisit(2L, 1L, LocalDateTime.now());
+
+        verify(jedisPooled).del(KEYS.toArray(new String[0]));
+    }
+
+    @Test
+    void findTopVisitors_missingOrRebuilding_treatedAsMissing() {
+        when(jedisPooled.evalsha(eq("sha"), eq(KEYS), anyList())).thenReturn(0L);
+
+        assertEquals(Optional.empty(), visitorRankingService.findTopVisitors(1L, LocalDateTime.now().minusDays(1), 10));
+        verify(jedisPooled, never()).zrevrange(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void findTopVisitors_returnsLastVisitOfEachVisitorInRankOrder() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        long today = now.toLocalDate().toEpochDay();
+        when(jedisPooled.evalsha(eq("sha"), eq(KEYS), anyList())).thenReturn(1L);
+        when(jedisPooled.zrevrange("visitor:rank:1", 0, 3)).thenReturn(List.of("3", "2", "4"));
+        when(jedisPooled.hmget("visitor:rank:days:1", "3", "2", "4")).thenReturn(List.of(
+                (today - 2) + ":" + epochMillis(now.minusDays(2)) + "," + today + ":" + epochMillis(now),
+                (today - 3) + ":" + epochMillis(now.minusDays(3)),
+                (today - 40) + ":" + epochMillis(now.minusDays(40))));
+
+        Optional<List<Visit>> visits = visitorRankingService.findTopVisitors(1L, now.minusMonths(1), 2);
+
+        assertEquals(Optional.of(List.of(new Visit(3L, 1L, now), new Visit(2L, 1L, now.minusDays(3)))), visits);
+    }
+
+    @Test
+    void prepareRebuild_setsExpiringMarker() {
+        visitorRankingService.prepareRebuild(1L);
+
+        verify(jedisPooled).set(eq("visitor:rank:building:1"), eq("1"), any(SetParams.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void rebuild_sendsVisitDaysOfHighestRankedVisitors() {
+        LocalDateTime noon = LocalDateTime.now().withHour(12).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime day1 = noon.minusDays(2);
+        LocalDateTime day2 = noon.minusDays(1);
+        List<Visit> visits = List.of(
+                new Visit(2L, 1L, day2),
+                new Visit(2L, 1L, day1),
+                new Visit(3L, 1L, day2.plusHours(1)),
+                new Visit(4L, 1L, day1.minusHours(1)));
+
+        visitorRankingService.rebuild(1L, visits);
+
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(jedisPooled).evalsha(eq("sha"), eq(KEYS), args.capture());
+        List<String> sent = args.getValue();
+        assertEquals(4 + 2 * 2, sent.size());
+        assertEquals("2", sent.get(4));
+        assertEquals(day1.toLocalDate().toEpochDay() + ":" + epochMillis(day1) + ","
+                + day2.toLocalDate().toEpochDay() + ":" + epochMillis(day2), sent.get(5));
+        assertEquals("3", sent.get(6));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void rebuild_noVisits_stillClearsMarker() {
+        visitorRankingService.rebuild(1L, List.of());
+
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(jedisPooled).evalsha(eq("sha"), eq(KEYS), args.capture());
+        assertEquals(4, args.getValue().size());
+    }
+}